@@ -5,16 +5,24 @@ import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Pane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import model.Color;
 import model.Game;
 import model.strategy.ComputerStrategy;
 import model.strategy.RandomStrategy;
+import model.strategy.ThreatSearchStrategy;
 import view.javafx.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class JavaFXApplication extends Application {
     private Game model;
+    private JavaFXController controller;
+    private PerformanceMonitor monitor;
     public static void main(String[] args) {
         launch(args);
     }
@@ -45,6 +53,11 @@ public class JavaFXApplication extends Application {
     }
 
     private void setupGame(Stage primaryStage, int rows, int cols, String aiLevel) {
+        if (controller != null) {
+            // The previous game's threads and timers would otherwise keep it alive
+            controller.dispose();
+            monitor.dispose();
+        }
         model = new Game(rows, cols, getStrategy(aiLevel));
         boolean isPlayingWithAI = (aiLevel != null);
         setupGameUI(primaryStage, model, isPlayingWithAI, creatRestartCallBack(primaryStage));
@@ -65,9 +78,11 @@ public class JavaFXApplication extends Application {
         InfoPane blackPlayerInfo = isPlayingWithAI
                 ? new InfoPane("AI Player", Color.BLACK)
                 : new InfoPane("BLACK Player", Color.BLACK);
-        BoardPane board = new BoardPane(model.getRows(), model.getCols());
-        Pane boardContainer = createBoardContainer(board);
-        new JavaFXController(model, menu, board, pinkPlayerInfo, blackPlayerInfo, boardContainer);
+        BoardView board = BoardView.create(model.getRows(), model.getCols());
+        Pane boardContainer = createBoardContainer(board.getRegion());
+        monitor = new PerformanceMonitor();
+        controller = new JavaFXController(model, menu, board, pinkPlayerInfo, blackPlayerInfo,
+                boardContainer, monitor);
 
         // Build the layout
         BorderPane root = new BorderPane();
@@ -76,14 +91,15 @@ public class JavaFXApplication extends Application {
         root.setLeft(pinkPlayerInfo);
         root.setRight(blackPlayerInfo);
 
-        Scene scene = new Scene(root);
-        addKeyHandler(scene);
+        Scene scene = new Scene(new StackPane(root, monitor.getOverlay()));
+        monitor.attach(scene);
+        addKeyHandler(scene, controller, monitor);
         primaryStage.setScene(scene);
         setFullScreenBounds(primaryStage);
         primaryStage.show();
     }
 
-    private Pane createBoardContainer(BoardPane board) {
+    private Pane createBoardContainer(Region board) {
         Pane boardContainer = new Pane();
 
         board.prefWidthProperty().bind(boardContainer.widthProperty().multiply(0.7));
@@ -108,21 +124,36 @@ public class JavaFXApplication extends Application {
         if (aiLevel != null && aiLevel.equalsIgnoreCase("easy")) {
             return new RandomStrategy();
         }
+        if (aiLevel != null && aiLevel.equalsIgnoreCase("medium")) {
+            return new ThreatSearchStrategy();
+        }
         return null;
     }
 
-    private void addKeyHandler(Scene scene) {
+    private void addKeyHandler(Scene scene, JavaFXController controller, PerformanceMonitor monitor) {
         scene.setOnKeyPressed(e -> {
             if (e.isControlDown()) {
                 switch (e.getCode()) {
-                    case Z -> model.undo();
-                    case Y -> model.redo();
+                    case Z -> controller.undo();
+                    case Y -> controller.redo();
                     case S -> model.surrender();
+                    case P -> monitor.toggleOverlay();
+                    case E -> exportPerformance(monitor);
                 }
             }
         });
     }
 
+    private void exportPerformance(PerformanceMonitor monitor) {
+        Path file = Path.of("oxono-perf-" + System.currentTimeMillis() + ".txt");
+        try {
+            monitor.export(file);
+            System.out.println("Performance histograms exported to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Could not export the performance histograms: " + e.getMessage());
+        }
+    }
+
     private void setFullScreenBounds(Stage primaryStage) {
         Rectangle2D bounds = Screen.getPrimary().getVisualBounds();
         primaryStage.setX(bounds.getMinX());
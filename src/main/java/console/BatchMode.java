@@ -0,0 +1,203 @@
+package console;
+
+import controller.ConsoleCommands;
+import model.Color;
+import model.CompactState;
+import model.Game;
+import model.OxonoException;
+import model.StateCodec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Command line entry point playing scripted games without any display, to replay or
+ * regression-test many games at once.
+ * <p>
+ * Usage: {@code BatchMode [--size ROWSxCOLS] [--positions] [--script] [file...]}, reading the
+ * standard input without files. The games are written with the commands of the console, see
+ * {@link ConsoleCommands}: by default each line is a game, its commands separated by
+ * {@code ;} as in {@code "move x 12; insert 13; move o 20; insert 26"}; with {@code --script}
+ * each file is a game, one command per line. Blank lines and lines starting with {@code #}
+ * are skipped.
+ * <p>
+ * Each game is played from the starting position of a board of 6x6 tiles by default, and
+ * reported on one line: {@code <game> <PINK|BLACK|DRAW|RUNNING> <ply>}, followed by the final
+ * position encoded with {@link StateCodec} in hexadecimal with {@code --positions}. A game
+ * stops at its first invalid command and is reported as
+ * {@code <game> ERROR <command> <message>}, the command counted from 1; the exit status is
+ * then 1. A summary is written on the standard error.
+ */
+class BatchMode {
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Game game;
+    private final PrintWriter out;
+    private final boolean positions;
+    private final CompactState state;
+    private final ByteBuffer encoded;
+    private long games;
+    private long commands;
+    private long errors;
+    // The commands played in the current game, and its first error
+    private int played;
+    private String error;
+
+    private BatchMode(int rows, int cols, PrintWriter out, boolean positions) {
+        this.game = new Game(rows, cols, null);
+        this.out = out;
+        this.positions = positions;
+        this.state = new CompactState(rows, cols);
+        this.encoded = ByteBuffer.allocate(StateCodec.encodedSize(rows, cols));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = 6;
+        int cols = 6;
+        boolean positions = false;
+        boolean script = false;
+        List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--size" -> {
+                        String[] size = args[++i].toLowerCase().split("x");
+                        rows = Integer.parseInt(size[0]);
+                        cols = Integer.parseInt(size[1]);
+                    }
+                    case "--positions" -> positions = true;
+                    case "--script" -> script = true;
+                    default -> files.add(Path.of(args[i]));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: BatchMode [--size ROWSxCOLS] [--positions] [--script] [file...]");
+            System.exit(2);
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        BatchMode batch = new BatchMode(rows, cols, out, positions);
+        long start = System.nanoTime();
+        if (files.isEmpty()) {
+            batch.run(new InputStreamReader(System.in, StandardCharsets.UTF_8), script);
+        }
+        for (Path file : files) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                batch.run(reader, script);
+            }
+        }
+        out.flush();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Games: %d, commands: %d, invalid: %d%n", batch.games, batch.commands, batch.errors);
+        System.err.printf("Time: %.2f s, %.0f games/s, %.0f commands/s%n",
+                seconds, batch.games / seconds, batch.commands / seconds);
+        System.exit(batch.errors == 0 ? 0 : 1);
+    }
+
+    /**
+     * Plays the games of an input.
+     *
+     * @param input  The games.
+     * @param script {@code true} if the input is one game with one command per line,
+     *               {@code false} for one game per line.
+     */
+    private void run(Reader input, boolean script) throws IOException {
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        if (script) {
+            startGame();
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (!script) {
+                startGame();
+            }
+            play(trimmed);
+            if (!script) {
+                endGame();
+            }
+        }
+        if (script) {
+            endGame();
+        }
+    }
+
+    private void startGame() {
+        game.reset();
+        played = 0;
+        error = null;
+    }
+
+    private void play(String line) {
+        int from = 0;
+        while (error == null && from <= line.length()) {
+            int end = line.indexOf(';', from);
+            if (end < 0) {
+                end = line.length();
+            }
+            String command = line.substring(from, end);
+            from = end + 1;
+            if (command.isBlank()) {
+                continue;
+            }
+            played++;
+            commands++;
+            try {
+                if (game.isGameOver()) {
+                    throw new OxonoException("The game is over.");
+                }
+                ConsoleCommands.execute(game, command);
+            } catch (OxonoException e) {
+                error = played + " " + e.getMessage();
+            }
+        }
+    }
+
+    private void endGame() {
+        games++;
+        out.print(games);
+        if (error != null) {
+            errors++;
+            out.print(" ERROR ");
+            out.println(error);
+            return;
+        }
+        out.print(' ');
+        out.print(resultOf(game));
+        out.print(' ');
+        out.print(game.getPly());
+        if (positions) {
+            game.copyStateTo(state);
+            encoded.clear();
+            StateCodec.encode(state, encoded);
+            out.print(' ');
+            out.print(HEX.formatHex(encoded.array(), 0, encoded.position()));
+        }
+        out.println();
+    }
+
+    private static String resultOf(Game game) {
+        if (!game.isGameOver()) {
+            return "RUNNING";
+        }
+        Color winner = game.getWinnerColor();
+        return winner == null ? "DRAW" : winner.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package console;
+
+import model.CompactState;
+import model.Game;
+import model.StateCodec;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Command line entry point measuring the speed of {@link StateCodec}.
+ * <p>
+ * Usage: {@code CodecBenchmark [--size ROWSxCOLS] [--states N] [--rounds N] [--seed S]}.
+ * The states are positions of random games, encoded one after the other in a direct buffer
+ * and decoded back, first for as many warm-up rounds as measured rounds. The time per state
+ * of encoding and of decoding is reported, and the exit status is 1 if a decoded state
+ * differs from its original.
+ */
+class CodecBenchmark {
+    public static void main(String[] args) {
+        int rows = 6;
+        int cols = 6;
+        int count = 4096;
+        int rounds = 200;
+        long seed = 1;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--size" -> {
+                        String[] size = args[++i].toLowerCase().split("x");
+                        rows = Integer.parseInt(size[0]);
+                        cols = Integer.parseInt(size[1]);
+                    }
+                    case "--states" -> count = Integer.parseInt(args[++i]);
+                    case "--rounds" -> rounds = Integer.parseInt(args[++i]);
+                    case "--seed" -> seed = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: CodecBenchmark [--size ROWSxCOLS] [--states N] [--rounds N] [--seed S]");
+            System.exit(2);
+        }
+
+        CompactState[] states = randomPositions(rows, cols, count, new Random(seed));
+        CompactState decoded = new CompactState(rows, cols);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(count * StateCodec.encodedSize(rows, cols));
+        for (int round = 0; round < rounds; round++) {
+            encodeAll(states, buffer);
+            decodeAll(buffer, count, decoded);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            encodeAll(states, buffer);
+            long middle = System.nanoTime();
+            decodeAll(buffer, count, decoded);
+            long end = System.nanoTime();
+            encodeNanos += middle - start;
+            decodeNanos += end - middle;
+        }
+
+        buffer.clear();
+        int mismatches = 0;
+        for (CompactState state : states) {
+            StateCodec.decode(buffer, decoded);
+            if (!decoded.equals(state)) {
+                mismatches++;
+            }
+        }
+
+        long operations = (long) count * rounds;
+        System.out.printf("States: %d of %dx%d, %d bytes each, rounds: %d, mismatches: %d%n",
+                count, rows, cols, StateCodec.encodedSize(rows, cols), rounds, mismatches);
+        System.out.printf("Encode: %.1f ns/state, %.0f states/s%n",
+                (double) encodeNanos / operations, operations / (encodeNanos / 1e9));
+        System.out.printf("Decode: %.1f ns/state, %.0f states/s%n",
+                (double) decodeNanos / operations, operations / (decodeNanos / 1e9));
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    private static void encodeAll(CompactState[] states, ByteBuffer buffer) {
+        buffer.clear();
+        for (CompactState state : states) {
+            StateCodec.encode(state, buffer);
+        }
+    }
+
+    private static void decodeAll(ByteBuffer buffer, int count, CompactState state) {
+        buffer.clear();
+        for (int i = 0; i < count; i++) {
+            StateCodec.decode(buffer, state);
+        }
+    }
+
+    /**
+     * Plays random games and keeps one position of each, after a random number of turns.
+     */
+    private static CompactState[] randomPositions(int rows, int cols, int count, Random random) {
+        Game game = new Game(rows, cols, null);
+        CompactState[] states = new CompactState[count];
+        int[] turns = new int[CompactState.of(game).maxTurns()];
+        for (int i = 0; i < count; i++) {
+            game.reset();
+            int plies = random.nextInt(rows * cols);
+            for (int ply = 0; ply < plies && !game.isGameOver(); ply++) {
+                int legal = CompactState.of(game).legalTurns(turns);
+                if (legal == 0) {
+                    break;
+                }
+                game.playTurn(turns[random.nextInt(legal)]);
+            }
+            states[i] = CompactState.of(game);
+        }
+        return states;
+    }
+}
@@ -2,16 +2,58 @@ package console;
 
 import controller.ConsoleController;
 import model.Game;
+import model.MoveJournal;
 import model.strategy.RandomStrategy;
 import view.ConsoleView;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command line entry point playing a game on the console against the computer.
+ * <p>
+ * Usage: {@code ConsoleMode [--journal FILE]}. With a journal, every turn is recorded in the
+ * file as it is played, see {@link MoveJournal}, and a game cut short by the death of the
+ * process is resumed where it stopped on the next start with the same file.
+ */
 class ConsoleMode {
-    public static void main(String[] args) {
-        Game model = new Game(6,6, new RandomStrategy());
-        ConsoleView view = new ConsoleView();
-        ConsoleController controller = new ConsoleController(model, view);
+    public static void main(String[] args) throws IOException {
+        Path journalFile = null;
+        if (args.length == 2 && args[0].equals("--journal")) {
+            journalFile = Path.of(args[1]);
+        } else if (args.length != 0) {
+            System.err.println("Usage: ConsoleMode [--journal FILE]");
+            System.exit(2);
+        }
 
+        ConsoleView view = new ConsoleView();
         view.showTitle();
+        if (journalFile == null) {
+            play(new Game(6,6, new RandomStrategy()), view);
+            return;
+        }
+        try (MoveJournal journal = MoveJournal.open(journalFile, new RandomStrategy())) {
+            List<Game> recovered = journal.getRecoveredGames();
+            Game model;
+            if (recovered.isEmpty()) {
+                model = new Game(6,6, new RandomStrategy());
+                journal.attach(model);
+            } else {
+                // The last game attached is the one the process was playing
+                model = recovered.getLast();
+                for (Game game : recovered.subList(0, recovered.size() - 1)) {
+                    journal.detach(game);
+                }
+                view.showMessage("Resuming the interrupted game at turn " + (model.getPly() + 1) + ".");
+            }
+            play(model, view);
+            journal.detach(model);
+        }
+    }
+
+    private static void play(Game model, ConsoleView view) {
+        ConsoleController controller = new ConsoleController(model, view);
         model.notifyObservers();
         controller.start();
     }
@@ -0,0 +1,71 @@
+package console;
+
+import model.CompactState;
+import model.Game;
+import model.OxonoException;
+import model.Turn;
+import model.record.PositionIndex;
+import model.record.PositionIndexBuilder;
+import model.record.PositionStats;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Command line entry point building and querying a position index of game archives.
+ * <p>
+ * Usage:
+ * <ul>
+ *   <li>{@code DatabaseMode build <archive> <index> <rows> <cols>}</li>
+ *   <li>{@code DatabaseMode query <index> [turn...]}, each turn written as
+ *   {@code "move x 12; insert 13"} and played from the starting position.</li>
+ * </ul>
+ */
+class DatabaseMode {
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 5 && args[0].equals("build")) {
+            build(Path.of(args[1]), Path.of(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+        } else if (args.length >= 2 && args[0].equals("query")) {
+            query(Path.of(args[1]), args);
+        } else {
+            System.err.println("Usage: DatabaseMode build <archive> <index> <rows> <cols>");
+            System.err.println("       DatabaseMode query <index> [turn...]");
+            System.exit(2);
+        }
+    }
+
+    private static void build(Path archive, Path index, int rows, int cols) throws IOException {
+        long start = System.nanoTime();
+        PositionIndexBuilder builder = new PositionIndexBuilder(rows, cols);
+        builder.build(FileChannel.open(archive), index);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Games: " + builder.getGameCount() + " (skipped " + builder.getSkippedCount() + ")");
+        System.out.println("Positions: " + builder.getEntryCount() + ", time: " + elapsedMs + " ms");
+    }
+
+    private static void query(Path file, String[] args) throws IOException {
+        PositionIndex index = PositionIndex.open(file);
+        Game game = new Game(index.getRows(), index.getCols(), null);
+        try {
+            for (int i = 2; i < args.length; i++) {
+                game.playTurn(Turn.parse(args[i]));
+            }
+        } catch (OxonoException e) {
+            System.err.println("Invalid position: " + e.getMessage());
+            System.exit(1);
+        }
+
+        CompactState position = CompactState.of(game);
+        long start = System.nanoTime();
+        PositionStats stats = index.lookup(position);
+        long elapsedUs = (System.nanoTime() - start) / 1_000;
+
+        System.out.println("To move: " + position.getToMove());
+        System.out.println("Games: " + stats.games() + ", wins: " + stats.wins()
+                + ", draws: " + stats.draws() + ", losses: " + stats.losses());
+        System.out.println("Most common turn: " + Turn.toString(stats.mostCommonTurn())
+                + " (" + stats.mostCommonTurnCount() + " games)");
+        System.out.println("Lookup time: " + elapsedUs + " us");
+    }
+}
@@ -0,0 +1,77 @@
+package console;
+
+import model.CompactState;
+import model.Game;
+import model.OxonoException;
+import model.Turn;
+import model.analysis.ProofNumberSolver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point solving a position with the proof-number solver.
+ * <p>
+ * Usage: {@code SolverMode <rows> <cols> [--nodes N] [--table-bits B] [turn...]}.
+ * Each turn is written as {@code "move x 12; insert 13"} and played from the starting
+ * position; with {@code -} the turns are read from the standard input, one per line.
+ */
+class SolverMode {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SolverMode <rows> <cols> [--nodes N] [--table-bits B] [turn...|-]");
+            System.exit(2);
+        }
+        int rows = Integer.parseInt(args[0]);
+        int cols = Integer.parseInt(args[1]);
+        long nodeLimit = ProofNumberSolver.DEFAULT_NODE_LIMIT;
+        int tableBits = ProofNumberSolver.DEFAULT_TABLE_BITS;
+        List<String> turns = new ArrayList<>();
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--nodes" -> nodeLimit = Long.parseLong(args[++i]);
+                case "--table-bits" -> tableBits = Integer.parseInt(args[++i]);
+                case "-" -> turns.addAll(readLines());
+                default -> turns.add(args[i]);
+            }
+        }
+
+        Game game = new Game(rows, cols, null);
+        try {
+            for (String turn : turns) {
+                if (!turn.isBlank()) {
+                    game.playTurn(Turn.parse(turn));
+                }
+            }
+        } catch (OxonoException e) {
+            System.err.println("Invalid position: " + e.getMessage());
+            System.exit(1);
+        }
+
+        CompactState position = CompactState.of(game);
+        long start = System.nanoTime();
+        ProofNumberSolver.Result result = new ProofNumberSolver(tableBits, nodeLimit).solve(position);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("To move: " + position.getToMove());
+        System.out.println("Value: " + result.value());
+        for (int turn : result.line()) {
+            System.out.println("  " + Turn.toString(turn));
+        }
+        System.out.println("Nodes: " + result.nodes() + ", time: " + elapsedMs + " ms");
+    }
+
+    private static List<String> readLines() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,48 @@
+package console;
+
+import model.record.ArchiveVerifier;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Command line entry point replaying game archives to check that they only hold legal games.
+ * <p>
+ * Usage: {@code VerifyMode <archive>...}. The invalid games of each archive are listed with
+ * their index in the archive; the exit status is 1 if any game is invalid.
+ */
+class VerifyMode {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: VerifyMode <archive>...");
+            System.exit(2);
+        }
+        boolean valid = true;
+        for (String archive : args) {
+            valid &= verify(Path.of(archive));
+        }
+        System.exit(valid ? 0 : 1);
+    }
+
+    private static boolean verify(Path archive) throws IOException {
+        ArchiveVerifier verifier = new ArchiveVerifier();
+        long start = System.nanoTime();
+        boolean valid = verifier.verify(FileChannel.open(archive));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(archive + ":");
+        for (ArchiveVerifier.InvalidGame game : verifier.getInvalidGames()) {
+            System.out.println("  Game " + game.index() + ": " + game.reason());
+        }
+        long unlisted = verifier.getInvalidCount() - verifier.getInvalidGames().size();
+        if (unlisted > 0) {
+            System.out.println("  ... and " + unlisted + " more invalid games");
+        }
+        System.out.printf("  Games: %d, turns: %d, invalid: %d%n",
+                verifier.getGameCount(), verifier.getTurnCount(), verifier.getInvalidCount());
+        System.out.printf("  Time: %.2f s, %.0f games/s, %.0f turns/s%n",
+                seconds, verifier.getGameCount() / seconds, verifier.getTurnCount() / seconds);
+        return valid;
+    }
+}
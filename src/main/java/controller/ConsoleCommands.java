@@ -0,0 +1,96 @@
+package controller;
+
+import model.Game;
+import model.OxonoException;
+import model.Pawn;
+import model.Symbol;
+import model.Totem;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The game commands of the console: {@code move x N}, {@code insert N}, {@code undo},
+ * {@code redo} and {@code surrender}, where {@code N} is a tile number starting from 1.
+ * They are typed by the players of {@link ConsoleController} and read from scripts by the
+ * batch mode.
+ */
+public final class ConsoleCommands {
+    private static final Pattern MOVE_COMMAND_PATTERN = Pattern.compile("^move\\s+([xo])\\s+(\\d+)$");
+    private static final Pattern INSERT_COMMAND_PATTERN = Pattern.compile("^insert\\s+(\\d+)$");
+
+    /**
+     * The kinds of commands.
+     */
+    public enum Kind {
+        MOVE, INSERT, UNDO, REDO, SURRENDER
+    }
+
+    private ConsoleCommands() {
+    }
+
+    /**
+     * Parses a command and plays it.
+     *
+     * @param game  The game.
+     * @param input The command, case and surrounding spaces are ignored.
+     * @return The kind of the command played.
+     * @throws OxonoException if the command is invalid or violates the game's rules
+     */
+    public static Kind execute(Game game, String input) {
+        String command = input.trim().toLowerCase();
+        switch (command) {
+            case "undo" -> {
+                game.undoTurn();
+                return Kind.UNDO;
+            }
+            case "redo" -> {
+                game.redoTurn();
+                return Kind.REDO;
+            }
+            case "surrender" -> {
+                game.surrender();
+                return Kind.SURRENDER;
+            }
+            default -> {
+                // Parsed below
+            }
+        }
+
+        Matcher moveMatcher = MOVE_COMMAND_PATTERN.matcher(command);
+        if (moveMatcher.matches()) {
+            moveTotem(game, moveMatcher);
+            return Kind.MOVE;
+        }
+        Matcher insertMatcher = INSERT_COMMAND_PATTERN.matcher(command);
+        if (insertMatcher.matches()) {
+            insertPawn(game, insertMatcher);
+            return Kind.INSERT;
+        }
+        throw new OxonoException("Invalid command.");
+    }
+
+    private static void moveTotem(Game game, Matcher matcher) {
+        Symbol symbol = matcher.group(1).equals("x") ? Symbol.X : Symbol.O;
+        int tileNum = parseTileNumber(game, matcher.group(2));
+
+        game.setChosenTotem(symbol);
+        Totem totem = game.getTotemOfSymbol(game.getChosenTotemSymbol());
+        game.moveTotem(totem, game.tileNumberToPos(tileNum));
+    }
+
+    private static void insertPawn(Game game, Matcher matcher) {
+        int tileNum = parseTileNumber(game, matcher.group(1));
+        Symbol chosenTotemSymbol = game.getLastMovedTotSym();
+        Pawn pawn = game.getPawnOfSymbol(chosenTotemSymbol);
+        game.insertPawn(pawn, game.tileNumberToPos(tileNum));
+    }
+
+    private static int parseTileNumber(Game game, String digits) {
+        int tileNum = digits.length() > 9 ? -1 : Integer.parseInt(digits);
+        if (tileNum < 1 || tileNum > game.getRows() * game.getCols()) {
+            throw new OxonoException("Invalid tile number: " + digits);
+        }
+        return tileNum;
+    }
+}
@@ -1,18 +1,14 @@
 package controller;
 
 import model.*;
+import model.analysis.ThreatSpaceSearch;
 import model.observer.Observer;
 import view.ConsoleView;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class ConsoleController implements Observer {
-    private static final Pattern MOVE_COMMAND_PATTERN = Pattern.compile("^move\\s+([xo])\\s+(\\d+)$");
-    private static final Pattern INSERT_COMMAND_PATTERN = Pattern.compile("^insert\\s+(\\d+)$");
-
     private final Game model;
     private final ConsoleView view;
+    private final ThreatSpaceSearch hintSearch = new ThreatSpaceSearch();
 
 
     public ConsoleController(Game model, ConsoleView view) {
@@ -71,92 +67,30 @@ public class ConsoleController implements Observer {
      * @param input The user input.
      */
     private void handleInput(String input) {
-        // undo, redo, or surrender
-        if (processSpecialInput(input)) {
+        if (input.equalsIgnoreCase("hint")) {
+            showHint();
             return;
         }
-        //moveTotem or insertPawnCommand
-        parseInput(input);
-    }
-
-    /**
-     * Processes special commands like undo, redo, and surrender.
-     *
-     * @param input The user input.
-     * @return true if a special input was handled; false otherwise.
-     */
-    private boolean processSpecialInput(String input) {
-        switch (input.toLowerCase()) {
-            case "undo":
-                model.undo();
-                view.showMessage("Undo executed.");
-                return true;
-            case "redo":
-                model.redo();
-                view.showMessage("Redo executed.");
-                return true;
-            case "surrender":
-                model.surrender();
-                view.showMessage("Player surrendered.");
-                return true;
-            default:
-                return false;
+        switch (ConsoleCommands.execute(model, input)) {
+            case UNDO -> view.showMessage("Undo executed.");
+            case REDO -> view.showMessage("Redo executed.");
+            case SURRENDER -> view.showMessage("Player surrendered.");
+            default -> {
+                // Moves are shown by the next display of the board
+            }
         }
     }
 
     /**
-     * Parses the user input and returns the corresponding command.
-     *
-     * @param input The user input.
-     * @return A command object
+     * Shows the first turn of a forced win for the current player, if one is found.
      */
-    private void parseInput(String input) {
-        Matcher moveMatcher = MOVE_COMMAND_PATTERN.matcher(input);
-        if (moveMatcher.matches()) {
-            moveTotem(moveMatcher);
-            return;
-        }
-
-        Matcher insertMatcher = INSERT_COMMAND_PATTERN.matcher(input);
-        if (insertMatcher.matches()) {
-            insertPawn(insertMatcher);
-            return;
+    private void showHint() {
+        int turn = hintSearch.findForcedWin(CompactState.of(model));
+        if (turn == Turn.NONE) {
+            view.showMessage("No forced win found.");
+        } else {
+            view.showMessage("Forced win: " + Turn.toString(turn));
         }
-        throw new OxonoException("Invalid command.");
-    }
-
-    /**
-     * Creates a MoveTotemCommand from the user input.
-     *
-     * @param matcher The regex matcher containing the parsed input.
-     * @return A MoveTotemCommand object.
-     */
-    private void moveTotem(Matcher matcher) {
-        Symbol symbol = parseSymbol(matcher.group(1));
-        int tileNum = Integer.parseInt(matcher.group(2));
-        Position totemDestPos = model.tileNumberToPos(tileNum);
-
-        model.setChosenTotem(symbol);
-        Totem totem = model.getTotemOfSymbol(model.getChosenTotemSymbol());
-        model.moveTotem(totem, totemDestPos);
-    }
-
-    private Symbol parseSymbol(String symbolString) {
-        return symbolString.equals("x") ? Symbol.X : Symbol.O;
-    }
-
-    /**
-     * Creates an InsertPawnCommand from the user input.
-     *
-     * @param matcher The regex matcher containing the parsed input.
-     * @return An InsertPawnCommand object.
-     */
-    private void insertPawn(Matcher matcher) {
-        int tileNum = Integer.parseInt(matcher.group(1));
-        Position position = model.tileNumberToPos(tileNum);
-        Symbol chosenTotemSymbol = model.getLastMovedTotSym();
-        Pawn pawn = model.getPawnOfSymbol(chosenTotemSymbol);
-        model.insertPawn(pawn, position);
     }
 
     /**
@@ -177,7 +111,6 @@ public class ConsoleController implements Observer {
      * Updates the board and player status in the view.
      */
     private void updateView() {
-        view.displayBoard(model);
-        view.displayPlayerStatus(model);
+        view.displayGame(model);
     }
 }
@@ -1,32 +1,58 @@
 package controller;
 
-import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.layout.Pane;
-import javafx.util.Duration;
 import model.*;
+import model.analysis.AnalysisService;
+import model.analysis.MoveAnalyzer;
+import model.analysis.ThreatSpaceSearch;
 import model.observer.Observer;
-import view.javafx.BoardPane;
+import view.javafx.BoardView;
+import view.javafx.FxCoalescingObserver;
+import view.javafx.FxPulseCoalescer;
 import view.javafx.InfoPane;
 import view.javafx.MenuPane;
+import view.javafx.PerformanceMonitor;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class JavaFXController implements Observer {
 
     private final Game model;
     private final MenuPane menu;
-    private final BoardPane board;
+    private final BoardView board;
     private final InfoPane pinkInfoPane;
     private final InfoPane blackInfoPane;
     private final Pane boardContainer;
+    private final ThreatSpaceSearch hintSearch = new ThreatSpaceSearch();
+    private final AnalysisService analysisService = new AnalysisService();
+    private final FxPulseCoalescer<AnalysisService.Result> heatmapUpdates;
+    private final PerformanceMonitor monitor;
+    private final ExecutorService aiExecutor;
+    private boolean analysisEnabled;
+    // Incremented to discard the turn the computer is thinking about
+    private long aiRequest;
 
-    public JavaFXController(Game model, MenuPane menu, BoardPane board, InfoPane pinkInfoPane, InfoPane blackInfoPane, Pane boardContainer) {
+    public JavaFXController(Game model, MenuPane menu, BoardView board, InfoPane pinkInfoPane, InfoPane blackInfoPane,
+                            Pane boardContainer, PerformanceMonitor monitor) {
         this.model = model;
+        this.monitor = monitor;
         this.menu = menu;
         this.board = board;
         this.pinkInfoPane = pinkInfoPane;
         this.blackInfoPane = blackInfoPane;
         this.boardContainer = boardContainer;
-        this.model.addObserver(this);
+        this.heatmapUpdates = new FxPulseCoalescer<>(this::showHeatmap);
+        this.aiExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oxono-ai");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Bursts of notifications, such as a whole computer turn, are drawn once per pulse
+        this.model.addObserver(new FxCoalescingObserver(this));
 
         initializeMenuActions();
         initializeBoardInteraction();
@@ -34,9 +60,33 @@ public class JavaFXController implements Observer {
 
     @Override
     public void update() {
+        long start = System.nanoTime();
         board.updateBoard(model);
         updatePlayersInfo();
         updateBoardBackground();
+        monitor.updateFinished(start);
+        restartAnalysis();
+
+        if (model.isGameOver()){
+            displayGameOverAlert();
+        }
+    }
+
+    @Override
+    public void update(GameChange change) {
+        if (change.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        board.updateBoard(model, change);
+        if (change.isPawnsChanged() || change.getChangedCellCount() > 0) {
+            updatePlayersInfo();
+        }
+        if (change.isPlayerChanged()) {
+            updateBoardBackground();
+        }
+        monitor.updateFinished(start);
+        restartAnalysis();
 
         if (model.isGameOver()){
             displayGameOverAlert();
@@ -44,12 +94,72 @@ public class JavaFXController implements Observer {
     }
 
     private void initializeMenuActions() {
-        menu.setUndoAction(model::undo);
-        menu.setRedoAction(model::redo);
+        menu.setUndoAction(this::undo);
+        menu.setRedoAction(this::redo);
         menu.setSurrenderAction(()->{
             model.surrender();
             displayGameOverAlert();
         });
+        menu.setHintAction(this::showHint);
+        menu.setAnalysisAction(this::setAnalysisEnabled);
+    }
+
+    /**
+     * Undoes the last turn, together with the computer's reply when playing against it.
+     */
+    public void undo() {
+        aiRequest++;
+        board.clearHighlights();
+        model.undoTurn();
+    }
+
+    /**
+     * Redoes the next turn, and lets the computer play if it is its turn and nothing is left to redo.
+     */
+    public void redo() {
+        aiRequest++;
+        board.clearHighlights();
+        model.redoTurn();
+        if (model.isAiTurn() && !model.isGameOver()) {
+            scheduleAiTurn();
+        }
+    }
+
+    private void setAnalysisEnabled(boolean enabled) {
+        analysisEnabled = enabled;
+        if (enabled) {
+            heatmapUpdates.start();
+            restartAnalysis();
+        } else {
+            analysisService.cancel();
+            heatmapUpdates.stop();
+            board.clearHeatmap();
+        }
+    }
+
+    /**
+     * Cancels the analysis of the previous position and starts analysing the current one.
+     */
+    private void restartAnalysis() {
+        if (!analysisEnabled) {
+            return;
+        }
+        heatmapUpdates.clear();
+        board.clearHeatmap();
+        if (model.isGameOver()) {
+            analysisService.cancel();
+            return;
+        }
+        analysisService.start(CompactState.of(model), heatmapUpdates::submit);
+    }
+
+    private void showHeatmap(AnalysisService.Result result) {
+        // A frame computed just before the position changed can still be delivered
+        if (!analysisService.isCurrent(result.generation())) {
+            return;
+        }
+        MoveAnalyzer.Frame frame = result.frame();
+        board.showHeatmap(model.isHasMovedTotem() ? frame.pawnScores() : frame.totemScores());
     }
 
     private void initializeBoardInteraction() {
@@ -57,8 +167,10 @@ public class JavaFXController implements Observer {
     }
 
     private void handleTileClick(Position clickedPos) {
+        monitor.clickStarted();
         try {
-            if (model.isGameOver()){
+            if (model.isGameOver() || model.isAiTurn()){
+                monitor.cancelClick();
                 return;
             }
 
@@ -72,26 +184,95 @@ public class JavaFXController implements Observer {
                 processTotemSelectionOrMovement(tileState, clickedPos);
             }
         } catch (OxonoException e) {
+            monitor.cancelClick();
             board.highLightInvalidTile(clickedPos);
             displayError(e.getMessage());
         }
     }
 
+    /**
+     * Lets the computer think on a fork of the position, on a background thread, so that the
+     * board keeps animating and responding meanwhile. The turn is played on the JavaFX thread,
+     * unless the position was changed by an undo or a redo in the meantime.
+     */
     private void scheduleAiTurn() {
-        PauseTransition pause = new PauseTransition(Duration.seconds(0.5));
-        pause.setOnFinished(event -> handleAiTurn());
-        pause.play();
+        long request = ++aiRequest;
+        Game position = model.fork();
+        aiExecutor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                position.executeAITurn();
+                long nanos = System.nanoTime() - start;
+                if (position.getPly() == 0) {
+                    throw new OxonoException("the computer did not complete its turn.");
+                }
+                int turn = position.getTurns()[0];
+                Platform.runLater(() -> playAiTurn(request, turn, nanos));
+            } catch (RuntimeException e) {
+                // Reported rather than lost with the worker thread, the board ignores clicks until the computer plays
+                Platform.runLater(() -> displayError("Ai turn error : " + e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Stops the background work of this controller, before its game is replaced.
+     */
+    public void dispose() {
+        aiRequest++;
+        aiExecutor.shutdownNow();
+        analysisService.shutdown();
+        heatmapUpdates.stop();
     }
 
-    private void handleAiTurn() {
+    private void playAiTurn(long request, int turn, long nanos) {
+        if (request != aiRequest || !model.isAiTurn() || model.isGameOver()) {
+            return;
+        }
+        monitor.recordAiTurn(nanos);
+        // A click that changed nothing must not be ended by the computer's move
+        monitor.cancelClick();
         try {
-            model.executeAITurn();
+            model.playTurn(turn);
             model.setChosenTotem(null);
         } catch (OxonoException e) {
             displayError("Ai turn error : "+e.getMessage());
         }
     }
 
+    /**
+     * Searches a forced win on the computer's thread, and shows it unless the position changed
+     * in the meantime.
+     */
+    private void showHint() {
+        if (model.isGameOver() || model.isAiTurn()) {
+            return;
+        }
+        CompactState state = CompactState.of(model);
+        aiExecutor.execute(() -> {
+            try {
+                int turn = hintSearch.findForcedWin(state);
+                Platform.runLater(() -> showHint(state, turn));
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> displayError("Hint error : " + e.getMessage()));
+            }
+        });
+    }
+
+    private void showHint(CompactState state, int turn) {
+        if (!state.equals(CompactState.of(model))) {
+            return;
+        }
+        if (turn == Turn.NONE) {
+            displayInfo("No forced win found.");
+            return;
+        }
+        board.highLightValidTiles(List.of(
+                state.toPosition(Turn.totemCell(turn)),
+                state.toPosition(Turn.pawnCell(turn))));
+        displayInfo("Forced win: " + Turn.toString(turn));
+    }
+
     private void processPawnInsertion(Position clickedPos) {
         Symbol symbol = model.getChosenTotemSymbol();
         Pawn pawn = model.getPawnOfSymbol(symbol);
@@ -166,6 +347,14 @@ public class JavaFXController implements Observer {
         alert.show();
     }
 
+    private void displayInfo(String message) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Hint");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.show();
+    }
+
     public String getPlayerColor() {
         Color currPlayerColor = model.getCurrPlayerColor();
         return switch (currPlayerColor) {
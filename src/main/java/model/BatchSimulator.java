@@ -0,0 +1,392 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Plays many random games in lockstep, for bulk self-play.
+ * <p>
+ * The games are stored as a structure of arrays, one slot per game: the pawns are three
+ * {@code long} bitmasks (all pawns, pink pawns, X pawns) indexed by tile, the totems are tile
+ * indexes and the pawn counts are bytes. Each {@link #step()} plays one turn in every running
+ * game with the same rules as {@code GameValidator} and the same choices as
+ * {@code RandomStrategy}: a random playable symbol, a random totem destination and a random
+ * insertion. Alignments are found with shifts of the bitmasks, so boards are limited to
+ * 64 tiles (8x8).
+ */
+public class BatchSimulator {
+    public static final byte RUNNING = 0;
+    public static final byte PINK_WON = 1;
+    public static final byte BLACK_WON = 2;
+    public static final byte DRAW = 3;
+
+    private static final int PINK = 0;
+    private static final int BLACK = 1;
+    private static final int X = 0;
+    private static final int O = 1;
+    private static final int INITIAL_PAWNS = 8;
+
+    private final int rows;
+    private final int cols;
+    private final int cellCount;
+    private final int size;
+
+    // Board geometry, shared by all the games
+    private final long fullMask;
+    private final long horizontalStarts;
+    private final long verticalStarts;
+    private final long[] neighbors;
+    private final int[][][] rays;
+
+    // One slot per game
+    private final long[] pawns;
+    private final long[] pinkPawns;
+    private final long[] xPawns;
+    private final byte[] totems;
+    private final byte[] remaining;
+    private final byte[] toMove;
+    private final byte[] status;
+    private final short[] turnCount;
+    private final int[] lastTurn;
+    private final long[] rng;
+
+    private final int[] moveScratch;
+    private int running;
+
+    /**
+     * Creates a batch of games at their starting position.
+     *
+     * @param rows Number of rows of the boards.
+     * @param cols Number of columns of the boards.
+     * @param size Number of games in the batch.
+     * @param seed Seed of the random choices, the same seed replays the same games.
+     */
+    public BatchSimulator(int rows, int cols, int size, long seed) {
+        if (rows < 4 || cols < 4) {
+            throw new IllegalArgumentException("Board size must be at least 4x4.");
+        }
+        if (rows * cols > 64) {
+            throw new IllegalArgumentException("Batch simulation supports boards of at most 64 tiles.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cellCount = rows * cols;
+        this.size = size;
+
+        this.fullMask = cellCount == 64 ? -1L : (1L << cellCount) - 1;
+        long horizontal = 0;
+        long vertical = 0;
+        this.neighbors = new long[cellCount];
+        this.rays = new int[4][cellCount][];
+        int[][] directions = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}};
+        for (int cell = 0; cell < cellCount; cell++) {
+            int row = cell / cols;
+            int col = cell % cols;
+            if (col + 4 <= cols) {
+                horizontal |= 1L << cell;
+            }
+            if (row + 4 <= rows) {
+                vertical |= 1L << cell;
+            }
+            for (int dir = 0; dir < 4; dir++) {
+                int length = 0;
+                int[] ray = new int[Math.max(rows, cols)];
+                for (int r = row + directions[dir][0], c = col + directions[dir][1];
+                     r >= 0 && r < rows && c >= 0 && c < cols;
+                     r += directions[dir][0], c += directions[dir][1]) {
+                    ray[length++] = r * cols + c;
+                }
+                rays[dir][cell] = Arrays.copyOf(ray, length);
+                if (length > 0) {
+                    neighbors[cell] |= 1L << ray[0];
+                }
+            }
+        }
+        this.horizontalStarts = horizontal;
+        this.verticalStarts = vertical;
+
+        this.pawns = new long[size];
+        this.pinkPawns = new long[size];
+        this.xPawns = new long[size];
+        this.totems = new byte[2 * size];
+        this.remaining = new byte[4 * size];
+        this.toMove = new byte[size];
+        this.status = new byte[size];
+        this.turnCount = new short[size];
+        this.lastTurn = new int[size];
+        this.rng = new long[size];
+        this.moveScratch = new int[2 * (rows + cols)];
+        reset(seed);
+    }
+
+    /**
+     * Puts every game back to its starting position.
+     *
+     * @param seed Seed of the random choices.
+     */
+    public void reset(long seed) {
+        int totemX = ((rows / 2) - 1) * cols + (cols / 2) - 1;
+        int totemO = (rows / 2) * cols + (cols / 2);
+        long mix = seed;
+        for (int g = 0; g < size; g++) {
+            pawns[g] = 0;
+            pinkPawns[g] = 0;
+            xPawns[g] = 0;
+            totems[2 * g + X] = (byte) totemX;
+            totems[2 * g + O] = (byte) totemO;
+            for (int i = 0; i < 4; i++) {
+                remaining[4 * g + i] = INITIAL_PAWNS;
+            }
+            toMove[g] = PINK;
+            status[g] = RUNNING;
+            turnCount[g] = 0;
+            lastTurn[g] = Turn.NONE;
+            mix += 0x9E3779B97F4A7C15L;
+            rng[g] = mixSeed(mix);
+        }
+        running = size;
+    }
+
+    /**
+     * Plays one random turn in every running game.
+     *
+     * @return The number of games still running.
+     */
+    public int step() {
+        for (int g = 0; g < size; g++) {
+            if (status[g] == RUNNING) {
+                playRandomTurn(g);
+                if (status[g] != RUNNING) {
+                    running--;
+                }
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Steps until every game is over.
+     *
+     * @return The number of steps played.
+     */
+    public int runToCompletion() {
+        int steps = 0;
+        while (running > 0) {
+            step();
+            steps++;
+        }
+        return steps;
+    }
+
+    private void playRandomTurn(int g) {
+        int player = toMove[g];
+        long occupied = occupied(g);
+
+        // Random symbol, switching to the other one if it cannot be played
+        int symbol = (int) (nextRandom(g) & 1);
+        int moveCount = playableMoves(g, player, symbol, occupied);
+        if (moveCount == 0) {
+            symbol ^= 1;
+            moveCount = playableMoves(g, player, symbol, occupied);
+        }
+        if (moveCount == 0) {
+            status[g] = DRAW;
+            return;
+        }
+
+        int from = totems[2 * g + symbol];
+        int dest = moveScratch[nextInt(g, moveCount)];
+        totems[2 * g + symbol] = (byte) dest;
+        occupied = (occupied & ~(1L << from)) | (1L << dest);
+
+        long empty = fullMask & ~occupied;
+        long candidates = neighbors[dest] & empty;
+        if (candidates == 0) {
+            candidates = empty;
+        }
+        int cell = selectBit(candidates, nextInt(g, Long.bitCount(candidates)));
+        long bit = 1L << cell;
+
+        pawns[g] |= bit;
+        if (player == PINK) {
+            pinkPawns[g] |= bit;
+        }
+        if (symbol == X) {
+            xPawns[g] |= bit;
+        }
+        lastTurn[g] = Turn.of(symbol == X ? Symbol.X : Symbol.O, dest, cell);
+        turnCount[g]++;
+
+        if (isWinningInsertion(g, player, symbol)) {
+            status[g] = player == PINK ? PINK_WON : BLACK_WON;
+        } else {
+            remaining[4 * g + 2 * player + symbol]--;
+            if (isDraw(g, occupied | bit)) {
+                status[g] = DRAW;
+            }
+        }
+        toMove[g] = (byte) (player ^ 1);
+    }
+
+    private int playableMoves(int g, int player, int symbol, long occupied) {
+        if (remaining[4 * g + 2 * player + symbol] == 0) {
+            return 0;
+        }
+        return totemMoves(totems[2 * g + symbol], occupied, moveScratch);
+    }
+
+    private int totemMoves(int from, long occupied, int[] out) {
+        boolean enclaved = (neighbors[from] & ~occupied) == 0;
+        int count = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            for (int cell : rays[dir][from]) {
+                if ((occupied & (1L << cell)) == 0) {
+                    out[count++] = cell;
+                    if (enclaved) {
+                        break;
+                    }
+                } else if (!enclaved) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean isWinningInsertion(int g, int player, int symbol) {
+        long symbolPawns = symbol == X ? xPawns[g] : pawns[g] & ~xPawns[g];
+        long colorPawns = player == PINK ? pinkPawns[g] : pawns[g] & ~pinkPawns[g];
+        return hasFourInLine(symbolPawns) || hasFourInLine(colorPawns);
+    }
+
+    private boolean hasFourInLine(long m) {
+        long horizontal = m & (m >>> 1) & (m >>> 2) & (m >>> 3) & horizontalStarts;
+        long vertical = m & (m >>> cols) & (m >>> (2 * cols)) & (m >>> (3 * cols)) & verticalStarts;
+        return (horizontal | vertical) != 0;
+    }
+
+    private boolean isDraw(int g, long occupied) {
+        if (occupied == fullMask) {
+            return true;
+        }
+        int base = 4 * g;
+        if (remaining[base] + remaining[base + 1] + remaining[base + 2] + remaining[base + 3] == 0) {
+            return true;
+        }
+        return !canMove(totems[2 * g + X], occupied) && !canMove(totems[2 * g + O], occupied);
+    }
+
+    private boolean canMove(int from, long occupied) {
+        if ((neighbors[from] & ~occupied) != 0) {
+            return true;
+        }
+        for (int dir = 0; dir < 4; dir++) {
+            for (int cell : rays[dir][from]) {
+                if ((occupied & (1L << cell)) == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private long occupied(int g) {
+        return pawns[g] | (1L << totems[2 * g + X]) | (1L << totems[2 * g + O]);
+    }
+
+    private static int selectBit(long mask, int index) {
+        for (int i = 0; i < index; i++) {
+            mask &= mask - 1;
+        }
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    private long nextRandom(int g) {
+        long x = rng[g];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        rng[g] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    private int nextInt(int g, int bound) {
+        return (int) (((nextRandom(g) >>> 32) * bound) >>> 32);
+    }
+
+    private static long mixSeed(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return z == 0 ? 0x9E3779B97F4A7C15L : z;
+    }
+
+    // -------------------------------
+    // Results
+    // -------------------------------
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * @param game The slot of the game.
+     * @return One of {@link #RUNNING}, {@link #PINK_WON}, {@link #BLACK_WON} or {@link #DRAW}.
+     */
+    public byte getStatus(int game) {
+        return status[game];
+    }
+
+    public int getTurnCount(int game) {
+        return turnCount[game];
+    }
+
+    /**
+     * @param game The slot of the game.
+     * @return The last turn played in the game, packed with {@link Turn}, or {@link Turn#NONE}.
+     */
+    public int getLastTurn(int game) {
+        return lastTurn[game];
+    }
+
+    /**
+     * Copies the position of one game into a compact state.
+     *
+     * @param game The slot of the game.
+     * @param dst  The destination, it must have the batch board size.
+     */
+    public void copyStateTo(int game, CompactState dst) {
+        if (dst.rows != rows || dst.cols != cols) {
+            throw new IllegalArgumentException("State size does not match the batch board size.");
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            long bit = 1L << cell;
+            if ((pawns[game] & bit) == 0) {
+                dst.cells[cell] = CompactState.EMPTY;
+            } else {
+                Color color = (pinkPawns[game] & bit) != 0 ? Color.PINK : Color.BLACK;
+                Symbol symbol = (xPawns[game] & bit) != 0 ? Symbol.X : Symbol.O;
+                dst.cells[cell] = CompactState.pawnState(color, symbol);
+            }
+        }
+        dst.totemX = totems[2 * game + X];
+        dst.totemO = totems[2 * game + O];
+        dst.cells[dst.totemX] = CompactState.TOTEM_X;
+        dst.cells[dst.totemO] = CompactState.TOTEM_O;
+        dst.remaining[CompactState.pawnIndex(Color.PINK, Symbol.X)] = remaining[4 * game + 2 * PINK + X];
+        dst.remaining[CompactState.pawnIndex(Color.PINK, Symbol.O)] = remaining[4 * game + 2 * PINK + O];
+        dst.remaining[CompactState.pawnIndex(Color.BLACK, Symbol.X)] = remaining[4 * game + 2 * BLACK + X];
+        dst.remaining[CompactState.pawnIndex(Color.BLACK, Symbol.O)] = remaining[4 * game + 2 * BLACK + O];
+        dst.toMove = toMove[game] == PINK ? Color.PINK : Color.BLACK;
+        dst.totemMoved = false;
+        dst.lastMovedTotem = null;
+        dst.winner = switch (status[game]) {
+            case PINK_WON -> Color.PINK;
+            case BLACK_WON -> Color.BLACK;
+            default -> null;
+        };
+    }
+}
@@ -1,12 +1,33 @@
 package model;
 
+import java.util.Arrays;
+
 class Board {
+    private static final TileState[] TILE_STATES = TileState.values();
+    private static final byte EMPTY = (byte) TileState.EMPTY.ordinal();
+    private static final Totem X_TOTEM = new Totem(Symbol.X);
+    private static final Totem O_TOTEM = new Totem(Symbol.O);
+    private static final Pawn PINK_X_PAWN = new Pawn(Symbol.X, Color.PINK);
+    private static final Pawn PINK_O_PAWN = new Pawn(Symbol.O, Color.PINK);
+    private static final Pawn BLACK_X_PAWN = new Pawn(Symbol.X, Color.BLACK);
+    private static final Pawn BLACK_O_PAWN = new Pawn(Symbol.O, Color.BLACK);
+
     private final int rows;
     private final int cols;
+    private final Position startTotemX;
+    private final Position startTotemO;
     private Position posTotemX;
     private Position posTotemO;
 
-    private final Tile[][] grid;
+    // Tokens are immutable, the tiles are a row-major array of the token they hold
+    private final Token[] tokens;
+    // The TileState ordinal of each token, kept in step with tokens for bulk copies
+    private final byte[] states;
+
+    // Tiles whose token changed since the last drain, each listed once
+    private final boolean[] changed;
+    private final int[] changedCells;
+    private int changedCount;
 
     Board(int rows, int cols){
         if (rows < 4 || cols < 4) {
@@ -14,35 +35,160 @@ class Board {
         }
         this.rows = rows;
         this.cols = cols;
-        grid = new Tile[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                grid[i][j] = new Tile();
+        tokens = new Token[rows * cols];
+        states = new byte[rows * cols];
+        changed = new boolean[rows * cols];
+        changedCells = new int[rows * cols];
+        startTotemX = new Position((rows / 2)-1,(cols / 2)-1);
+        startTotemO = new Position((rows / 2),(cols / 2));
+        reset();
+    }
+
+    // Copies only the array of tokens, the copy starts with no changed tiles
+    Board(Board source){
+        this.rows = source.rows;
+        this.cols = source.cols;
+        this.startTotemX = source.startTotemX;
+        this.startTotemO = source.startTotemO;
+        this.posTotemX = source.posTotemX;
+        this.posTotemO = source.posTotemO;
+        this.tokens = source.tokens.clone();
+        this.states = source.states.clone();
+        this.changed = new boolean[tokens.length];
+        this.changedCells = new int[tokens.length];
+    }
+
+    /**
+     * Empties the board and puts the totems back in the centre.
+     */
+    void reset(){
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i] != null) {
+                tokens[i] = null;
+                states[i] = EMPTY;
+                markChanged(i);
             }
         }
-        posTotemX = new Position((rows / 2)-1,(cols / 2)-1);
-        posTotemO = new Position((rows / 2),(cols / 2));
-        grid[posTotemX.x()][posTotemX.y()].setToken(new Totem(Symbol.X));
-        grid[posTotemO.x()][posTotemO.y()].setToken(new Totem(Symbol.O));
+        posTotemX = startTotemX;
+        posTotemO = startTotemO;
+        setToken(posTotemX, X_TOTEM);
+        setToken(posTotemO, O_TOTEM);
     }
 
-
     void moveTotem(Totem totem, Position newPos){
-        Tile targetTile = getTile(newPos);
-        targetTile.setToken(totem);
+        setToken(newPos, totem);
         refreshTotemPos(totem, newPos);
     }
 
     void insertPawn(Pawn pawn, Position pos){
-        Tile targetTile = getTile(pos);
-        if (!targetTile.isEmpty()){
+        if (!isEmpty(pos)){
             throw new IllegalStateException("Tile is already occupied");
         }
-        targetTile.setToken(pawn);
+        setToken(pos, pawn);
+    }
+
+    Token getToken(Position pos){
+        return tokens[pos.x() * cols + pos.y()];
+    }
+
+    boolean isEmpty(Position pos){
+        return getToken(pos) == null;
+    }
+
+    TileState getState(Position pos){
+        return TILE_STATES[states[pos.x() * cols + pos.y()]];
+    }
+
+    TileState getState(int cell){
+        return TILE_STATES[states[cell]];
+    }
+
+    String getColor(Position pos){
+        return Tile.getColor(getToken(pos));
+    }
+
+    void removeToken(Position pos){
+        setToken(pos, null);
+    }
+
+    private void setToken(Position pos, Token token){
+        int cell = pos.x() * cols + pos.y();
+        if (tokens[cell] != token) {
+            tokens[cell] = token;
+            states[cell] = (byte) Tile.getState(token).ordinal();
+            markChanged(cell);
+        }
+    }
+
+    private void markChanged(int cell){
+        if (!changed[cell]) {
+            changed[cell] = true;
+            changedCells[changedCount++] = cell;
+        }
+    }
+
+    /**
+     * Gets the tiles whose token changed since the previous call, and forgets them.
+     *
+     * @return The changed tiles as indexes {@code row * cols + col}, in the order they first changed.
+     */
+    int[] drainChangedCells(){
+        int[] cells = Arrays.copyOf(changedCells, changedCount);
+        clearChangedCells();
+        return cells;
+    }
+
+    /**
+     * Forgets the changed tiles, without allocating.
+     */
+    void clearChangedCells(){
+        for (int i = 0; i < changedCount; i++) {
+            changed[changedCells[i]] = false;
+        }
+        changedCount = 0;
+    }
+
+    /**
+     * Copies the {@link TileState} ordinal of every tile, row by row, into {@code dst}.
+     *
+     * @param dst Destination array of at least {@code rows * cols} bytes.
+     */
+    void copyStates(byte[] dst){
+        System.arraycopy(states, 0, dst, 0, states.length);
+    }
+
+    /**
+     * Restores every tile from {@link TileState} ordinals, row by row, as written by {@link #copyStates(byte[])}.
+     * Only the tiles whose state differs are given another token.
+     *
+     * @param src Source array of at least {@code rows * cols} bytes.
+     */
+    void restoreStates(byte[] src){
+        for (int i = 0; i < tokens.length; i++) {
+            TileState state = TILE_STATES[src[i]];
+            if (states[i] != src[i]) {
+                tokens[i] = tokenOf(state);
+                states[i] = src[i];
+                markChanged(i);
+            }
+            if (state == TileState.TOTEM_X) {
+                posTotemX = new Position(i / cols, i % cols);
+            } else if (state == TileState.TOTEM_O) {
+                posTotemO = new Position(i / cols, i % cols);
+            }
+        }
     }
 
-    Tile getTile(Position pos){
-        return grid[pos.x()][pos.y()];
+    private static Token tokenOf(TileState state){
+        return switch (state) {
+            case EMPTY -> null;
+            case TOTEM_X -> X_TOTEM;
+            case TOTEM_O -> O_TOTEM;
+            case PINK_X -> PINK_X_PAWN;
+            case PINK_O -> PINK_O_PAWN;
+            case BLACK_X -> BLACK_X_PAWN;
+            case BLACK_O -> BLACK_O_PAWN;
+        };
     }
 
     int getCols() {
@@ -63,7 +209,7 @@ class Board {
 
     private void refreshTotemPos(Totem totem, Position newPos){
         Position oldPos = getTotemPos(totem);
-        getTile(oldPos).removeToken();
+        removeToken(oldPos);
 
         if (totem.getSymbol() == Symbol.X){
             posTotemX = newPos;
@@ -0,0 +1,247 @@
+package model;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Symmetries of an Oxono board and canonicalization of positions under them.
+ * <p>
+ * Alignments are checked on rows and columns and totems slide orthogonally, so the rules are
+ * invariant under the dihedral symmetries of the board: 8 for a square board, 4 (the two mirrors
+ * and the half turn) for a rectangular one. Positions that only differ by such a transform have
+ * the same value, so caches, opening books and indexes can store them once under their canonical
+ * representative.
+ * <p>
+ * A transform {@code t} is encoded on 3 bits: bit 0 mirrors the rows, bit 1 mirrors the columns
+ * and bit 2 (square boards only) transposes the result. Instances are immutable and shared.
+ */
+public final class BoardSymmetry {
+    public static final int IDENTITY = 0;
+
+    private static final Map<Long, BoardSymmetry> CACHE = new ConcurrentHashMap<>();
+
+    private final int rows;
+    private final int cols;
+    private final int transformCount;
+    private final int[][] forward;
+    private final int[][] inverse;
+    private final long[] tileKeys;
+    private final long[] pawnKeys;
+    private final long[] flagKeys;
+
+    private BoardSymmetry(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.transformCount = (rows == cols) ? 8 : 4;
+        int cellCount = rows * cols;
+        this.forward = new int[transformCount][cellCount];
+        this.inverse = new int[transformCount][cellCount];
+        for (int t = 0; t < transformCount; t++) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                int mapped = transformCell(t, cell);
+                forward[t][cell] = mapped;
+                inverse[t][mapped] = cell;
+            }
+        }
+        // Seeded so that keys stay stable between runs and can be stored on disk.
+        SplittableRandom random = new SplittableRandom(((long) rows << 32) ^ cols ^ 0x0A0B0C0DL);
+        this.tileKeys = new long[cellCount * TileState.values().length];
+        for (int i = 0; i < tileKeys.length; i++) {
+            tileKeys[i] = random.nextLong();
+        }
+        this.pawnKeys = new long[4 * 9];
+        for (int i = 0; i < pawnKeys.length; i++) {
+            pawnKeys[i] = random.nextLong();
+        }
+        this.flagKeys = new long[8];
+        for (int i = 0; i < flagKeys.length; i++) {
+            flagKeys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Gets the shared symmetry tables for a board size.
+     *
+     * @param rows Number of rows of the board.
+     * @param cols Number of columns of the board.
+     * @return The symmetry tables for that size.
+     */
+    public static BoardSymmetry of(int rows, int cols) {
+        return CACHE.computeIfAbsent(((long) rows << 32) | cols, k -> new BoardSymmetry(rows, cols));
+    }
+
+    private int transformCell(int t, int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        if ((t & 1) != 0) {
+            row = rows - 1 - row;
+        }
+        if ((t & 2) != 0) {
+            col = cols - 1 - col;
+        }
+        if ((t & 4) != 0) {
+            int tmp = row;
+            row = col;
+            col = tmp;
+        }
+        return row * cols + col;
+    }
+
+    /**
+     * @return The number of symmetries of the board, 8 when square, otherwise 4.
+     */
+    public int getTransformCount() {
+        return transformCount;
+    }
+
+    /**
+     * Maps a tile index of the original board to the transformed board.
+     *
+     * @param t    The transform.
+     * @param cell The tile index on the original board.
+     * @return The tile index on the transformed board.
+     */
+    public int mapCell(int t, int cell) {
+        return forward[t][cell];
+    }
+
+    /**
+     * Maps a tile index of the transformed board back to the original board, e.g. to play
+     * a move that was stored for the canonical position.
+     *
+     * @param t    The transform.
+     * @param cell The tile index on the transformed board.
+     * @return The tile index on the original board.
+     */
+    public int unmapCell(int t, int cell) {
+        return inverse[t][cell];
+    }
+
+    /**
+     * Finds the transform giving the canonical representative of a position, which is the one
+     * with the lexicographically smallest tiles. Ties are resolved to the lowest transform.
+     *
+     * @param state The position.
+     * @return The canonical transform.
+     */
+    public int canonicalTransform(CompactState state) {
+        checkSize(state);
+        byte[] cells = state.cells;
+        int best = IDENTITY;
+        for (int t = 1; t < transformCount; t++) {
+            int[] candidate = inverse[t];
+            int[] current = inverse[best];
+            for (int i = 0; i < cells.length; i++) {
+                int diff = cells[candidate[i]] - cells[current[i]];
+                if (diff != 0) {
+                    if (diff < 0) {
+                        best = t;
+                    }
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Writes the image of a position under a transform into {@code dst}.
+     *
+     * @param t   The transform.
+     * @param src The position to transform.
+     * @param dst The destination, it may not be {@code src}.
+     */
+    public void transform(int t, CompactState src, CompactState dst) {
+        checkSize(src);
+        src.checkSameSize(dst);
+        if (src == dst) {
+            throw new IllegalArgumentException("Cannot transform a state in place.");
+        }
+        int[] map = inverse[t];
+        for (int i = 0; i < dst.cells.length; i++) {
+            dst.cells[i] = src.cells[map[i]];
+        }
+        dst.copyScalarsFrom(src);
+        dst.totemX = forward[t][src.totemX];
+        dst.totemO = forward[t][src.totemO];
+    }
+
+    /**
+     * Writes the canonical representative of a position into {@code dst}.
+     *
+     * @param src The position.
+     * @param dst The destination, it may not be {@code src}.
+     * @return The transform that maps {@code src} onto {@code dst}.
+     */
+    public int canonicalize(CompactState src, CompactState dst) {
+        int t = canonicalTransform(src);
+        transform(t, src, dst);
+        return t;
+    }
+
+    /**
+     * Computes a 64-bit Zobrist key of a position as it is.
+     *
+     * @param state The position.
+     * @return The key of the position.
+     */
+    public long key(CompactState state) {
+        return key(state, IDENTITY);
+    }
+
+    /**
+     * Computes a 64-bit key shared by all the symmetric images of a position, without building
+     * the canonical position.
+     *
+     * @param state The position.
+     * @return The key of the canonical representative.
+     */
+    public long canonicalKey(CompactState state) {
+        return key(state, canonicalTransform(state));
+    }
+
+    /**
+     * Computes the 64-bit Zobrist key of the image of a position under a transform, without
+     * building the image. With the canonical transform this is the canonical key.
+     *
+     * @param state The position.
+     * @param t     The transform.
+     * @return The key of the transformed position.
+     */
+    public long key(CompactState state, int t) {
+        checkSize(state);
+        int stateCount = TileState.values().length;
+        byte[] cells = state.cells;
+        int[] map = inverse[t];
+        long key = 0;
+        for (int i = 0; i < cells.length; i++) {
+            byte tile = cells[map[i]];
+            if (tile != CompactState.EMPTY) {
+                key ^= tileKeys[i * stateCount + tile];
+            }
+        }
+        for (int i = 0; i < 4; i++) {
+            key ^= pawnKeys[i * 9 + Math.min(state.remaining[i], 8)];
+        }
+        if (state.toMove == Color.BLACK) {
+            key ^= flagKeys[0];
+        }
+        if (state.totemMoved) {
+            key ^= flagKeys[1];
+        }
+        if (state.lastMovedTotem != null) {
+            key ^= flagKeys[2 + state.lastMovedTotem.ordinal()];
+        }
+        if (state.winner != null) {
+            key ^= flagKeys[4 + state.winner.ordinal()];
+        }
+        return key;
+    }
+
+    private void checkSize(CompactState state) {
+        if (state.rows != rows || state.cols != cols) {
+            throw new IllegalArgumentException("State size does not match the symmetry size.");
+        }
+    }
+}
@@ -0,0 +1,632 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Compact, mutable copy of a game position.
+ * <p>
+ * The board is stored as one byte per tile holding the {@link TileState} ordinal,
+ * the totems as tile indexes ({@code row * cols + col}) and the pawns left as plain counters.
+ * It carries no observers, history or {@code Position} objects, which makes it cheap to copy
+ * and usable as a key for caches, opening books and indexes.
+ */
+public final class CompactState {
+    public static final byte EMPTY = (byte) TileState.EMPTY.ordinal();
+    public static final byte TOTEM_X = (byte) TileState.TOTEM_X.ordinal();
+    public static final byte TOTEM_O = (byte) TileState.TOTEM_O.ordinal();
+    public static final byte PINK_X = (byte) TileState.PINK_X.ordinal();
+    public static final byte PINK_O = (byte) TileState.PINK_O.ordinal();
+    public static final byte BLACK_X = (byte) TileState.BLACK_X.ordinal();
+    public static final byte BLACK_O = (byte) TileState.BLACK_O.ordinal();
+
+    private static final TileState[] TILE_STATES = TileState.values();
+    private static final Symbol[] SYMBOLS = Symbol.values();
+    private static final int[][] DIRECTIONS = {{-1, 0}, {0, 1}, {1, 0}, {0, -1}};
+
+    final int rows;
+    final int cols;
+    final byte[] cells;
+    final int[] remaining;
+    private final int[] moveScratch;
+
+    int totemX;
+    int totemO;
+    Color toMove;
+    boolean totemMoved;
+    Symbol lastMovedTotem;
+    Color winner;
+
+    /**
+     * Creates an empty state for a board of the given size.
+     *
+     * @param rows Number of rows of the board.
+     * @param cols Number of columns of the board.
+     */
+    public CompactState(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new byte[rows * cols];
+        this.remaining = new int[4];
+        this.moveScratch = new int[2 * (rows + cols)];
+        this.toMove = Color.PINK;
+    }
+
+    /**
+     * Creates a compact copy of the current position of a game.
+     *
+     * @param game The game to copy.
+     * @return A new state holding the game's position.
+     */
+    public static CompactState of(Game game) {
+        CompactState state = new CompactState(game.getRows(), game.getCols());
+        game.copyStateTo(state);
+        return state;
+    }
+
+    /**
+     * Creates an independent copy of this state.
+     *
+     * @return The copy.
+     */
+    public CompactState copy() {
+        CompactState copy = new CompactState(rows, cols);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this state with another state of the same board size, without allocating.
+     *
+     * @param other The state to copy.
+     */
+    public void copyFrom(CompactState other) {
+        checkSameSize(other);
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        copyScalarsFrom(other);
+    }
+
+    void copyScalarsFrom(CompactState other) {
+        totemX = other.totemX;
+        totemO = other.totemO;
+        toMove = other.toMove;
+        totemMoved = other.totemMoved;
+        lastMovedTotem = other.lastMovedTotem;
+        winner = other.winner;
+        System.arraycopy(other.remaining, 0, remaining, 0, remaining.length);
+    }
+
+    void checkSameSize(CompactState other) {
+        if (other.rows != rows || other.cols != cols) {
+            throw new IllegalArgumentException("States must have the same board size.");
+        }
+    }
+
+    // -------------------------------
+    // Accessors
+    // -------------------------------
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public TileState getTileState(int cell) {
+        return TILE_STATES[cells[cell]];
+    }
+
+    public int getTotemCell(Symbol symbol) {
+        return symbol == Symbol.X ? totemX : totemO;
+    }
+
+    public int getRemaining(Color color, Symbol symbol) {
+        return remaining[pawnIndex(color, symbol)];
+    }
+
+    public Color getToMove() {
+        return toMove;
+    }
+
+    public boolean isTotemMoved() {
+        return totemMoved;
+    }
+
+    public Symbol getLastMovedTotem() {
+        return lastMovedTotem;
+    }
+
+    public Color getWinner() {
+        return winner;
+    }
+
+    public int cellOf(int row, int col) {
+        return row * cols + col;
+    }
+
+    public Position toPosition(int cell) {
+        return new Position(cell / cols, cell % cols);
+    }
+
+    static int pawnIndex(Color color, Symbol symbol) {
+        return color.ordinal() * 2 + symbol.ordinal();
+    }
+
+    static byte pawnState(Color color, Symbol symbol) {
+        if (color == Color.PINK) {
+            return symbol == Symbol.X ? PINK_X : PINK_O;
+        }
+        return symbol == Symbol.X ? BLACK_X : BLACK_O;
+    }
+
+    // -------------------------------
+    // Rules
+    // -------------------------------
+    // Same rules as GameValidator, on tile indexes and without allocating.
+
+    /**
+     * @return The maximum number of turns {@link #legalTurns(int[])} can return for this board size.
+     */
+    public int maxTurns() {
+        return 8 * (rows + cols + cells.length);
+    }
+
+    /**
+     * Checks whether the game is over, either by a win or a draw condition.
+     *
+     * @return {@code true} if the game is over.
+     */
+    public boolean isGameOver() {
+        return winner != null || isDraw();
+    }
+
+    /**
+     * Checks the draw condition of {@code GameValidator.checkDrawCondition}: the board is full,
+     * no totem can move, or both players ran out of pawns.
+     *
+     * @return {@code true} if the game ends in a draw.
+     */
+    public boolean isDraw() {
+        return countEmpty() == 0
+                || (totemMoves(Symbol.X, moveScratch) == 0 && totemMoves(Symbol.O, moveScratch) == 0)
+                || (remaining[0] + remaining[1] + remaining[2] + remaining[3] == 0);
+    }
+
+    public int countEmpty() {
+        int count = 0;
+        for (byte cell : cells) {
+            if (cell == EMPTY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether all the in-bounds neighbors of a tile are occupied.
+     *
+     * @param cell The tile index.
+     * @return {@code true} if the tile is enclaved.
+     */
+    public boolean isEnclaved(int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        for (int[] dir : DIRECTIONS) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            if (isInBoard(r, c) && cells[r * cols + c] == EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lists the valid destinations of a totem, as {@code GameValidator.getValidMoves}.
+     *
+     * @param symbol The symbol of the totem.
+     * @param out    Destination buffer of at least {@code 2 * (rows + cols)} entries.
+     * @return The number of destinations written in {@code out}.
+     */
+    public int totemMoves(Symbol symbol, int[] out) {
+        int from = getTotemCell(symbol);
+        int row = from / cols;
+        int col = from % cols;
+        boolean enclaved = isEnclaved(from);
+        int count = 0;
+        for (int[] dir : DIRECTIONS) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            while (isInBoard(r, c)) {
+                int cell = r * cols + c;
+                if (cells[cell] == EMPTY) {
+                    out[count++] = cell;
+                    if (enclaved) {
+                        break;
+                    }
+                } else if (!enclaved) {
+                    break;
+                }
+                r += dir[0];
+                c += dir[1];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists the tiles where a pawn can be inserted after the last totem move,
+     * as {@code GameValidator.getValidPawnInsertions}.
+     *
+     * @param out Destination buffer of at least {@code rows * cols} entries.
+     * @return The number of tiles written in {@code out}, 0 if no totem was moved this turn.
+     */
+    public int insertions(int[] out) {
+        if (!totemMoved) {
+            return 0;
+        }
+        return insertionsAround(getTotemCell(lastMovedTotem), out, 0, Symbol.X, false);
+    }
+
+    private int insertionsAround(int totem, int[] out, int count, Symbol symbol, boolean asTurns) {
+        if (isEnclaved(totem)) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] == EMPTY) {
+                    out[count++] = asTurns ? Turn.of(symbol, totem, cell) : cell;
+                }
+            }
+            return count;
+        }
+        int row = totem / cols;
+        int col = totem % cols;
+        for (int[] dir : DIRECTIONS) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            if (isInBoard(r, c) && cells[r * cols + c] == EMPTY) {
+                out[count++] = asTurns ? Turn.of(symbol, totem, r * cols + c) : r * cols + c;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lists every legal turn of the player to move, packed with {@link Turn}. When a totem was
+     * already moved this turn only the insertions next to it are listed.
+     *
+     * @param out Destination buffer of at least {@link #maxTurns()} entries.
+     * @return The number of turns written in {@code out}.
+     */
+    public int legalTurns(int[] out) {
+        if (isGameOver()) {
+            return 0;
+        }
+        if (totemMoved) {
+            return insertionsAround(getTotemCell(lastMovedTotem), out, 0, lastMovedTotem, true);
+        }
+        int count = 0;
+        for (Symbol symbol : SYMBOLS) {
+            if (remaining[pawnIndex(toMove, symbol)] == 0) {
+                continue;
+            }
+            int from = getTotemCell(symbol);
+            byte totem = cells[from];
+            int moveCount = totemMoves(symbol, moveScratch);
+            for (int i = 0; i < moveCount; i++) {
+                int dest = moveScratch[i];
+                cells[from] = EMPTY;
+                cells[dest] = totem;
+                count = insertionsAround(dest, out, count, symbol, true);
+                cells[dest] = EMPTY;
+                cells[from] = totem;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether a turn is one of the {@link #legalTurns(int[])}, without listing them.
+     * At the start of a turn, the draw conditions do not need to be checked: a full board,
+     * totems that cannot move or missing pawns already make every turn illegal.
+     *
+     * @param turn The turn packed with {@link Turn}.
+     * @return {@code true} if the player to move can play the turn.
+     */
+    public boolean isLegalTurn(int turn) {
+        int dest = Turn.totemCell(turn);
+        int cell = Turn.pawnCell(turn);
+        Symbol symbol = Turn.symbol(turn);
+        if (dest >= cells.length || cell >= cells.length || winner != null) {
+            return false;
+        }
+        if (totemMoved) {
+            return symbol == lastMovedTotem && dest == getTotemCell(symbol) && !isDraw()
+                    && isInsertionAround(dest, cell);
+        }
+        int from = getTotemCell(symbol);
+        if (remaining[pawnIndex(toMove, symbol)] == 0 || !isTotemMove(from, dest)) {
+            return false;
+        }
+        byte totem = cells[from];
+        cells[from] = EMPTY;
+        cells[dest] = totem;
+        boolean legal = isInsertionAround(dest, cell);
+        cells[dest] = EMPTY;
+        cells[from] = totem;
+        return legal;
+    }
+
+    /**
+     * Checks whether {@code dest} is one of the {@link #totemMoves(Symbol, int[])} of the totem
+     * on {@code from}, walking only the tiles between them.
+     */
+    private boolean isTotemMove(int from, int dest) {
+        if (cells[dest] != EMPTY) {
+            return false;
+        }
+        int step;
+        if (from / cols == dest / cols) {
+            step = dest > from ? 1 : -1;
+        } else if (from % cols == dest % cols) {
+            step = dest > from ? cols : -cols;
+        } else {
+            return false;
+        }
+        // Enclaved totems jump to the first empty tile, the others slide over empty tiles
+        boolean enclaved = isEnclaved(from);
+        for (int between = from + step; between != dest; between += step) {
+            if ((cells[between] == EMPTY) == enclaved) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isInsertionAround(int totem, int cell) {
+        if (cells[cell] != EMPTY) {
+            return false;
+        }
+        if (isEnclaved(totem)) {
+            return true;
+        }
+        return Math.abs(cell / cols - totem / cols) + Math.abs(cell % cols - totem % cols) == 1;
+    }
+
+    /**
+     * Moves a totem without validation.
+     *
+     * @param symbol The symbol of the totem.
+     * @param dest   The destination tile, it must be a valid destination.
+     */
+    public void moveTotem(Symbol symbol, int dest) {
+        int from = getTotemCell(symbol);
+        cells[dest] = cells[from];
+        cells[from] = EMPTY;
+        if (symbol == Symbol.X) {
+            totemX = dest;
+        } else {
+            totemO = dest;
+        }
+        totemMoved = true;
+        lastMovedTotem = symbol;
+    }
+
+    /**
+     * Inserts a pawn of the player to move, with the symbol of the last moved totem, without
+     * validation. As in {@code Game}, the player wins if four pawns get aligned, otherwise one
+     * of its pawns is consumed, then the turn passes to the opponent.
+     *
+     * @param cell The tile, it must be a valid insertion.
+     * @return {@code true} if the insertion wins the game.
+     */
+    public boolean insertPawn(int cell) {
+        cells[cell] = pawnState(toMove, lastMovedTotem);
+        if (isAlignedAt(cell)) {
+            winner = toMove;
+        } else {
+            int index = pawnIndex(toMove, lastMovedTotem);
+            if (remaining[index] > 0) {
+                remaining[index]--;
+            }
+        }
+        totemMoved = false;
+        lastMovedTotem = null;
+        toMove = opponent(toMove);
+        return winner != null;
+    }
+
+    /**
+     * Plays a full turn without validation.
+     *
+     * @param turn The turn packed with {@link Turn}, as listed by {@link #legalTurns(int[])}.
+     * @return {@code true} if the turn wins the game.
+     */
+    public boolean playTurn(int turn) {
+        if (!totemMoved) {
+            moveTotem(Turn.symbol(turn), Turn.totemCell(turn));
+        }
+        return insertPawn(Turn.pawnCell(turn));
+    }
+
+    /**
+     * Finds a turn that wins immediately for the player to move.
+     *
+     * @return The winning turn, or {@link Turn#NONE}.
+     */
+    public int findWinningTurn() {
+        return findWinningTurn(toMove);
+    }
+
+    /**
+     * Finds a turn that would win immediately for a player if it was its turn. Alignments only
+     * depend on pawns, so the tiles completing a line are found first and the totem moves are
+     * only used to check that one of them can be reached.
+     *
+     * @param player The player.
+     * @return The winning turn, or {@link Turn#NONE}.
+     */
+    public int findWinningTurn(Color player) {
+        if (winner != null) {
+            return Turn.NONE;
+        }
+        boolean midTurn = totemMoved && player == toMove;
+        for (Symbol symbol : SYMBOLS) {
+            if (remaining[pawnIndex(player, symbol)] == 0 || (midTurn && symbol != lastMovedTotem)) {
+                continue;
+            }
+            int turn = midTurn ? findWinningInsertion(player, symbol, getTotemCell(symbol))
+                               : findWinningTurn(player, symbol);
+            if (turn != Turn.NONE) {
+                return turn;
+            }
+        }
+        return Turn.NONE;
+    }
+
+    private int findWinningTurn(Color player, Symbol symbol) {
+        int from = getTotemCell(symbol);
+        byte totem = cells[from];
+        int moveCount = totemMoves(symbol, moveScratch);
+        for (int i = 0; i < moveCount; i++) {
+            int dest = moveScratch[i];
+            cells[from] = EMPTY;
+            cells[dest] = totem;
+            int turn = findWinningInsertion(player, symbol, dest);
+            cells[dest] = EMPTY;
+            cells[from] = totem;
+            if (turn != Turn.NONE) {
+                return turn;
+            }
+        }
+        return Turn.NONE;
+    }
+
+    private int findWinningInsertion(Color player, Symbol symbol, int totem) {
+        byte pawn = pawnState(player, symbol);
+        if (isEnclaved(totem)) {
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] == EMPTY && completesLine(cell, pawn)) {
+                    return Turn.of(symbol, totem, cell);
+                }
+            }
+            return Turn.NONE;
+        }
+        int row = totem / cols;
+        int col = totem % cols;
+        for (int[] dir : DIRECTIONS) {
+            int r = row + dir[0];
+            int c = col + dir[1];
+            int cell = r * cols + c;
+            if (isInBoard(r, c) && cells[cell] == EMPTY && completesLine(cell, pawn)) {
+                return Turn.of(symbol, totem, cell);
+            }
+        }
+        return Turn.NONE;
+    }
+
+    /**
+     * Checks whether a pawn inserted on an empty tile would align four pawns.
+     *
+     * @param cell The empty tile.
+     * @param pawn The pawn tile state.
+     * @return {@code true} if the insertion would win.
+     */
+    public boolean completesLine(int cell, byte pawn) {
+        byte previous = cells[cell];
+        cells[cell] = pawn;
+        boolean aligned = isAlignedAt(cell);
+        cells[cell] = previous;
+        return aligned;
+    }
+
+    /**
+     * Checks the row and the column of a tile for four consecutive pawns sharing a symbol
+     * or a color, as {@code GameValidator.checkWinCondition}.
+     *
+     * @param cell The tile index.
+     * @return {@code true} if an alignment goes through the row or column of the tile.
+     */
+    public boolean isAlignedAt(int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        return hasFourInLine(row * cols, 1, cols) || hasFourInLine(col, cols, rows);
+    }
+
+    private boolean hasFourInLine(int start, int step, int length) {
+        int symbolRun = 0;
+        int colorRun = 0;
+        int previous = EMPTY;
+        for (int i = 0, cell = start; i < length; i++, cell += step) {
+            int tile = cells[cell];
+            if (!isPawn(tile)) {
+                symbolRun = 0;
+                colorRun = 0;
+                previous = EMPTY;
+                continue;
+            }
+            boolean continued = isPawn(previous);
+            symbolRun = (continued && isX(tile) == isX(previous)) ? symbolRun + 1 : 1;
+            colorRun = (continued && isPink(tile) == isPink(previous)) ? colorRun + 1 : 1;
+            if (symbolRun >= 4 || colorRun >= 4) {
+                return true;
+            }
+            previous = tile;
+        }
+        return false;
+    }
+
+    private boolean isInBoard(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    static boolean isPawn(int tile) {
+        return tile >= PINK_X;
+    }
+
+    static boolean isX(int tile) {
+        return tile == PINK_X || tile == BLACK_X;
+    }
+
+    static boolean isPink(int tile) {
+        return tile == PINK_X || tile == PINK_O;
+    }
+
+    public static Color opponent(Color color) {
+        return color == Color.PINK ? Color.BLACK : Color.PINK;
+    }
+
+    // -------------------------------
+    // Object methods
+    // -------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactState other)) {
+            return false;
+        }
+        return rows == other.rows && cols == other.cols
+                && totemX == other.totemX && totemO == other.totemO
+                && toMove == other.toMove && totemMoved == other.totemMoved
+                && lastMovedTotem == other.lastMovedTotem && winner == other.winner
+                && Arrays.equals(remaining, other.remaining)
+                && Arrays.equals(cells, other.cells);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(cells);
+        result = 31 * result + Arrays.hashCode(remaining);
+        result = 31 * result + toMove.ordinal();
+        result = 31 * result + (totemMoved ? 1 : 0);
+        result = 31 * result + (lastMovedTotem == null ? 2 : lastMovedTotem.ordinal());
+        result = 31 * result + (winner == null ? 2 : winner.ordinal());
+        return result;
+    }
+}
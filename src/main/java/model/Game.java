@@ -6,6 +6,7 @@ import model.observer.Observer;
 import model.strategy.ComputerStrategy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -13,8 +14,18 @@ import java.util.List;
  * Facade class for managing the game's flow and interactions between subsystems.
  */
 public class Game implements Observable {
+    /**
+     * Number of plies between two keyframes of the history.
+     */
+    public static final int KEYFRAME_INTERVAL = 16;
 
     private final List<Observer> observers;
+    private int notificationsSuspended;
+    private boolean notificationPending;
+    // What the observers were last told, to report what changed since
+    private Color notifiedPlayer;
+    private int notifiedPhase;
+    private int notifiedPawns;
 
     //Players
     private final Player black;
@@ -26,7 +37,15 @@ public class Game implements Observable {
     //Game state
     private final Board board;
     private final GameValidator validator;
+    private final GameCommands commands;
     private final CommandManager commandManager;
+    private final List<Keyframe> keyframes;
+    private Keyframe startKeyframe;
+    // 1 when the history starts after the totem move of a turn, as in a fork taken mid-turn
+    private int historyOffset;
+
+    private MoveJournal journal;
+    private int journalId;
 
     private Symbol lastMovedTotSym;
     private Position lastMovedTotPos;
@@ -40,6 +59,20 @@ public class Game implements Observable {
      * @param cols Number of columns for the game board.
      */
     public Game(int rows, int cols, ComputerStrategy computerStrategy){
+        this(rows, cols, computerStrategy, CommandManager.UNLIMITED);
+    }
+
+    /**
+     * Initializes the game with a board of specified dimensions and a bounded undo history.
+     *
+     * @param rows         Number of rows for the game board.
+     * @param cols         Number of columns for the game board.
+     * @param historyDepth Maximum number of commands that can be undone, or {@link CommandManager#UNLIMITED}.
+     */
+    public Game(int rows, int cols, ComputerStrategy computerStrategy, int historyDepth){
+        if ((long) rows * cols > Turn.MAX_CELLS) {
+            throw new IllegalArgumentException("Board size must be at most " + Turn.MAX_CELLS + " tiles.");
+        }
         this.observers = new ArrayList<>();
         this.black = new Player(Color.BLACK);
         this.pink = new Player(Color.PINK);
@@ -47,11 +80,51 @@ public class Game implements Observable {
         this.winner = null;
         this.board = new Board(rows, cols);
         this.validator = new GameValidator(board);
-        this.commandManager = new CommandManager();
+        this.commands = new GameCommands(this, cols);
+        this.commandManager = new CommandManager(commands, historyDepth);
         this.lastMovedTotSym = null;
         this.hasMovedTotem = false;
         this.lastInPawnPos = null;
         this.computerStrategy = computerStrategy;
+        this.keyframes = new ArrayList<>();
+        this.startKeyframe = captureKeyframe();
+        keyframes.add(startKeyframe);
+    }
+
+    private Game(Game source){
+        this.observers = new ArrayList<>();
+        this.black = new Player(source.black);
+        this.pink = new Player(source.pink);
+        this.currPlayer = source.currPlayer == source.pink ? pink : black;
+        this.winner = source.winner == null ? null : (source.winner == source.pink ? pink : black);
+        this.computerStrategy = source.computerStrategy;
+        this.board = new Board(source.board);
+        this.validator = new GameValidator(board);
+        this.commands = new GameCommands(this, board.getCols());
+        this.commandManager = new CommandManager(commands, source.commandManager.getMaxDepth());
+        this.lastMovedTotSym = source.lastMovedTotSym;
+        this.lastMovedTotPos = source.lastMovedTotPos;
+        this.hasMovedTotem = source.hasMovedTotem;
+        this.lastInPawnPos = source.lastInPawnPos;
+        this.historyOffset = source.hasMovedTotem ? 1 : 0;
+        // The starting position of a fork is reached by undoing, it needs no keyframe
+        this.keyframes = new ArrayList<>(1);
+        keyframes.add(null);
+        this.startKeyframe = source.startKeyframe;
+    }
+
+    /**
+     * Creates an independent copy of the current position, to explore moves without touching
+     * this game. The fork has the same players, pawns and computer strategy, but no observers
+     * and an empty history: it can only be undone back to the position it was forked from.
+     * A fork taken after a totem move counts its turns from the turn in progress, which ends at
+     * ply 1; the totem move is not in its history, so {@link #getTurns()} fails on it.
+     * Forks can be played on other threads than this game.
+     *
+     * @return The fork.
+     */
+    public Game fork(){
+        return new Game(this);
     }
 
     // -------------------------------
@@ -114,11 +187,35 @@ public class Game implements Observable {
         changePlayer();
     }
 
+    /**
+     * Restores the initial position in place: the totems in the centre, 8 pawns of each symbol
+     * for each player, pink to play and an empty history. The observers are kept and notified.
+     * Resetting allocates nothing, so one instance can play many games, see {@link GamePool}.
+     */
+    public void reset(){
+        board.reset();
+        pink.reset();
+        black.reset();
+        currPlayer = pink;
+        winner = null;
+        lastMovedTotSym = null;
+        lastMovedTotPos = null;
+        hasMovedTotem = false;
+        lastInPawnPos = null;
+        commandManager.clear();
+        historyOffset = 0;
+        keyframes.clear();
+        keyframes.add(startKeyframe);
+        journal(MoveJournal.RESET, 0);
+        stateChanged();
+    }
+
     /**
      * Handles the surrender action, declaring the opponent as the winner.
      */
     public void surrender(){
         winner = (currPlayer == black) ? pink : black;
+        journal(MoveJournal.SURRENDER, 0);
         stateChanged();
     }
 
@@ -143,7 +240,7 @@ public class Game implements Observable {
         }
         Position oldPos = getTotemPos(totem);
         moveInBoard(totem, newPos);
-        commandManager.addCommand(new MoveTotemCommand(this, totem, newPos ,oldPos));
+        record(commands.moveTotem(totem.getSymbol(), oldPos, newPos));
     }
 
     void moveInBoard(Totem totem, Position newPos){
@@ -225,7 +322,7 @@ public class Game implements Observable {
     public void insertPawn(Pawn pawn, Position newPos){
         validatePawnInsertion(newPos);
         insertPawnInBoard(pawn, newPos);
-        commandManager.addCommand(new InsertPawnCommand(this, pawn, newPos));
+        record(commands.insertPawn(pawn, newPos));
     }
 
     void insertPawnInBoard(Pawn pawn, Position pos){
@@ -242,6 +339,32 @@ public class Game implements Observable {
         stateChanged();
     }
 
+    /**
+     * Plays a full turn: chooses the totem, moves it and inserts the matching pawn.
+     * If a totem was already moved this turn, only the pawn is inserted.
+     * The observers are notified once.
+     *
+     * @param turn The turn packed with {@link Turn}.
+     * @throws OxonoException if the game's rules are violated
+     */
+    public void playTurn(int turn){
+        batch(() -> {
+            Symbol symbol = Turn.symbol(turn);
+            if (!hasMovedTotem) {
+                setChosenTotem(symbol);
+                moveTotem(getTotemOfSymbol(symbol), cellToPos(Turn.totemCell(turn)));
+            }
+            insertPawn(getPawnOfSymbol(lastMovedTotSym), cellToPos(Turn.pawnCell(turn)));
+        });
+    }
+
+    private Position cellToPos(int cell) {
+        if (cell >= getRows() * getCols()) {
+            throw new OxonoException("Invalid tile number: " + (cell + 1));
+        }
+        return tileNumberToPos(cell + 1);
+    }
+
     /**
      * Validates whether a pawn can be inserted at a given position.
      *
@@ -267,14 +390,279 @@ public class Game implements Observable {
      * Undoes the last command.
      */
     public void undo(){
-        commandManager.undo();
+        batch(() -> {
+            commandManager.undo();
+            journal(MoveJournal.UNDO, 0);
+        });
     }
 
     /**
      * Redoes the last undone command.
      */
     public void redo(){
-        commandManager.redo();
+        batch(() -> {
+            commandManager.redo();
+            journal(MoveJournal.REDO, 0);
+        });
+    }
+
+    /**
+     * Undoes the last turn as a single action: the pawn insertion and the totem move, or only
+     * the totem move of a turn in progress. Against the computer, the computer's turn and the
+     * human turn before it are undone together, so that the human player plays again.
+     * The observers are notified once.
+     */
+    public void undoTurn(){
+        batch(() -> {
+            undoOneTurn();
+            if (isAiTurn() && !hasMovedTotem) {
+                undoOneTurn();
+            }
+            journal(MoveJournal.UNDO_TURN, 0);
+        });
+    }
+
+    /**
+     * Redoes the next undone turn as a single action. Against the computer, the computer's
+     * turn following the human turn is redone with it when it is available.
+     * The observers are notified once.
+     */
+    public void redoTurn(){
+        batch(() -> {
+            redoOneTurn();
+            if (isAiTurn()) {
+                redoOneTurn();
+            }
+            journal(MoveJournal.REDO_TURN, 0);
+        });
+    }
+
+    private void undoOneTurn(){
+        int position = position();
+        int target = Math.max(position % 2 == 0 ? position - 2 : position - 1, firstPosition());
+        while (position() > target) {
+            commandManager.undo();
+        }
+    }
+
+    private void redoOneTurn(){
+        int position = position();
+        int target = Math.min(position + 2 - position % 2, lastPosition());
+        while (position() < target) {
+            commandManager.redo();
+        }
+    }
+
+    /**
+     * Runs a sequence of changes as one: the observers are notified once at the end,
+     * if anything changed. Scopes can be nested, only the outermost one notifies.
+     *
+     * @param changes The changes to apply to the game.
+     */
+    public void batch(Runnable changes){
+        notificationsSuspended++;
+        try {
+            changes.run();
+        } finally {
+            notificationsSuspended--;
+            if (notificationsSuspended == 0 && notificationPending) {
+                notificationPending = false;
+                notifyChange();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of plies played to reach the current position.
+     * A ply is one player's turn: a totem move followed by a pawn insertion.
+     *
+     * @return The current ply, a pending totem move is not counted.
+     */
+    public int getPly(){
+        return position() / 2;
+    }
+
+    /**
+     * @return The lowest ply that can be reached with {@link #seekToPly(int)}.
+     */
+    public int getFirstPly(){
+        return (firstPosition() + 1) / 2;
+    }
+
+    /**
+     * @return The highest ply that can be reached with {@link #seekToPly(int)}.
+     */
+    public int getLastPly(){
+        return lastPosition() / 2;
+    }
+
+    /**
+     * Jumps to the position reached after a given ply of the history.
+     * The nearest keyframe before the ply is restored and the remaining commands are replayed
+     * in a {@link #batch(Runnable)} scope, so the observers are notified once. The commands after
+     * the ply stay available to redo.
+     *
+     * @param ply The ply to reach, between {@link #getFirstPly()} and {@link #getLastPly()}.
+     * @throws OxonoException if the ply is not in the history
+     */
+    public void seekToPly(int ply){
+        if (ply < getFirstPly() || ply > getLastPly()) {
+            throw new OxonoException("Ply " + ply + " is not in the history.");
+        }
+        int target = 2 * ply;
+        int current = position();
+        int keyframeIndex = Math.min(ply / KEYFRAME_INTERVAL, keyframes.size() - 1);
+        Keyframe keyframe = keyframes.get(keyframeIndex);
+        int keyframePosition = 2 * KEYFRAME_INTERVAL * keyframeIndex;
+
+        batch(() -> {
+            int position = current;
+            if (keyframe != null && (target < position || keyframePosition > position)) {
+                restoreKeyframe(keyframe);
+                commandManager.jumpTo(keyframePosition - historyOffset);
+                position = keyframePosition;
+            }
+            for (; position < target; position++) {
+                commandManager.redo();
+            }
+            for (; position > target; position--) {
+                commandManager.undo();
+            }
+            journal(MoveJournal.SEEK, ply);
+            stateChanged();
+        });
+    }
+
+    /**
+     * Gets the turns played from the start of the game to the current ply, packed with {@link Turn}.
+     * A pending totem move and the turns that can be redone are not included.
+     *
+     * @return The turns, one per ply.
+     * @throws OxonoException if the bounded history no longer holds the first turns, or the
+     *                        history starts in the middle of a turn
+     */
+    public int[] getTurns(){
+        if (firstPosition() > 0) {
+            throw new OxonoException("The history no longer holds the first turns of the game.");
+        }
+        int[] turns = new int[getPly()];
+        for (int ply = 0; ply < turns.length; ply++) {
+            turns[ply] = GameCommands.toTurn(commandManager.getCommand(2 * ply), commandManager.getCommand(2 * ply + 1));
+        }
+        return turns;
+    }
+
+    private void record(int command){
+        commandManager.addCommand(command);
+        journal(MoveJournal.COMMAND, command);
+        int position = position();
+        int interval = 2 * KEYFRAME_INTERVAL;
+        while (interval * (keyframes.size() - 1) >= position) {
+            keyframes.removeLast();
+        }
+        if (position % interval == 0) {
+            keyframes.add(captureKeyframe());
+        }
+        for (int i = Math.ceilDiv(firstPosition(), interval) - 1; i >= 0 && keyframes.get(i) != null; i--) {
+            keyframes.set(i, null);
+        }
+    }
+
+    /**
+     * Positions in the history, counted in commands from the start of the turn the history starts in,
+     * so that a turn starts at an even position.
+     */
+    private int position(){
+        return historyOffset + commandManager.getPosition();
+    }
+
+    private int firstPosition(){
+        return historyOffset + commandManager.getFirstPosition();
+    }
+
+    private int lastPosition(){
+        return historyOffset + commandManager.getLastPosition();
+    }
+
+    private Keyframe captureKeyframe(){
+        return new Keyframe(CompactState.of(this), lastMovedTotSym, hasMovedTotem);
+    }
+
+    private void restoreKeyframe(Keyframe keyframe){
+        CompactState state = keyframe.state();
+        board.restoreStates(state.cells);
+        pink.setRemaining(state.getRemaining(Color.PINK, Symbol.X), state.getRemaining(Color.PINK, Symbol.O));
+        black.setRemaining(state.getRemaining(Color.BLACK, Symbol.X), state.getRemaining(Color.BLACK, Symbol.O));
+        currPlayer = state.getToMove() == Color.PINK ? pink : black;
+        winner = state.getWinner() == null ? null : (state.getWinner() == Color.PINK ? pink : black);
+        hasMovedTotem = keyframe.totemMoved();
+        lastMovedTotSym = keyframe.lastMovedTotSym();
+        lastMovedTotPos = lastMovedTotSym == null ? null : board.getTotemPos(lastMovedTotSym);
+    }
+
+    /**
+     * A position of the history, at a turn boundary unless the history started in the middle
+     * of a turn.
+     */
+    private record Keyframe(CompactState state, Symbol lastMovedTotSym, boolean totemMoved) {
+    }
+
+    // -------------------------------
+    // Journal
+    // -------------------------------
+
+    MoveJournal getJournal(){
+        return journal;
+    }
+
+    int getJournalId(){
+        return journalId;
+    }
+
+    void setJournal(MoveJournal journal, int journalId){
+        this.journal = journal;
+        this.journalId = journalId;
+    }
+
+    boolean hasEmptyHistory(){
+        return commandManager.getLastPosition() == 0 && winner == null;
+    }
+
+    boolean hasComputerPlayer(){
+        return computerStrategy != null;
+    }
+
+    int getHistoryDepth(){
+        return commandManager.getMaxDepth();
+    }
+
+    int getHistoryPosition(){
+        return commandManager.getPosition();
+    }
+
+    /**
+     * Executes a journaled command again, without checking the rules it was checked against.
+     */
+    void replayCommand(int command){
+        if (GameCommands.kind(command) == GameCommands.MOVE_TOTEM) {
+            currPlayer.setChosenTotem(GameCommands.symbol(command));
+        }
+        commands.execute(command);
+        record(command);
+    }
+
+    void clearObservers(){
+        observers.clear();
+    }
+
+    ComputerStrategy getComputerStrategy(){
+        return computerStrategy;
+    }
+
+    private void journal(int kind, int value){
+        if (journal != null) {
+            journal.append(journalId, kind, value, commandManager.getPosition());
+        }
     }
 
     /**
@@ -310,7 +698,7 @@ public class Game implements Observable {
      * @param newPos The {@code Position} of the token to remove.
      */
     void removeToken(Position newPos){
-        board.getTile(newPos).removeToken();
+        board.removeToken(newPos);
         stateChanged();
     }
 
@@ -341,7 +729,7 @@ public class Game implements Observable {
      * @return {@code true} if the tile is empty, otherwise {@code false}.
      */
     public boolean isTileEmpty(Position position) {
-        return board.getTile(position).getToken() == null;
+        return board.isEmpty(position);
     }
 
     /**
@@ -351,7 +739,7 @@ public class Game implements Observable {
      * @return The symbol of the token, or an empty string if no token is present.
      */
     public String getTileSymbol(Position position) {
-        Token token = board.getTile(position).getToken();
+        Token token = board.getToken(position);
         return (token != null) ? token.getSymbol().toString() : ""; // Return token symbol or empty string
     }
 
@@ -362,7 +750,30 @@ public class Game implements Observable {
      * @return The color of the tile.
      */
     public String getTileColor(Position position) {
-        return board.getTile(position).getColor(); // Tile colors are immutable strings
+        return board.getColor(position); // Tile colors are immutable strings
+    }
+
+    /**
+     * Gets the console color of a tile state, as {@link #getTileColor(Position)} does for a tile.
+     *
+     * @param state The state of a tile.
+     * @return The color of the tile.
+     */
+    public String getTileColor(TileState state) {
+        return Tile.getColor(state);
+    }
+
+    /**
+     * Copies the state of every tile in one pass, for renderers that draw the whole board.
+     *
+     * @param dst Receives the {@link TileState} ordinal of each tile, row by row, at index
+     *            {@code row * cols + col}. It must hold at least {@code rows * cols} bytes.
+     */
+    public void copyTileStates(byte[] dst) {
+        if (dst.length < getRows() * getCols()) {
+            throw new IllegalArgumentException("The array must hold " + getRows() * getCols() + " tile states.");
+        }
+        board.copyStates(dst);
     }
 
     public int getEmptyTileCount(){
@@ -474,6 +885,11 @@ public class Game implements Observable {
 
     @Override
     public void addObserver(Observer observer) {
+        if (observers.isEmpty()) {
+            // Changes are not tracked without observers
+            board.clearChangedCells();
+            rememberNotified();
+        }
         observers.add(observer);
     }
 
@@ -482,29 +898,103 @@ public class Game implements Observable {
         observers.remove(observer);
     }
 
+    /**
+     * Notifies all registered observers with a change listing every tile, so that they redraw everything.
+     */
     @Override
     public void notifyObservers() {
-        observers.  forEach(Observer::update);
+        int[] cells = new int[getRows() * getCols()];
+        Arrays.setAll(cells, cell -> cell);
+        board.clearChangedCells();
+        rememberNotified();
+        notifyObservers(new GameChange(cells, true, true, true));
+    }
+
+    private void notifyObservers(GameChange change) {
+        for (Observer observer : observers) {
+            observer.update(change);
+        }
     }
 
     /**
      * Marks that the state of this observable object has changed and notifies all registered observers.
-     * This is a convenience method that internally calls {@code notifyObservers}.
+     * This is a convenience method that internally calls {@code notifyChange}.
      */
     private void stateChanged(){
-        notifyObservers();
+        if (notificationsSuspended > 0) {
+            notificationPending = true;
+        } else {
+            notifyChange();
+        }
+    }
+
+    /**
+     * Notifies the observers of what changed since they were last notified.
+     */
+    private void notifyChange(){
+        if (observers.isEmpty()) {
+            board.clearChangedCells();
+            return;
+        }
+        int[] cells = board.drainChangedCells();
+        Color player = notifiedPlayer;
+        int phase = notifiedPhase;
+        int pawns = notifiedPawns;
+        rememberNotified();
+        notifyObservers(new GameChange(cells, player != notifiedPlayer, phase != notifiedPhase, pawns != notifiedPawns));
+    }
+
+    private void rememberNotified(){
+        notifiedPlayer = currPlayer.getColor();
+        notifiedPhase = isGameOver() ? 2 : (hasMovedTotem ? 1 : 0);
+        notifiedPawns = pink.getRemainingX() << 24 | pink.getRemainingO() << 16
+                | black.getRemainingX() << 8 | black.getRemainingO();
     }
 
     // -------------------------------
     // methods for JavaFx
     // -------------------------------
     public TileState getTileState(Position pos){
-        Tile tile = board.getTile(pos);
-        return tile.getState();
+        return board.getState(pos);
     }
 
+    /**
+     * @param cell The index of the tile, {@code row * cols + col}, as listed by {@link GameChange}.
+     * @return The state of the tile.
+     */
+    public TileState getTileState(int cell){
+        return board.getState(cell);
+    }
 
 
+
+    // -------------------------------
+    // Compact state export
+    // -------------------------------
+    /**
+     * Copies the current position into a {@link CompactState} without creating any {@code Position}.
+     *
+     * @param state The destination state, it must have the same board size as this game.
+     */
+    public void copyStateTo(CompactState state) {
+        if (state.rows != getRows() || state.cols != getCols()) {
+            throw new IllegalArgumentException("State size does not match the board size.");
+        }
+        board.copyStates(state.cells);
+        Position totemXPos = board.getTotemPos(Symbol.X);
+        Position totemOPos = board.getTotemPos(Symbol.O);
+        state.totemX = state.cellOf(totemXPos.x(), totemXPos.y());
+        state.totemO = state.cellOf(totemOPos.x(), totemOPos.y());
+        state.remaining[CompactState.pawnIndex(Color.PINK, Symbol.X)] = pink.getRemainingX();
+        state.remaining[CompactState.pawnIndex(Color.PINK, Symbol.O)] = pink.getRemainingO();
+        state.remaining[CompactState.pawnIndex(Color.BLACK, Symbol.X)] = black.getRemainingX();
+        state.remaining[CompactState.pawnIndex(Color.BLACK, Symbol.O)] = black.getRemainingO();
+        state.toMove = currPlayer.getColor();
+        state.totemMoved = hasMovedTotem;
+        state.lastMovedTotem = hasMovedTotem ? lastMovedTotSym : null;
+        state.winner = getWinnerColor();
+    }
+
     // -------------------------------
     // Helper methods for testing
     // -------------------------------
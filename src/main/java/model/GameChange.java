@@ -0,0 +1,98 @@
+package model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * What changed in a game since its observers were last notified.
+ * <p>
+ * The changed tiles are indexes {@code row * cols + col}, each listed once. A tile is listed
+ * when its token was replaced, even if a later change of the same notification put the
+ * previous token back. The phase of a game is moving a totem, inserting a pawn, or over.
+ * A notification forced by {@link Game#notifyObservers()} lists every tile and every change.
+ */
+public final class GameChange {
+    private final int[] cells;
+    private final boolean playerChanged;
+    private final boolean phaseChanged;
+    private final boolean pawnsChanged;
+
+    GameChange(int[] cells, boolean playerChanged, boolean phaseChanged, boolean pawnsChanged) {
+        this.cells = cells;
+        this.playerChanged = playerChanged;
+        this.phaseChanged = phaseChanged;
+        this.pawnsChanged = pawnsChanged;
+    }
+
+    /**
+     * @return The number of changed tiles.
+     */
+    public int getChangedCellCount() {
+        return cells.length;
+    }
+
+    /**
+     * @param index The index of the changed tile, from 0 to {@link #getChangedCellCount()} excluded.
+     * @return The tile, as {@code row * cols + col}.
+     */
+    public int getChangedCell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @return {@code true} if the player to move changed.
+     */
+    public boolean isPlayerChanged() {
+        return playerChanged;
+    }
+
+    /**
+     * @return {@code true} if a totem was moved or its move undone, or if the game ended or was resumed.
+     */
+    public boolean isPhaseChanged() {
+        return phaseChanged;
+    }
+
+    /**
+     * @return {@code true} if the number of pawns left of a player changed.
+     */
+    public boolean isPawnsChanged() {
+        return pawnsChanged;
+    }
+
+    /**
+     * Combines this change with the one notified after it, for observers that handle several
+     * notifications at once.
+     *
+     * @param next The change notified after this one.
+     * @return A change listing the tiles of both, each once, and every flag set in either.
+     */
+    public GameChange merge(GameChange next) {
+        if (next.cells.length == 0 || cells.length == 0) {
+            return new GameChange(cells.length == 0 ? next.cells : cells,
+                    playerChanged || next.playerChanged, phaseChanged || next.phaseChanged,
+                    pawnsChanged || next.pawnsChanged);
+        }
+        BitSet listed = new BitSet();
+        int[] merged = Arrays.copyOf(cells, cells.length + next.cells.length);
+        for (int cell : cells) {
+            listed.set(cell);
+        }
+        int count = cells.length;
+        for (int cell : next.cells) {
+            if (!listed.get(cell)) {
+                listed.set(cell);
+                merged[count++] = cell;
+            }
+        }
+        return new GameChange(Arrays.copyOf(merged, count), playerChanged || next.playerChanged,
+                phaseChanged || next.phaseChanged, pawnsChanged || next.pawnsChanged);
+    }
+
+    /**
+     * @return {@code true} if nothing changed.
+     */
+    public boolean isEmpty() {
+        return cells.length == 0 && !playerChanged && !phaseChanged && !pawnsChanged;
+    }
+}
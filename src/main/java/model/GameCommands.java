@@ -0,0 +1,92 @@
+package model;
+
+import model.command.CommandExecutor;
+
+/**
+ * Encodes the commands of a game in a single {@code int} and replays them.
+ * <p>
+ * Bit 0 is the kind of command, bit 1 the symbol of the token, bits 2 to 16 the origin tile
+ * of a totem move (the color of the pawn for an insertion) and bits 17 to 31 the destination
+ * tile. Tiles are indexes {@code row * cols + col}, as in {@link Turn}.
+ */
+class GameCommands implements CommandExecutor {
+    static final int MOVE_TOTEM = 0;
+    static final int INSERT_PAWN = 1;
+
+    private final Game game;
+    private final int cols;
+
+    GameCommands(Game game, int cols) {
+        this.game = game;
+        this.cols = cols;
+    }
+
+    int moveTotem(Symbol symbol, Position from, Position to) {
+        return encode(MOVE_TOTEM, symbol, cellOf(from), cellOf(to));
+    }
+
+    int insertPawn(Pawn pawn, Position pos) {
+        return encode(INSERT_PAWN, pawn.getSymbol(), pawn.getColor().ordinal(), cellOf(pos));
+    }
+
+    static int kind(int command) {
+        return command & 1;
+    }
+
+    static Symbol symbol(int command) {
+        return (command & 2) == 0 ? Symbol.X : Symbol.O;
+    }
+
+    static int from(int command) {
+        return (command >>> 2) & 0x7FFF;
+    }
+
+    static int to(int command) {
+        return command >>> 17;
+    }
+
+    /**
+     * Packs the totem move and pawn insertion of a turn with {@link Turn}.
+     */
+    static int toTurn(int moveCommand, int insertCommand) {
+        return Turn.of(symbol(moveCommand), to(moveCommand), to(insertCommand));
+    }
+
+    private static int encode(int kind, Symbol symbol, int from, int to) {
+        return to << 17 | from << 2 | symbol.ordinal() << 1 | kind;
+    }
+
+    @Override
+    public void execute(int command) {
+        if (kind(command) == MOVE_TOTEM) {
+            game.moveInBoard(new Totem(symbol(command)), positionOf(to(command)));
+        } else {
+            game.insertPawnInBoard(pawnOf(command), positionOf(to(command)));
+        }
+    }
+
+    @Override
+    public void unexecute(int command) {
+        if (kind(command) == MOVE_TOTEM) {
+            game.moveInBoard(new Totem(symbol(command)), positionOf(from(command)));
+            game.setTotemMoved(false); //To allow another move
+        } else {
+            game.changePlayer(); //reverts to previous player
+            game.restorePawnToCurrentPlayer(pawnOf(command));
+            game.removeToken(positionOf(to(command)));
+            game.setTotemMoved(true);// Set hasMovedTotem to true, allowing the player to insert another pawn.
+        }
+    }
+
+    private Pawn pawnOf(int command) {
+        return new Pawn(symbol(command), Color.values()[from(command)]);
+    }
+
+    private int cellOf(Position pos) {
+        return pos.x() * cols + pos.y();
+    }
+
+    private Position positionOf(int cell) {
+        return new Position(cell / cols, cell % cols);
+    }
+}
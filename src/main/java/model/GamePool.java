@@ -0,0 +1,117 @@
+package model;
+
+import model.command.CommandManager;
+import model.strategy.ComputerStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of reusable games for simulation runners, one stack of idle games per board size.
+ * <p>
+ * {@link #acquire(int, int)} hands out a released game after {@link Game#reset()}, or a new
+ * game when none is idle, so that running games one after the other on the same pool
+ * allocates no game structure once the pool is warm. A pool is not thread-safe: use one pool
+ * per thread.
+ */
+public class GamePool {
+    private final ComputerStrategy computerStrategy;
+    private final int historyDepth;
+    private final List<Bucket> buckets;
+
+    /**
+     * Creates a pool of games without computer player and with an unlimited history.
+     */
+    public GamePool() {
+        this(null, CommandManager.UNLIMITED);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param computerStrategy The strategy of the pooled games, or {@code null} for two human players.
+     * @param historyDepth     The history depth of the pooled games, or {@link CommandManager#UNLIMITED}.
+     */
+    public GamePool(ComputerStrategy computerStrategy, int historyDepth) {
+        if (historyDepth < 0) {
+            throw new IllegalArgumentException("History depth cannot be negative.");
+        }
+        this.computerStrategy = computerStrategy;
+        this.historyDepth = historyDepth;
+        this.buckets = new ArrayList<>();
+    }
+
+    /**
+     * Gets a game in its initial position.
+     *
+     * @param rows Number of rows of the board.
+     * @param cols Number of columns of the board.
+     * @return A game without observers nor history.
+     */
+    public Game acquire(int rows, int cols) {
+        Bucket bucket = bucket(rows, cols);
+        if (bucket.size == 0) {
+            return new Game(rows, cols, computerStrategy, historyDepth);
+        }
+        Game game = bucket.games[--bucket.size];
+        bucket.games[bucket.size] = null;
+        game.reset();
+        return game;
+    }
+
+    /**
+     * Gives back a game that is no longer used. Its observers are removed.
+     *
+     * @param game A game created by this pool, which must not be attached to a journal.
+     */
+    public void release(Game game) {
+        if (game.getComputerStrategy() != computerStrategy || game.getHistoryDepth() != historyDepth) {
+            throw new IllegalArgumentException("The game was not created by this pool.");
+        }
+        if (game.getJournal() != null) {
+            throw new IllegalArgumentException("Detach the game from its journal before releasing it.");
+        }
+        game.clearObservers();
+        Bucket bucket = bucket(game.getRows(), game.getCols());
+        if (bucket.size == bucket.games.length) {
+            Game[] bigger = new Game[bucket.games.length * 2];
+            System.arraycopy(bucket.games, 0, bigger, 0, bucket.size);
+            bucket.games = bigger;
+        }
+        bucket.games[bucket.size++] = game;
+    }
+
+    /**
+     * @return The number of idle games of a board size.
+     */
+    public int getIdleCount(int rows, int cols) {
+        return bucket(rows, cols).size;
+    }
+
+    private Bucket bucket(int rows, int cols) {
+        // Simulations use few board sizes, a linear search allocates nothing
+        for (Bucket bucket : buckets) {
+            if (bucket.rows == rows && bucket.cols == cols) {
+                return bucket;
+            }
+        }
+        Bucket bucket = new Bucket(rows, cols);
+        buckets.add(bucket);
+        return bucket;
+    }
+
+    /**
+     * The idle games of one board size, as a stack.
+     */
+    private static final class Bucket {
+        final int rows;
+        final int cols;
+        Game[] games = new Game[8];
+        int size;
+
+        Bucket(int rows, int cols) {
+            this.rows = rows;
+            this.cols = cols;
+        }
+    }
+}
@@ -35,7 +35,7 @@ class GameValidator {
         validatePosition(curr, "current");
         validatePosition(newPos, "destination");
 
-        Token token = board.getTile(curr).getToken();
+        Token token = board.getToken(curr);
         validateToken(token, curr);
         validateDestination(newPos);
 
@@ -225,7 +225,7 @@ class GameValidator {
             Position pos = new Position(x, y);
 
             // Check if the tile contains a Pawn
-            if (!isTileEmpty(pos) && board.getTile(pos).getToken() instanceof Pawn pawn) {
+            if (!isTileEmpty(pos) && board.getToken(pos) instanceof Pawn pawn) {
                 // Symbol alignment
                 if (initialSymbol == null || pawn.getSymbol() == initialSymbol) {
                     initialSymbol = pawn.getSymbol();
@@ -292,7 +292,7 @@ class GameValidator {
     }
 
     private boolean isTileEmpty(Position pos) {
-        return board.getTile(pos).isEmpty();
+        return board.isEmpty(pos);
     }
 
     private List<Position> getInBoundsNeighbors(Position pos) {
@@ -0,0 +1,466 @@
+package model;
+
+import model.strategy.ComputerStrategy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only journal of the history of games, from which the games are rebuilt after the
+ * process died.
+ * <p>
+ * Every change of the history of an attached game is one 16-byte entry: the executed commands,
+ * and the undo, redo, seek, surrender and reset actions. Entries hold the game id and the kind of
+ * entry, the command or argument, the position of the history after the action, and a checksum
+ * that marks where a crash cut the journal.
+ * <p>
+ * The file is memory-mapped, so an entry survives the death of the process as soon as it is
+ * appended. A background thread forces the appended entries to the disk every
+ * {@code syncInterval} milliseconds, with one {@code fsync} for every entry appended since the
+ * previous one, whichever game or thread appended it (group commit): moves never wait for the
+ * disk, and a crash of the operating system loses at most the last interval.
+ * {@link #sync()} waits for the next group commit.
+ * <p>
+ * Games of several threads can share a journal; a game itself is still used by one thread.
+ */
+public class MoveJournal implements Closeable {
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 5;
+
+    static final int MAGIC = 0x4F584A31;
+    static final int ENTRY_SIZE = 16;
+    static final int MAX_GAMES = 1 << 24;
+
+    static final int CREATE = 1;
+    static final int COMMAND = 2;
+    static final int UNDO = 3;
+    static final int REDO = 4;
+    static final int UNDO_TURN = 5;
+    static final int REDO_TURN = 6;
+    static final int SEEK = 7;
+    static final int SURRENDER = 8;
+    static final int CLOSE = 9;
+    static final int RESET = 10;
+
+    private static final int SEGMENT_SIZE = 1 << 24;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long syncIntervalMillis;
+    private final List<Game> recoveredGames;
+    private final Thread syncer;
+
+    // Guarded by this
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private long end;
+    private long durable;
+    private long syncRequested;
+    private final List<MappedByteBuffer> fullSegments;
+    private int nextGameId;
+    private boolean closed;
+    private boolean released;
+    private IOException failure;
+
+    private MoveJournal(Path file, FileChannel channel, long syncIntervalMillis, long end, int nextGameId,
+                        Map<Integer, Game> recoveredGames) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.recoveredGames = List.copyOf(recoveredGames.values());
+        this.fullSegments = new ArrayList<>();
+        this.end = end;
+        this.durable = end;
+        this.syncRequested = end;
+        this.nextGameId = nextGameId;
+        this.segmentStart = end;
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, end, SEGMENT_SIZE);
+        recoveredGames.forEach((id, game) -> game.setJournal(this, id));
+        this.syncer = new Thread(this::syncLoop, "move-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Opens a journal with the default sync interval, see {@link #open(Path, ComputerStrategy, long)}.
+     */
+    public static MoveJournal open(Path file, ComputerStrategy computerStrategy) throws IOException {
+        return open(file, computerStrategy, DEFAULT_SYNC_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens a journal, creating the file if needed. The games of an existing journal that were
+     * not detached are rebuilt by replaying their entries, and stay attached to the journal.
+     * A torn entry at the end of the file, left by a crash, is dropped with everything after it.
+     *
+     * @param file               The journal file.
+     * @param computerStrategy   The strategy of the rebuilt games that were played against the computer.
+     * @param syncIntervalMillis The maximum time between two forces of the appended entries to the disk.
+     * @return The journal, ready to attach new games.
+     * @throws IOException if the file cannot be read or written, or holds entries that do not replay
+     */
+    public static MoveJournal open(Path file, ComputerStrategy computerStrategy, long syncIntervalMillis) throws IOException {
+        if (syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Sync interval must be positive.");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            Recovery recovery = new Recovery(computerStrategy);
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(ENTRY_SIZE);
+                header.putInt(MAGIC).putInt(0).putInt(0).putInt(checksum(MAGIC, 0, 0));
+                channel.write(header.flip(), 0);
+                recovery.end = ENTRY_SIZE;
+            } else {
+                recovery.replay(file, channel);
+                channel.truncate(recovery.end);
+            }
+            channel.force(true);
+            return new MoveJournal(file, channel, syncIntervalMillis, recovery.end, recovery.nextGameId,
+                    recovery.games);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The games rebuilt when the journal was opened, in the order they were attached.
+     */
+    public List<Game> getRecoveredGames() {
+        return recoveredGames;
+    }
+
+    /**
+     * Attaches a new game: its creation and every later change of its history are journaled.
+     *
+     * @param game A game without any history, which is not attached to a journal.
+     * @throws IllegalArgumentException if the game was already played or attached
+     */
+    public void attach(Game game) {
+        if (game.getJournal() != null) {
+            throw new IllegalArgumentException("The game is already attached to a journal.");
+        }
+        if (!game.hasEmptyHistory()) {
+            throw new IllegalArgumentException("Only a game without history can be attached.");
+        }
+        int id;
+        synchronized (this) {
+            if (nextGameId == MAX_GAMES) {
+                throw new IllegalStateException("The journal cannot hold more than " + MAX_GAMES + " games.");
+            }
+            id = nextGameId++;
+        }
+        int size = game.getRows() << 16 | game.getCols() | (game.hasComputerPlayer() ? 1 << 31 : 0);
+        append(id, CREATE, size, game.getHistoryDepth());
+        game.setJournal(this, id);
+    }
+
+    /**
+     * Stops journaling a game, typically once it is over. The game is not rebuilt when the
+     * journal is opened again.
+     *
+     * @param game A game attached to this journal.
+     */
+    public void detach(Game game) {
+        if (game.getJournal() != this) {
+            throw new IllegalArgumentException("The game is not attached to this journal.");
+        }
+        append(game.getJournalId(), CLOSE, 0, 0);
+        game.setJournal(null, 0);
+    }
+
+    /**
+     * Waits until every entry appended so far is on the disk. Calls from several threads share
+     * the same force.
+     *
+     * @throws IOException if the journal could not be forced
+     */
+    public synchronized void sync() throws IOException {
+        long target = end;
+        syncRequested = Math.max(syncRequested, target);
+        notifyAll();
+        boolean interrupted = false;
+        while (durable < target && failure == null && !released) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (durable < target) {
+            throw new IOException("Journal closed before the entries were forced: " + file);
+        }
+    }
+
+    /**
+     * @return The size of the journal, in bytes.
+     */
+    public synchronized long getSize() {
+        return end;
+    }
+
+    /**
+     * Forces the remaining entries to the disk, trims the file to its entries and closes it.
+     * The games still attached can no longer change their history.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        boolean interrupted = false;
+        while (syncer.isAlive()) {
+            try {
+                syncer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            forceAppended();
+            synchronized (this) {
+                segment = null;
+                fullSegments.clear();
+                channel.truncate(end);
+            }
+            channel.force(true);
+        } finally {
+            channel.close();
+            synchronized (this) {
+                released = true;
+                notifyAll();
+            }
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Appends an entry, called by the attached games.
+     *
+     * @throws UncheckedIOException if the journal cannot grow or failed to sync
+     */
+    synchronized void append(int gameId, int kind, int value, int extra) {
+        if (closed) {
+            throw new IllegalStateException("The journal is closed.");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("The journal failed.", failure);
+        }
+        int offset = (int) (end - segmentStart);
+        if (offset == SEGMENT_SIZE) {
+            try {
+                fullSegments.add(segment);
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, end, SEGMENT_SIZE);
+                segmentStart = end;
+                offset = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException("The journal cannot grow: " + file, e);
+            }
+        }
+        int head = kind << 24 | gameId;
+        segment.putInt(offset, head);
+        segment.putInt(offset + 4, value);
+        segment.putInt(offset + 8, extra);
+        segment.putInt(offset + 12, checksum(head, value, extra));
+        end += ENTRY_SIZE;
+    }
+
+    private void syncLoop() {
+        while (true) {
+            synchronized (this) {
+                long deadline = System.currentTimeMillis() + syncIntervalMillis;
+                long remaining;
+                while (!closed && syncRequested <= durable
+                        && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                forceAppended();
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Forces the entries appended so far, outside of the lock so that the games keep appending.
+     */
+    private void forceAppended() throws IOException {
+        List<MappedByteBuffer> full;
+        MappedByteBuffer current;
+        long from;
+        long to;
+        long currentStart;
+        synchronized (this) {
+            if (end == durable || segment == null) {
+                return;
+            }
+            full = fullSegments.isEmpty() ? List.of() : new ArrayList<>(fullSegments);
+            fullSegments.clear();
+            current = segment;
+            currentStart = segmentStart;
+            from = Math.max(durable, segmentStart);
+            to = end;
+        }
+        try {
+            for (MappedByteBuffer buffer : full) {
+                buffer.force();
+            }
+            current.force((int) (from - currentStart), (int) (to - from));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        synchronized (this) {
+            durable = to;
+            notifyAll();
+        }
+    }
+
+    // -------------------------------
+    // Recovery
+    // -------------------------------
+
+    /**
+     * Rebuilds the games of a journal by replaying its entries.
+     */
+    private static final class Recovery {
+        final ComputerStrategy computerStrategy;
+        final Map<Integer, Game> games = new TreeMap<>();
+        long end;
+        int nextGameId;
+
+        Recovery(ComputerStrategy computerStrategy) {
+            this.computerStrategy = computerStrategy;
+        }
+
+        /**
+         * Replays the entries up to the first torn one, whose offset becomes {@link #end}.
+         */
+        void replay(Path file, FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            buffer.limit(0);
+            channel.position(0);
+            long entry = 0;
+            while (true) {
+                if (buffer.remaining() < ENTRY_SIZE) {
+                    buffer.compact();
+                    while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                        // Fills the buffer up to the end of the file
+                    }
+                    buffer.flip();
+                    if (buffer.remaining() < ENTRY_SIZE) {
+                        break;
+                    }
+                }
+                int head = buffer.getInt();
+                int value = buffer.getInt();
+                int extra = buffer.getInt();
+                if (buffer.getInt() != checksum(head, value, extra)) {
+                    break;
+                }
+                if (end == 0) {
+                    if (head != MAGIC) {
+                        throw new IOException("Not a move journal: " + file);
+                    }
+                } else {
+                    int gameId = head & (MAX_GAMES - 1);
+                    nextGameId = Math.max(nextGameId, gameId + 1);
+                    try {
+                        replayEntry(head >>> 24, gameId, value, extra);
+                    } catch (RuntimeException e) {
+                        throw new IOException("Corrupt journal entry " + entry + " of game " + gameId + ": "
+                                + e.getMessage(), e);
+                    }
+                    entry++;
+                }
+                end += ENTRY_SIZE;
+            }
+            if (end == 0) {
+                throw new IOException("Not a move journal: " + file);
+            }
+        }
+
+        private void replayEntry(int kind, int gameId, int value, int extra) {
+            if (kind == CREATE) {
+                if (games.containsKey(gameId)) {
+                    throw new IllegalStateException("the game is created twice");
+                }
+                int rows = (value >>> 16) & 0x7FFF;
+                int cols = value & 0xFFFF;
+                games.put(gameId, new Game(rows, cols, value < 0 ? computerStrategy : null, extra));
+                return;
+            }
+            Game game = games.get(gameId);
+            if (game == null) {
+                throw new IllegalStateException("the game was not created");
+            }
+            switch (kind) {
+                case COMMAND -> game.replayCommand(value);
+                case UNDO -> game.undo();
+                case REDO -> game.redo();
+                case UNDO_TURN -> game.undoTurn();
+                case REDO_TURN -> game.redoTurn();
+                case SEEK -> game.seekToPly(value);
+                case SURRENDER -> game.surrender();
+                case RESET -> game.reset();
+                case CLOSE -> {
+                    games.remove(gameId);
+                    return;
+                }
+                default -> throw new IllegalStateException("unknown entry kind " + kind);
+            }
+            if (game.getHistoryPosition() != extra) {
+                throw new IllegalStateException("the history is at " + game.getHistoryPosition()
+                        + " instead of " + extra);
+            }
+        }
+    }
+
+    static int checksum(int head, int value, int extra) {
+        int h = head * 0x9E3779B1;
+        h = Integer.rotateLeft(h ^ value, 13) * 0x85EBCA6B;
+        h = Integer.rotateLeft(h ^ extra, 15) * 0xC2B2AE35;
+        return h ^ (h >>> 16) ^ 0x5BD1E995;
+    }
+}
@@ -13,6 +13,19 @@ class Player {
         this.remainingO = 8;
     }
 
+    void reset() {
+        remainingX = 8;
+        remainingO = 8;
+        chosenTotem = null;
+    }
+
+    Player(Player source) {
+        this.color = source.color;
+        this.remainingX = source.remainingX;
+        this.remainingO = source.remainingO;
+        this.chosenTotem = source.chosenTotem;
+    }
+
     void decreasePawn(Pawn pawn) {
         if (pawn.getSymbol() == Symbol.O) {
             if (remainingO > 0) {
@@ -57,6 +70,11 @@ class Player {
         this.chosenTotem = symbol;
     }
 
+    void setRemaining(int x, int o){
+        remainingX = x;
+        remainingO = o;
+    }
+
     void setXtoZero(){
         remainingX = 0;
     }
@@ -0,0 +1,207 @@
+package model;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-length binary form of a {@link CompactState}, read and written directly in a {@link ByteBuffer}.
+ * <p>
+ * An encoded state is, in the buffer's byte order:
+ * <ul>
+ *     <li>the number of rows and of columns, as two {@code short};</li>
+ *     <li>a flags byte: the player to move (bit 0, set for black), the totem-moved flag (bit 1),
+ *     the last moved totem (bits 2 and 3: none, X or O) and the winner (bits 4 and 5: none,
+ *     black or pink);</li>
+ *     <li>the pawns left, one byte each: black X, black O, pink X, pink O;</li>
+ *     <li>the {@link TileState} ordinal of every tile in 3 bits, row by row, packed from the
+ *     low bits of each byte and padded with zeros to a whole byte.</li>
+ * </ul>
+ * The totems are stored among the tiles, only their positions are not: they are found again on
+ * the board when decoding. A 6x6 position takes {@code 9 + 14 = 23} bytes. Heap, direct and
+ * memory-mapped buffers are all supported, and encoding or decoding allocates nothing.
+ */
+public final class StateCodec {
+    static final int HEADER_SIZE = 9;
+
+    private static final int BITS_PER_TILE = 3;
+    private static final int TILE_MASK = (1 << BITS_PER_TILE) - 1;
+    private static final Symbol[] SYMBOLS = Symbol.values();
+    private static final Color[] COLORS = Color.values();
+
+    private StateCodec() {
+    }
+
+    /**
+     * @param rows Number of rows of the board.
+     * @param cols Number of columns of the board.
+     * @return The number of bytes of an encoded state of this board size.
+     */
+    public static int encodedSize(int rows, int cols) {
+        return HEADER_SIZE + (rows * cols * BITS_PER_TILE + 7) / 8;
+    }
+
+    /**
+     * Writes a state at the position of a buffer and moves the position past it.
+     *
+     * @param state  The state to encode.
+     * @param buffer The destination, with at least {@link #encodedSize(int, int)} bytes remaining.
+     * @throws BufferOverflowException if the buffer is too small, nothing is written then
+     */
+    public static void encode(CompactState state, ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < encodedSize(state.rows, state.cols)) {
+            throw new BufferOverflowException();
+        }
+        encode(state, buffer, start);
+        buffer.position(start + encodedSize(state.rows, state.cols));
+    }
+
+    /**
+     * Writes a state at a given index of a buffer, without changing its position.
+     *
+     * @param state  The state to encode.
+     * @param buffer The destination.
+     * @param index  The index of the first byte of the encoded state.
+     * @throws IndexOutOfBoundsException if the encoded state does not fit in the buffer
+     */
+    public static void encode(CompactState state, ByteBuffer buffer, int index) {
+        int size = encodedSize(state.rows, state.cols);
+        if (index < 0 || index > buffer.limit() - size) {
+            throw new IndexOutOfBoundsException("No room for " + size + " bytes at " + index + ".");
+        }
+        buffer.putShort(index, (short) state.rows);
+        buffer.putShort(index + 2, (short) state.cols);
+        buffer.put(index + 4, flags(state));
+        for (int i = 0; i < state.remaining.length; i++) {
+            buffer.put(index + 5 + i, (byte) state.remaining[i]);
+        }
+
+        byte[] cells = state.cells;
+        int out = index + HEADER_SIZE;
+        int bits = 0;
+        int pending = 0;
+        for (byte cell : cells) {
+            bits |= cell << pending;
+            pending += BITS_PER_TILE;
+            if (pending >= 8) {
+                buffer.put(out++, (byte) bits);
+                bits >>>= 8;
+                pending -= 8;
+            }
+        }
+        if (pending > 0) {
+            buffer.put(out, (byte) bits);
+        }
+    }
+
+    /**
+     * Reads a state at the position of a buffer and moves the position past it.
+     *
+     * @param buffer The source.
+     * @param state  The destination state, it must have the board size of the encoded state.
+     * @throws IllegalArgumentException if the encoded state is malformed or has another board size
+     * @throws BufferUnderflowException if the buffer ends before the encoded state
+     */
+    public static void decode(ByteBuffer buffer, CompactState state) {
+        int start = buffer.position();
+        if (buffer.remaining() < encodedSize(state.rows, state.cols)) {
+            throw new BufferUnderflowException();
+        }
+        decode(buffer, start, state);
+        buffer.position(start + encodedSize(state.rows, state.cols));
+    }
+
+    /**
+     * Reads a state at a given index of a buffer, without changing its position.
+     *
+     * @param buffer The source.
+     * @param index  The index of the first byte of the encoded state.
+     * @param state  The destination state, it must have the board size of the encoded state.
+     * @throws IllegalArgumentException if the encoded state is malformed or has another board size
+     * @throws IndexOutOfBoundsException if the buffer ends before the encoded state
+     */
+    public static void decode(ByteBuffer buffer, int index, CompactState state) {
+        if (index < 0 || index > buffer.limit() - HEADER_SIZE) {
+            throw new IndexOutOfBoundsException("No state header to read at " + index + ".");
+        }
+        if (buffer.getShort(index) != state.rows || buffer.getShort(index + 2) != state.cols) {
+            throw new IllegalArgumentException("Encoded board size " + buffer.getShort(index) + "x"
+                    + buffer.getShort(index + 2) + " does not match the state size.");
+        }
+        int size = encodedSize(state.rows, state.cols);
+        if (index > buffer.limit() - size) {
+            throw new IndexOutOfBoundsException("No " + size + " bytes to read at " + index + ".");
+        }
+        int flags = buffer.get(index + 4);
+        if ((flags & ~0x3F) != 0 || (flags >>> 2 & 3) == 3 || (flags >>> 4 & 3) == 3) {
+            throw new IllegalArgumentException("Malformed state flags " + flags + ".");
+        }
+
+        // The tiles are checked before any is written, so a rejected input leaves the state unchanged
+        int in = index + HEADER_SIZE;
+        int bits = 0;
+        int pending = 0;
+        int totemX = -1;
+        int totemO = -1;
+        for (int cell = 0; cell < state.cells.length; cell++) {
+            if (pending < BITS_PER_TILE) {
+                bits |= (buffer.get(in++) & 0xFF) << pending;
+                pending += 8;
+            }
+            int tile = bits & TILE_MASK;
+            bits >>>= BITS_PER_TILE;
+            pending -= BITS_PER_TILE;
+            if (tile > CompactState.BLACK_O) {
+                throw new IllegalArgumentException("Malformed tile state " + tile + " at tile " + cell + ".");
+            }
+            if (tile == CompactState.TOTEM_X) {
+                totemX = cell;
+            } else if (tile == CompactState.TOTEM_O) {
+                totemO = cell;
+            }
+        }
+        if (totemX < 0 || totemO < 0) {
+            throw new IllegalArgumentException("The encoded board does not hold both totems.");
+        }
+
+        byte[] cells = state.cells;
+        in = index + HEADER_SIZE;
+        bits = 0;
+        pending = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (pending < BITS_PER_TILE) {
+                bits |= (buffer.get(in++) & 0xFF) << pending;
+                pending += 8;
+            }
+            cells[cell] = (byte) (bits & TILE_MASK);
+            bits >>>= BITS_PER_TILE;
+            pending -= BITS_PER_TILE;
+        }
+        state.totemX = totemX;
+        state.totemO = totemO;
+        for (int i = 0; i < state.remaining.length; i++) {
+            state.remaining[i] = buffer.get(index + 5 + i) & 0xFF;
+        }
+        state.toMove = (flags & 1) == 0 ? Color.PINK : Color.BLACK;
+        state.totemMoved = (flags & 2) != 0;
+        int lastMoved = flags >>> 2 & 3;
+        state.lastMovedTotem = lastMoved == 0 ? null : SYMBOLS[lastMoved - 1];
+        int winner = flags >>> 4 & 3;
+        state.winner = winner == 0 ? null : COLORS[winner - 1];
+    }
+
+    private static byte flags(CompactState state) {
+        int flags = state.toMove == Color.BLACK ? 1 : 0;
+        if (state.totemMoved) {
+            flags |= 2;
+        }
+        if (state.lastMovedTotem != null) {
+            flags |= (state.lastMovedTotem.ordinal() + 1) << 2;
+        }
+        if (state.winner != null) {
+            flags |= (state.winner.ordinal() + 1) << 4;
+        }
+        return (byte) flags;
+    }
+}
@@ -1,17 +1,14 @@
 package model;
 
-class Tile {
-    private Token token;
-
-    public boolean isEmpty() {
-        return token == null;
-    }
-
-    void setToken(Token token) {
-        this.token = token;
+/**
+ * The state and console color of a board tile, given by the token it holds.
+ * Tiles are stored by the {@link Board} as their tokens, {@code null} for an empty tile.
+ */
+final class Tile {
+    private Tile() {
     }
 
-    TileState getState(){
+    static TileState getState(Token token){
         if (token == null){
             return TileState.EMPTY;
         } else if (token instanceof Totem) {
@@ -25,28 +22,16 @@ class Tile {
         throw new IllegalStateException("unexpected token type in tile");
     }
 
-    //TODO: should use the getState() method
-    String getColor() {
-        if (token == null) {
-            return "\033[48;2;40;40;40m"; // dark gray background
-        }
-        if (token instanceof Totem) {
-            return "\033[1;104;30m"; // Light blue background with bold black text
-        }
-        if (token instanceof Pawn pawn) {
-            return switch (pawn.getColor()){
-                case Color.PINK -> "\033[1;105;30m"; //Pink background with bold black text
-                case Color.BLACK -> "\033[48;2;0;0;0m\033[38;2;255;255;255m"; // black background with bold white text
-            };
-        }
-        return "\033[0m"; // reset
-    }
-
-    void removeToken() {
-        this.token = null;
+    static String getColor(Token token) {
+        return getColor(getState(token));
     }
 
-    Token getToken() {
-        return token;
+    static String getColor(TileState state) {
+        return switch (state) {
+            case EMPTY -> "\033[48;2;40;40;40m"; // dark gray background
+            case TOTEM_X, TOTEM_O -> "\033[1;104;30m"; // Light blue background with bold black text
+            case PINK_X, PINK_O -> "\033[1;105;30m"; //Pink background with bold black text
+            case BLACK_X, BLACK_O -> "\033[48;2;0;0;0m\033[38;2;255;255;255m"; // black background with bold white text
+        };
     }
 }
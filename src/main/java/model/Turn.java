@@ -0,0 +1,81 @@
+package model;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers for full turns packed in a single {@code int}.
+ * <p>
+ * A turn is the symbol of the moved totem (bit 0), the destination tile of the totem
+ * (bits 1 to 15) and the tile where the pawn is inserted (bits 16 to 30). Tiles are
+ * indexes {@code row * cols + col}, which supports boards of up to 32768 tiles.
+ */
+public final class Turn {
+    public static final int NONE = -1;
+    public static final int MAX_CELLS = 1 << 15;
+
+    private static final Pattern TURN_PATTERN =
+            Pattern.compile("^move\\s+([xo])\\s+(\\d{1,6})\\s*;\\s*insert\\s+(\\d{1,6})$");
+
+    private Turn() {
+    }
+
+    /**
+     * Packs a turn.
+     *
+     * @param symbol    The symbol of the moved totem and inserted pawn.
+     * @param totemCell The destination tile of the totem.
+     * @param pawnCell  The tile where the pawn is inserted.
+     * @return The packed turn.
+     */
+    public static int of(Symbol symbol, int totemCell, int pawnCell) {
+        return pawnCell << 16 | totemCell << 1 | symbol.ordinal();
+    }
+
+    public static Symbol symbol(int turn) {
+        return (turn & 1) == 0 ? Symbol.X : Symbol.O;
+    }
+
+    public static int totemCell(int turn) {
+        return (turn >>> 1) & 0x7FFF;
+    }
+
+    public static int pawnCell(int turn) {
+        return turn >>> 16;
+    }
+
+    /**
+     * Formats a turn with the console commands, using 1-based tile numbers.
+     *
+     * @param turn The packed turn.
+     * @return The turn as e.g. {@code "move x 12; insert 13"}.
+     */
+    public static String toString(int turn) {
+        if (turn == NONE) {
+            return "none";
+        }
+        return "move " + symbol(turn).toString().toLowerCase() + " " + (totemCell(turn) + 1)
+                + "; insert " + (pawnCell(turn) + 1);
+    }
+
+    /**
+     * Parses a turn written as by {@link #toString(int)}.
+     *
+     * @param text The turn, e.g. {@code "move x 12; insert 13"}.
+     * @return The packed turn.
+     * @throws OxonoException if the text is not a turn
+     */
+    public static int parse(String text) {
+        Matcher matcher = TURN_PATTERN.matcher(text.trim().toLowerCase());
+        if (!matcher.matches()) {
+            throw new OxonoException("Invalid turn: " + text);
+        }
+        Symbol symbol = matcher.group(1).equals("x") ? Symbol.X : Symbol.O;
+        int totemTile = Integer.parseInt(matcher.group(2));
+        int pawnTile = Integer.parseInt(matcher.group(3));
+        if (totemTile < 1 || pawnTile < 1 || totemTile > MAX_CELLS || pawnTile > MAX_CELLS) {
+            throw new OxonoException("Invalid tile number in turn: " + text);
+        }
+        return of(symbol, totemTile - 1, pawnTile - 1);
+    }
+}
@@ -0,0 +1,97 @@
+package model.analysis;
+
+import model.CompactState;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs a {@link MoveAnalyzer} on a background thread.
+ * <p>
+ * Starting an analysis cancels the previous one: each analysis gets a generation number and
+ * stops at its next node once a newer generation exists, so a position change is picked up
+ * immediately. A frame produced just before a cancellation can still reach the sink after it:
+ * each frame carries its generation, and the consumer drops it at delivery unless
+ * {@link #isCurrent(long)} holds, on the thread that starts and cancels the analyses.
+ */
+public class AnalysisService {
+    private final ExecutorService executor;
+    private final MoveAnalyzer analyzer = new MoveAnalyzer();
+    private final AtomicLong generation = new AtomicLong();
+    private final int maxDepth;
+
+    public AnalysisService() {
+        this(MoveAnalyzer.DEFAULT_DEPTH);
+    }
+
+    /**
+     * Creates a service with its own daemon thread.
+     *
+     * @param maxDepth The maximum search depth in turns.
+     */
+    public AnalysisService(int maxDepth) {
+        this.maxDepth = maxDepth;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "oxono-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A frame of an analysis.
+     *
+     * @param generation The generation of the analysis, see {@link #isCurrent(long)}.
+     * @param frame      The frame.
+     */
+    public record Result(long generation, MoveAnalyzer.Frame frame) {
+    }
+
+    /**
+     * Starts analysing a position, cancelling the current analysis.
+     *
+     * @param position The position, it is copied before returning.
+     * @param sink     Receives the frames on the analysis thread.
+     * @return The generation of the analysis.
+     */
+    public long start(CompactState position, Consumer<Result> sink) {
+        long id = generation.incrementAndGet();
+        CompactState copy = position.copy();
+        executor.execute(() -> {
+            if (generation.get() != id) {
+                return;
+            }
+            analyzer.analyze(copy, maxDepth, () -> generation.get() != id, frame -> {
+                if (generation.get() == id) {
+                    sink.accept(new Result(id, frame));
+                }
+            });
+        });
+        return id;
+    }
+
+    /**
+     * @param generation The generation of an analysis.
+     * @return {@code true} if the analysis was neither cancelled nor replaced.
+     */
+    public boolean isCurrent(long generation) {
+        return this.generation.get() == generation;
+    }
+
+    /**
+     * Cancels the current analysis, if any.
+     */
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Cancels the current analysis and stops the background thread.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
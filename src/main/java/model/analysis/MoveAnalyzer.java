@@ -0,0 +1,221 @@
+package model.analysis;
+
+import model.Color;
+import model.CompactState;
+import model.Turn;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Scores every candidate turn of a position with an iterative-deepening alpha-beta search.
+ * <p>
+ * The scores are folded per tile: a totem destination gets the best score of the turns moving
+ * the totem there, an insertion tile the best score of the turns inserting there. A frame is
+ * published after each root turn, so partial results stream out while the search deepens.
+ * Scores are normalized between 0 (lost) and 1 (won), {@code NaN} marking tiles that are not
+ * candidates.
+ * <p>
+ * An analyzer instance reuses its buffers and is not thread safe.
+ */
+public class MoveAnalyzer {
+    public static final int DEFAULT_DEPTH = 3;
+
+    private static final int WIN = 1_000_000;
+    private static final int[] WINDOW_WEIGHTS = {0, 1, 4, 16, 0};
+
+    /**
+     * Snapshot of the scores of the candidate tiles.
+     *
+     * @param depth       The search depth in turns of the scores being computed.
+     * @param complete    {@code true} when every root turn was searched at this depth.
+     * @param totemScores The score of each tile as a totem destination.
+     * @param pawnScores  The score of each tile as a pawn insertion.
+     */
+    public record Frame(int depth, boolean complete, double[] totemScores, double[] pawnScores) {
+    }
+
+    private CompactState[] stack;
+    private int[][] turns;
+    private int[] rootScores;
+    private BooleanSupplier cancelled;
+
+    /**
+     * Analyses a position until the maximum depth is reached or the analysis is cancelled.
+     *
+     * @param position  The position to analyse, it is not modified.
+     * @param maxDepth  The maximum depth in turns.
+     * @param cancelled Checked at every node, the analysis stops as soon as it returns {@code true}.
+     * @param sink      Receives the frames, on the calling thread.
+     */
+    public void analyze(CompactState position, int maxDepth, BooleanSupplier cancelled, Consumer<Frame> sink) {
+        prepare(position, maxDepth);
+        this.cancelled = cancelled;
+        CompactState root = stack[0];
+        int[] rootTurns = turns[0];
+        int count = root.legalTurns(rootTurns);
+        if (count == 0) {
+            return;
+        }
+        CompactState child = stack[1];
+        Arrays.fill(rootScores, 0, count, 0);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            for (int i = 0; i < count; i++) {
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
+                child.copyFrom(root);
+                if (child.playTurn(rootTurns[i])) {
+                    rootScores[i] = WIN + depth;
+                } else {
+                    rootScores[i] = -negamax(1, depth - 1, -WIN - maxDepth - 1, WIN + maxDepth + 1);
+                }
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
+                sink.accept(buildFrame(depth, i == count - 1, count));
+            }
+        }
+    }
+
+    private void prepare(CompactState position, int maxDepth) {
+        int plies = maxDepth + 2;
+        if (stack == null || stack.length < plies
+                || stack[0].getRows() != position.getRows() || stack[0].getCols() != position.getCols()) {
+            stack = new CompactState[plies];
+            turns = new int[plies][];
+            for (int i = 0; i < plies; i++) {
+                stack[i] = new CompactState(position.getRows(), position.getCols());
+                turns[i] = new int[position.maxTurns()];
+            }
+            rootScores = new int[position.maxTurns()];
+        }
+        stack[0].copyFrom(position);
+    }
+
+    private int negamax(int ply, int depth, int alpha, int beta) {
+        CompactState state = stack[ply];
+        if (state.getWinner() != null) {
+            return -WIN - depth;
+        }
+        if (state.isDraw()) {
+            return 0;
+        }
+        if (state.findWinningTurn() != Turn.NONE) {
+            return WIN + depth;
+        }
+        if (depth == 0) {
+            return evaluate(state);
+        }
+        int count = state.legalTurns(turns[ply]);
+        if (count == 0) {
+            return 0;
+        }
+        CompactState child = stack[ply + 1];
+        int best = -WIN - depth - 1;
+        for (int i = 0; i < count && !cancelled.getAsBoolean(); i++) {
+            child.copyFrom(state);
+            child.playTurn(turns[ply][i]);
+            int score = -negamax(ply + 1, depth - 1, -beta, -alpha);
+            if (score > best) {
+                best = score;
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Static evaluation for the player to move: every window of four tiles that can still be
+     * completed scores for the color it can align, and symbol windows score for the player
+     * who moves first.
+     */
+    private int evaluate(CompactState state) {
+        int rows = state.getRows();
+        int cols = state.getCols();
+        Color me = state.getToMove();
+        int score = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int cell = state.cellOf(row, col);
+                if (col + 4 <= cols) {
+                    score += scoreWindow(state, cell, 1, me);
+                }
+                if (row + 4 <= rows) {
+                    score += scoreWindow(state, cell, cols, me);
+                }
+            }
+        }
+        return score;
+    }
+
+    private int scoreWindow(CompactState state, int start, int step, Color me) {
+        int pink = 0;
+        int black = 0;
+        int x = 0;
+        int o = 0;
+        for (int i = 0, cell = start; i < 4; i++, cell += step) {
+            switch (state.getTileState(cell)) {
+                case EMPTY -> { }
+                case TOTEM_X, TOTEM_O -> {
+                    return 0;
+                }
+                case PINK_X -> { pink++; x++; }
+                case PINK_O -> { pink++; o++; }
+                case BLACK_X -> { black++; x++; }
+                case BLACK_O -> { black++; o++; }
+            }
+        }
+        int score = 0;
+        if (black == 0) {
+            score += (me == Color.PINK ? 2 : -2) * WINDOW_WEIGHTS[pink];
+        }
+        if (pink == 0) {
+            score += (me == Color.BLACK ? 2 : -2) * WINDOW_WEIGHTS[black];
+        }
+        if (o == 0) {
+            score += WINDOW_WEIGHTS[x];
+        }
+        if (x == 0) {
+            score += WINDOW_WEIGHTS[o];
+        }
+        return score;
+    }
+
+    private Frame buildFrame(int depth, boolean complete, int count) {
+        int cells = stack[0].getCellCount();
+        double[] totemScores = new double[cells];
+        double[] pawnScores = new double[cells];
+        Arrays.fill(totemScores, Double.NaN);
+        Arrays.fill(pawnScores, Double.NaN);
+        int[] rootTurns = turns[0];
+        for (int i = 0; i < count; i++) {
+            double score = normalize(rootScores[i]);
+            int totemCell = Turn.totemCell(rootTurns[i]);
+            int pawnCell = Turn.pawnCell(rootTurns[i]);
+            if (Double.isNaN(totemScores[totemCell]) || score > totemScores[totemCell]) {
+                totemScores[totemCell] = score;
+            }
+            if (Double.isNaN(pawnScores[pawnCell]) || score > pawnScores[pawnCell]) {
+                pawnScores[pawnCell] = score;
+            }
+        }
+        return new Frame(depth, complete, totemScores, pawnScores);
+    }
+
+    private static double normalize(int score) {
+        if (score >= WIN) {
+            return 1;
+        }
+        if (score <= -WIN) {
+            return 0;
+        }
+        return 0.5 + 0.45 * Math.tanh(score / 40.0);
+    }
+}
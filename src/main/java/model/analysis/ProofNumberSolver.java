@@ -0,0 +1,369 @@
+package model.analysis;
+
+import model.BoardSymmetry;
+import model.Color;
+import model.CompactState;
+import model.Turn;
+
+import java.util.Arrays;
+
+/**
+ * Depth-first proof-number (df-pn) solver giving the proven value of a position.
+ * <p>
+ * A proof search answers "can this player force a win?", a draw being a failure for it.
+ * The solver first tries to prove a win for the player to move and then a win for its opponent:
+ * the position is a draw when both are disproved. Positions are stored in a fixed-size
+ * transposition table keyed by their canonical {@link BoardSymmetry} key, so the memory used
+ * does not grow with the search. The game cannot loop since every turn inserts a pawn.
+ * <p>
+ * A solver instance reuses its buffers and is not thread safe.
+ */
+public class ProofNumberSolver {
+    public static final int DEFAULT_TABLE_BITS = 20;
+    public static final long DEFAULT_NODE_LIMIT = 2_000_000;
+
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    /**
+     * Value of a position for the player to move.
+     */
+    public enum Value {
+        WIN, LOSS, DRAW, UNKNOWN
+    }
+
+    /**
+     * Result of a solve.
+     *
+     * @param value The proven value for the player to move.
+     * @param line  The turns of the proving line, packed with {@link Turn}, empty for a draw or unknown value.
+     * @param nodes The number of searched positions.
+     */
+    public record Result(Value value, int[] line, long nodes) {
+    }
+
+    private final long nodeLimit;
+    private final int tableMask;
+    private final long[] tableKeys;
+    private final int[] tableProofs;
+    private final int[] tableDisproofs;
+    private final long[] tableWork;
+
+    private BoardSymmetry symmetry;
+    private CompactState[] stack;
+    private long[] stackKeys;
+    private int[][] turns;
+    private long[][] childKeys;
+    private int[][] childProofs;
+    private int[][] childDisproofs;
+
+    private Color attacker;
+    private long nodes;
+    private boolean aborted;
+    private int lastProof;
+    private int lastDisproof;
+
+    public ProofNumberSolver() {
+        this(DEFAULT_TABLE_BITS, DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param tableBits Log2 of the number of transposition table entries (about 24 bytes each).
+     * @param nodeLimit Maximum number of positions searched by a solve.
+     */
+    public ProofNumberSolver(int tableBits, long nodeLimit) {
+        if (tableBits < 4 || tableBits > 28) {
+            throw new IllegalArgumentException("Table bits must be between 4 and 28.");
+        }
+        int size = 1 << tableBits;
+        this.tableMask = size - 1;
+        this.tableKeys = new long[size];
+        this.tableProofs = new int[size];
+        this.tableDisproofs = new int[size];
+        this.tableWork = new long[size];
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Solves a position.
+     *
+     * @param position The position to solve, it is not modified.
+     * @return The proven value for the player to move, with a proving line.
+     */
+    public Result solve(CompactState position) {
+        prepare(position);
+        Color mover = position.getToMove();
+
+        boolean winProved = prove(mover);
+        if (winProved) {
+            return new Result(Value.WIN, extractLine(), nodes);
+        }
+        boolean winDisproved = !aborted;
+
+        boolean lossProved = prove(CompactState.opponent(mover));
+        if (lossProved) {
+            return new Result(Value.LOSS, extractLine(), nodes);
+        }
+        if (winDisproved && !aborted) {
+            return new Result(Value.DRAW, new int[0], nodes);
+        }
+        return new Result(Value.UNKNOWN, new int[0], nodes);
+    }
+
+    private void prepare(CompactState position) {
+        int rows = position.getRows();
+        int cols = position.getCols();
+        if (stack == null || stack[0].getRows() != rows || stack[0].getCols() != cols) {
+            symmetry = BoardSymmetry.of(rows, cols);
+            int plies = position.getCellCount() + 2;
+            int maxTurns = position.maxTurns();
+            stack = new CompactState[plies];
+            stackKeys = new long[plies];
+            turns = new int[plies][];
+            childKeys = new long[plies][];
+            childProofs = new int[plies][];
+            childDisproofs = new int[plies][];
+            for (int i = 0; i < plies; i++) {
+                stack[i] = new CompactState(rows, cols);
+                turns[i] = new int[maxTurns];
+                childKeys[i] = new long[maxTurns];
+                childProofs[i] = new int[maxTurns];
+                childDisproofs[i] = new int[maxTurns];
+            }
+        }
+        stack[0].copyFrom(position);
+        stackKeys[0] = symmetry.canonicalKey(position);
+        nodes = 0;
+    }
+
+    /**
+     * Runs df-pn from the root for one attacker.
+     *
+     * @return {@code true} if the attacker is proven to win.
+     */
+    private boolean prove(Color player) {
+        attacker = player;
+        aborted = false;
+        clearTable();
+        mid(0, INF, INF);
+        return !aborted && lastProof == 0;
+    }
+
+    // -------------------------------
+    // df-pn
+    // -------------------------------
+
+    private void mid(int ply, int proofThreshold, int disproofThreshold) {
+        CompactState state = stack[ply];
+        long key = stackKeys[ply];
+        if (++nodes > nodeLimit) {
+            aborted = true;
+            setLast(1, 1);
+            return;
+        }
+        if (evaluate(state)) {
+            store(key, lastProof, lastDisproof, 1);
+            return;
+        }
+        boolean orNode = state.getToMove() == attacker;
+        int[] nodeTurns = turns[ply];
+        long[] keys = childKeys[ply];
+        int[] proofs = childProofs[ply];
+        int[] disproofs = childDisproofs[ply];
+        CompactState child = stack[ply + 1];
+
+        int count = state.legalTurns(nodeTurns);
+        if (count == 0) {
+            // A player stuck without a legal turn ends the game like a draw.
+            setLast(INF, 0);
+            store(key, lastProof, lastDisproof, 1);
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(state);
+            child.playTurn(nodeTurns[i]);
+            keys[i] = symmetry.canonicalKey(child);
+            int index = lookup(keys[i]);
+            if (index >= 0) {
+                proofs[i] = tableProofs[index];
+                disproofs[i] = tableDisproofs[index];
+            } else {
+                if (!evaluate(child)) {
+                    setLast(1, 1);
+                }
+                proofs[i] = lastProof;
+                disproofs[i] = lastDisproof;
+            }
+        }
+
+        long startNodes = nodes;
+        int proof;
+        int disproof;
+        while (true) {
+            int best = 0;
+            int second = INF;
+            int min = INF;
+            int sum = 0;
+            for (int i = 0; i < count; i++) {
+                int minValue = orNode ? proofs[i] : disproofs[i];
+                int sumValue = orNode ? disproofs[i] : proofs[i];
+                sum = Math.min(INF, sum + sumValue);
+                if (minValue < min) {
+                    second = min;
+                    min = minValue;
+                    best = i;
+                } else if (minValue < second) {
+                    second = minValue;
+                }
+            }
+            proof = orNode ? min : sum;
+            disproof = orNode ? sum : min;
+            if (proof >= proofThreshold || disproof >= disproofThreshold || aborted) {
+                break;
+            }
+
+            int childProofThreshold;
+            int childDisproofThreshold;
+            if (orNode) {
+                childProofThreshold = Math.min(proofThreshold, second + 1);
+                childDisproofThreshold = clamp((long) disproofThreshold - disproof + disproofs[best]);
+            } else {
+                childProofThreshold = clamp((long) proofThreshold - proof + proofs[best]);
+                childDisproofThreshold = Math.min(disproofThreshold, second + 1);
+            }
+            child.copyFrom(state);
+            child.playTurn(nodeTurns[best]);
+            stackKeys[ply + 1] = keys[best];
+            mid(ply + 1, childProofThreshold, childDisproofThreshold);
+            proofs[best] = lastProof;
+            disproofs[best] = lastDisproof;
+        }
+        store(key, proof, disproof, nodes - startNodes);
+        setLast(proof, disproof);
+    }
+
+    /**
+     * Evaluates the positions whose value is known without expanding them.
+     *
+     * @return {@code true} if the value is known, it is then left in {@code lastProof} and {@code lastDisproof}.
+     */
+    private boolean evaluate(CompactState state) {
+        Color winner = state.getWinner();
+        if (winner != null) {
+            return winner == attacker ? setLast(0, INF) : setLast(INF, 0);
+        }
+        if (state.isDraw()) {
+            return setLast(INF, 0);
+        }
+        if (state.findWinningTurn() != Turn.NONE) {
+            return state.getToMove() == attacker ? setLast(0, INF) : setLast(INF, 0);
+        }
+        return false;
+    }
+
+    private boolean setLast(int proof, int disproof) {
+        lastProof = proof;
+        lastDisproof = disproof;
+        return true;
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(0, Math.min(INF, value));
+    }
+
+    // -------------------------------
+    // Proving line
+    // -------------------------------
+
+    private int[] extractLine() {
+        int[] line = new int[stack.length];
+        int length = 0;
+        CompactState state = stack[0].copy();
+        CompactState child = new CompactState(state.getRows(), state.getCols());
+        int[] nodeTurns = new int[state.maxTurns()];
+        while (!state.isGameOver() && length < line.length) {
+            int winning = state.findWinningTurn();
+            if (winning != Turn.NONE) {
+                if (state.getToMove() == attacker) {
+                    line[length++] = winning;
+                    break;
+                }
+            }
+            int count = state.legalTurns(nodeTurns);
+            int chosen = Turn.NONE;
+            long chosenWork = -1;
+            for (int i = 0; i < count; i++) {
+                child.copyFrom(state);
+                child.playTurn(nodeTurns[i]);
+                int index = lookup(symmetry.canonicalKey(child));
+                boolean proven = index >= 0 ? tableProofs[index] == 0 : evaluate(child) && lastProof == 0;
+                if (!proven) {
+                    continue;
+                }
+                long work = index >= 0 ? tableWork[index] : 0;
+                if (state.getToMove() == attacker) {
+                    chosen = nodeTurns[i];
+                    break;
+                }
+                // The defender resists with the turn that was the hardest to refute.
+                if (work > chosenWork) {
+                    chosen = nodeTurns[i];
+                    chosenWork = work;
+                }
+            }
+            if (chosen == Turn.NONE) {
+                break;
+            }
+            line[length++] = chosen;
+            state.playTurn(chosen);
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    // -------------------------------
+    // Transposition table
+    // -------------------------------
+
+    private void clearTable() {
+        Arrays.fill(tableWork, 0);
+    }
+
+    private int lookup(long key) {
+        int index = (int) key & tableMask;
+        if (tableWork[index] != 0 && tableKeys[index] == key) {
+            return index;
+        }
+        int other = index ^ 1;
+        if (tableWork[other] != 0 && tableKeys[other] == key) {
+            return other;
+        }
+        return -1;
+    }
+
+    /**
+     * Stores an entry in a two-way bucket, replacing the entry that cost the least to compute.
+     * Solved positions are kept in priority.
+     */
+    private void store(long key, int proof, int disproof, long work) {
+        int index = (int) key & tableMask;
+        int other = index ^ 1;
+        int slot;
+        if (tableKeys[index] == key || tableWork[index] == 0) {
+            slot = index;
+        } else if (tableKeys[other] == key || tableWork[other] == 0) {
+            slot = other;
+        } else {
+            slot = priority(index) <= priority(other) ? index : other;
+        }
+        tableKeys[slot] = key;
+        tableProofs[slot] = proof;
+        tableDisproofs[slot] = disproof;
+        tableWork[slot] = Math.max(1, work);
+    }
+
+    private long priority(int slot) {
+        boolean solved = tableProofs[slot] == 0 || tableDisproofs[slot] == 0;
+        return solved ? tableWork[slot] + nodeLimit : tableWork[slot];
+    }
+}
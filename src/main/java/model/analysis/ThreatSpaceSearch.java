@@ -0,0 +1,167 @@
+package model.analysis;
+
+import model.Color;
+import model.CompactState;
+import model.Turn;
+
+/**
+ * Threat-space search for forced wins.
+ * <p>
+ * A player wins by aligning four pawns by symbol or by color, so a line holding three
+ * matching pawns and a gap is a threat. Instead of a full search, the attacker only plays
+ * turns after which it threatens to win on its next turn, and the defender turns are only
+ * searched deeper when they answer every threat. Every other defender turn is refuted by an
+ * immediate win, which is cheap to check. A win found this way is forced against any defence.
+ * <p>
+ * A search instance reuses its buffers and is not thread safe.
+ */
+public class ThreatSpaceSearch {
+    public static final int DEFAULT_DEPTH = 4;
+    public static final long DEFAULT_NODE_LIMIT = 200_000;
+
+    private final int maxDepth;
+    private final long nodeLimit;
+
+    private CompactState[] stack;
+    private int[][] turns;
+    private long nodes;
+    private Color attacker;
+
+    public ThreatSpaceSearch() {
+        this(DEFAULT_DEPTH, DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * Creates a search.
+     *
+     * @param maxDepth  Maximum number of attacker turns, the winning one included.
+     * @param nodeLimit Maximum number of turns played before giving up.
+     */
+    public ThreatSpaceSearch(int maxDepth, long nodeLimit) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1.");
+        }
+        this.maxDepth = maxDepth;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Searches a forced win for the player to move, shortest wins first.
+     *
+     * @param position The position to analyse, it is not modified.
+     * @return The first turn of a forced win, or {@link Turn#NONE} if none was found within the limits.
+     */
+    public int findForcedWin(CompactState position) {
+        prepare(position);
+        for (int depth = 1; depth <= maxDepth && nodes < nodeLimit; depth++) {
+            int turn = attack(0, depth);
+            if (turn != Turn.NONE) {
+                return turn;
+            }
+        }
+        return Turn.NONE;
+    }
+
+    /**
+     * Finds a turn after which the opponent cannot win immediately, to answer its threats.
+     *
+     * @param position The position to analyse, it is not modified.
+     * @return A safe turn, or {@link Turn#NONE} if every turn leaves an immediate win.
+     */
+    public int findSafeTurn(CompactState position) {
+        prepare(position);
+        CompactState root = stack[0];
+        CompactState next = stack[1];
+        int count = root.legalTurns(turns[0]);
+        for (int i = 0; i < count; i++) {
+            next.copyFrom(root);
+            next.playTurn(turns[0][i]);
+            if (next.getWinner() != null || next.findWinningTurn() == Turn.NONE) {
+                return turns[0][i];
+            }
+        }
+        return Turn.NONE;
+    }
+
+    /**
+     * @return The number of turns played by the last search.
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    private void prepare(CompactState position) {
+        int plies = 2 * maxDepth + 1;
+        if (stack == null || stack[0].getRows() != position.getRows() || stack[0].getCols() != position.getCols()) {
+            stack = new CompactState[plies];
+            turns = new int[plies][];
+            for (int i = 0; i < plies; i++) {
+                stack[i] = new CompactState(position.getRows(), position.getCols());
+                turns[i] = new int[position.maxTurns()];
+            }
+        }
+        stack[0].copyFrom(position);
+        attacker = position.getToMove();
+        nodes = 0;
+    }
+
+    /**
+     * @return The winning turn of the attacker, or {@link Turn#NONE}.
+     */
+    private int attack(int ply, int depth) {
+        CompactState state = stack[ply];
+        int win = state.findWinningTurn();
+        if (win != Turn.NONE || depth <= 1) {
+            return win;
+        }
+        Color defender = CompactState.opponent(attacker);
+        CompactState next = stack[ply + 1];
+        int count = state.legalTurns(turns[ply]);
+        for (int i = 0; i < count; i++) {
+            if (++nodes > nodeLimit) {
+                return Turn.NONE;
+            }
+            int turn = turns[ply][i];
+            next.copyFrom(state);
+            next.playTurn(turn);
+            if (next.isGameOver()
+                    || next.findWinningTurn(defender) != Turn.NONE
+                    || next.findWinningTurn(attacker) == Turn.NONE) {
+                continue;
+            }
+            if (!defend(ply + 1, depth - 1)) {
+                return turn;
+            }
+        }
+        return Turn.NONE;
+    }
+
+    /**
+     * @return {@code true} if the defender escapes, or if the limits were hit.
+     */
+    private boolean defend(int ply, int depth) {
+        CompactState state = stack[ply];
+        CompactState next = stack[ply + 1];
+        int count = state.legalTurns(turns[ply]);
+        if (count == 0) {
+            return true;
+        }
+        for (int i = 0; i < count; i++) {
+            if (++nodes > nodeLimit) {
+                return true;
+            }
+            next.copyFrom(state);
+            next.playTurn(turns[ply][i]);
+            if (next.isGameOver()) {
+                return true;
+            }
+            if (next.findWinningTurn() != Turn.NONE) {
+                continue;
+            }
+            if (attack(ply + 1, depth) == Turn.NONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package model.command;
+
+/**
+ * CommandExecutor executes and reverses commands encoded in a single {@code int}.
+ * The encoding is chosen by the implementation, {@link CommandManager} only stores the values.
+ */
+public interface CommandExecutor {
+
+    /**
+     * Executes the command, performing the associated action.
+     *
+     * @param command the encoded command
+     */
+    void execute(int command);
+
+    /**
+     * Reverses the command, undoing the associated action.
+     *
+     * @param command the encoded command
+     */
+    void unexecute(int command);
+}
@@ -1,60 +1,191 @@
 package model.command;
 
-import java.util.Stack;
-
 /**
- * CommandManager is responsible for executing, undoing, and redoing commands
- * within the application. It maintains a history of commands in stacks to allow
- * reversal (undo) and reapplication (redo) of actions.
+ * CommandManager is responsible for undoing and redoing commands within the application.
+ * The history is a growable ring of {@code int} commands: the undoable commands come first,
+ * followed by the undone commands that can be redone. Undo and redo only move the boundary
+ * between the two, so both run in constant time without allocating.
+ * <p>
+ * With a maximum depth, adding a command to a full history forgets the oldest one.
  */
 public class CommandManager {
+    public static final int UNLIMITED = 0;
+
+    private static final int INITIAL_CAPACITY = 64;
 
-    private final Stack<Command> undoStack;
-    private final Stack<Command> redoStack;
+    private final CommandExecutor executor;
+    private final int maxDepth;
+    private int[] ring;
+    private int head;
+    private int undoCount;
+    private int redoCount;
+    private int dropped;
+
+    /**
+     * Constructs a new CommandManager with an unlimited history.
+     *
+     * @param executor executes and reverses the stored commands
+     */
+    public CommandManager(CommandExecutor executor){
+        this(executor, UNLIMITED);
+    }
 
     /**
-     * Constructs a new CommandManager with empty undo and redo stacks.
+     * Constructs a new CommandManager keeping at most {@code maxDepth} undoable commands.
+     *
+     * @param executor executes and reverses the stored commands
+     * @param maxDepth the maximum number of undoable commands, or {@link #UNLIMITED}
      */
-    public CommandManager(){
-        undoStack = new Stack<>();
-        redoStack = new Stack<>();
+    public CommandManager(CommandExecutor executor, int maxDepth){
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("History depth cannot be negative.");
+        }
+        this.executor = executor;
+        this.maxDepth = maxDepth;
+        int capacity = maxDepth == UNLIMITED ? INITIAL_CAPACITY : Math.min(INITIAL_CAPACITY, ceilPowerOfTwo(maxDepth));
+        this.ring = new int[capacity];
     }
 
     /**
-     * Executes a given command, adds it to the undo stack, and clears the redo stack.
+     * Adds an already executed command to the undo history and clears the redo history.
      * This allows only the most recent sequence of actions to be redone after an undo.
      *
-     * @param command the command to be executed and stored in the undo history
+     * @param command the encoded command to be stored in the undo history
      */
-    public void addCommand(Command command){
-        undoStack.push(command);
-        redoStack.clear();
+    public void addCommand(int command){
+        redoCount = 0;
+        if (undoCount == maxDepth && maxDepth != UNLIMITED) {
+            head = (head + 1) & (ring.length - 1);
+            undoCount--;
+            dropped++;
+        }
+        if (undoCount == ring.length) {
+            grow();
+        }
+        ring[(head + undoCount) & (ring.length - 1)] = command;
+        undoCount++;
     }
 
     /**
-     * Undoes the last executed command, if available. The command is removed from
-     * the undo stack, its undo operation is triggered, and it is added to the redo stack.
-     * Does nothing if there are no commands in the undo stack.
+     * Undoes the last executed command, if available. The command stays in the ring
+     * and becomes the next command to redo.
+     * Does nothing if there are no commands to undo.
      */
     public void undo(){
-        if (!undoStack.isEmpty()){
-            Command command = undoStack.pop();
-            command.unexecute();
-            redoStack.push(command);
+        if (undoCount > 0){
+            undoCount--;
+            redoCount++;
+            executor.unexecute(ring[(head + undoCount) & (ring.length - 1)]);
         }
     }
 
     /**
-     * Redoes the last undone command, if available. The command is removed from
-     * the redo stack, re-executed, and added back to the undo stack.
-     * Does nothing if there are no commands in the redo stack.
+     * Redoes the last undone command, if available. The command becomes undoable again.
+     * Does nothing if there are no commands to redo.
      */
     public void redo(){
-        if (!redoStack.isEmpty()){
-            Command command = redoStack.pop();
-            command.execute();
-            undoStack.push(command);
+        if (redoCount > 0){
+            int command = ring[(head + undoCount) & (ring.length - 1)];
+            redoCount--;
+            undoCount++;
+            executor.execute(command);
         }
     }
-}
 
+    public boolean canUndo() {
+        return undoCount > 0;
+    }
+
+    public boolean canRedo() {
+        return redoCount > 0;
+    }
+
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    public int getRedoCount() {
+        return redoCount;
+    }
+
+    /**
+     * @return the maximum number of undoable commands, or {@link #UNLIMITED}
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the number of commands executed since the start of the history,
+     * including the commands forgotten because of the maximum depth
+     */
+    public int getPosition() {
+        return dropped + undoCount;
+    }
+
+    /**
+     * @return the lowest position reachable by undoing commands
+     */
+    public int getFirstPosition() {
+        return dropped;
+    }
+
+    /**
+     * @return the highest position reachable by redoing commands
+     */
+    public int getLastPosition() {
+        return dropped + undoCount + redoCount;
+    }
+
+    /**
+     * Gets a command of the history without executing it.
+     *
+     * @param position the position of the command, from {@link #getFirstPosition()} included
+     *                 to {@link #getLastPosition()} excluded
+     * @return the encoded command
+     */
+    public int getCommand(int position) {
+        if (position < getFirstPosition() || position >= getLastPosition()) {
+            throw new IllegalArgumentException("Position " + position + " is not in the history.");
+        }
+        return ring[(head + position - dropped) & (ring.length - 1)];
+    }
+
+    /**
+     * Moves the boundary between undoable and redoable commands without executing them.
+     * The caller is responsible for restoring the state matching the new position.
+     *
+     * @param position the new position, between {@link #getFirstPosition()} and {@link #getLastPosition()}
+     */
+    public void jumpTo(int position) {
+        if (position < getFirstPosition() || position > getLastPosition()) {
+            throw new IllegalArgumentException("Position " + position + " is not in the history.");
+        }
+        int total = undoCount + redoCount;
+        undoCount = position - dropped;
+        redoCount = total - undoCount;
+    }
+
+    /**
+     * Forgets every command of the history.
+     */
+    public void clear() {
+        head = 0;
+        dropped = 0;
+        undoCount = 0;
+        redoCount = 0;
+    }
+
+    private void grow() {
+        int[] bigger = new int[ring.length * 2];
+        int firstPart = Math.min(undoCount, ring.length - head);
+        System.arraycopy(ring, head, bigger, 0, firstPart);
+        System.arraycopy(ring, 0, bigger, firstPart, undoCount - firstPart);
+        ring = bigger;
+        head = 0;
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -1,6 +1,7 @@
 package model.observer;
 
 import model.Game;
+import model.GameChange;
 
 /**
  * This interface represents an observer in the Oxono game.
@@ -11,4 +12,14 @@ public interface Observer {
      * Called when the Observable (Game) state changes.
      */
     void update();
-}
\ No newline at end of file
+
+    /**
+     * Called when the Observable (Game) state changes, with what changed. Observers that only
+     * redraw what changed override this method, the default one calls {@link #update()}.
+     *
+     * @param change What changed since the previous notification.
+     */
+    default void update(GameChange change) {
+        update();
+    }
+}
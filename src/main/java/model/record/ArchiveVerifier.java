@@ -0,0 +1,286 @@
+package model.record;
+
+import model.Color;
+import model.CompactState;
+import model.Game;
+import model.Turn;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Replays every record of an archive through the rules and reports the records that do not
+ * hold a legal game.
+ * <p>
+ * A record is valid if the first player is pink, as in {@link Game}, every turn is legal in the
+ * position it is played from, and the declared result matches the final position: the winner
+ * of the last turn, a draw, or a game still running. A game whose player to move has no legal
+ * turn may be declared a draw, as {@link model.BatchSimulator} does, or unfinished, as
+ * {@link Game#isGameOver()} does not end it.
+ * <p>
+ * The records are read in batches. A batch is replayed by the common fork-join pool, one game
+ * per task, while the next batch is read. The turns are checked with {@link CompactState}, whose
+ * rules mirror {@code GameValidator} on tile indexes, so the replay allocates nothing per turn.
+ */
+public class ArchiveVerifier {
+    static final int BATCH_SIZE = 4096;
+
+    private static final int VALID = 0;
+    private static final int NOT_PINK_FIRST = 1;
+    private static final int UNSUPPORTED_SIZE = 2;
+    private static final int ILLEGAL_TURN = 3;
+    private static final int WRONG_RESULT = 4;
+
+    private final int maxReported;
+    private final Map<Long, CompactState> startStates;
+    private final ThreadLocal<Replay> replays;
+    private final List<InvalidGame> invalidGames;
+    private long gameCount;
+    private long turnCount;
+    private long invalidCount;
+
+    /**
+     * A record that does not hold a legal game.
+     *
+     * @param index  The index of the record in the archive, from 0.
+     * @param reason Why the record is invalid.
+     */
+    public record InvalidGame(long index, String reason) {
+    }
+
+    /**
+     * Creates a verifier reporting at most 1000 invalid games, see {@link #ArchiveVerifier(int)}.
+     */
+    public ArchiveVerifier() {
+        this(1000);
+    }
+
+    /**
+     * Creates a verifier.
+     *
+     * @param maxReported Number of invalid games kept with their reason, the others are only counted.
+     */
+    public ArchiveVerifier(int maxReported) {
+        if (maxReported < 0) {
+            throw new IllegalArgumentException("Number of reported games cannot be negative.");
+        }
+        this.maxReported = maxReported;
+        this.startStates = new ConcurrentHashMap<>();
+        this.replays = new ThreadLocal<>();
+        this.invalidGames = new ArrayList<>();
+    }
+
+    /**
+     * Verifies every record of an archive. A record that cannot be decoded ends the
+     * verification, as the records after it cannot be found: it is reported as invalid.
+     *
+     * @param archive The archive, read to the end and closed.
+     * @return {@code true} if every record is valid.
+     * @throws IOException if the archive cannot be opened
+     */
+    public boolean verify(ReadableByteChannel archive) throws IOException {
+        gameCount = 0;
+        turnCount = 0;
+        invalidCount = 0;
+        invalidGames.clear();
+        GameRecord[][] batches = new GameRecord[2][BATCH_SIZE];
+        int[][] verdicts = new int[2][BATCH_SIZE];
+        for (GameRecord[] batch : batches) {
+            Arrays.setAll(batch, i -> new GameRecord());
+        }
+
+        try (GameRecordReader reader = new GameRecordReader(archive)) {
+            ForkJoinTask<?> pending = null;
+            int pendingCount = 0;
+            int current = 0;
+            while (true) {
+                GameRecord[] batch = batches[current];
+                int count = 0;
+                String readError = null;
+                try {
+                    while (count < BATCH_SIZE && reader.next(batch[count])) {
+                        count++;
+                    }
+                } catch (IOException e) {
+                    readError = e.getMessage();
+                }
+
+                if (pending != null) {
+                    join(pending);
+                    collect(batches[1 - current], verdicts[1 - current], pendingCount);
+                    pending = null;
+                }
+                if (count > 0) {
+                    int[] verdict = verdicts[current];
+                    int batchCount = count;
+                    pending = ForkJoinPool.commonPool().submit(() ->
+                            IntStream.range(0, batchCount).parallel().forEach(i -> verdict[i] = check(batch[i])));
+                    pendingCount = count;
+                    current = 1 - current;
+                }
+                if (readError != null || count < BATCH_SIZE) {
+                    if (pending != null) {
+                        join(pending);
+                        collect(batches[1 - current], verdicts[1 - current], pendingCount);
+                    }
+                    if (readError != null) {
+                        report(gameCount, readError);
+                    }
+                    break;
+                }
+            }
+        }
+        return invalidCount == 0;
+    }
+
+    /**
+     * @return The number of records read, the one that could not be decoded excluded.
+     */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * @return The number of turns of the records read.
+     */
+    public long getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * @return The number of invalid records, reported or not.
+     */
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * @return The first invalid records, in the order of the archive.
+     */
+    public List<InvalidGame> getInvalidGames() {
+        return List.copyOf(invalidGames);
+    }
+
+    private void collect(GameRecord[] batch, int[] verdicts, int count) {
+        for (int i = 0; i < count; i++) {
+            if (verdicts[i] != VALID) {
+                report(gameCount + i, describe(batch[i], verdicts[i]));
+            }
+            turnCount += batch[i].getTurnCount();
+        }
+        gameCount += count;
+    }
+
+    private void report(long index, String reason) {
+        invalidCount++;
+        if (invalidGames.size() < maxReported) {
+            invalidGames.add(new InvalidGame(index, reason));
+        }
+    }
+
+    /**
+     * Replays a record.
+     *
+     * @return {@link #VALID}, or the kind of problem in the low byte and its ply above.
+     */
+    private int check(GameRecord record) {
+        if (record.getFirstPlayer() != Color.PINK) {
+            return NOT_PINK_FIRST;
+        }
+        CompactState start = startState(record.getRows(), record.getCols());
+        if (start == null) {
+            return UNSUPPORTED_SIZE;
+        }
+        Replay replay = replays.get();
+        if (replay == null || replay.state.getRows() != start.getRows() || replay.state.getCols() != start.getCols()) {
+            replay = new Replay(start.getRows(), start.getCols());
+            replays.set(replay);
+        }
+        CompactState state = replay.state;
+        state.copyFrom(start);
+        for (int ply = 0; ply < record.getTurnCount(); ply++) {
+            int turn = record.getTurn(ply);
+            if (!state.isLegalTurn(turn)) {
+                return ply << 8 | ILLEGAL_TURN;
+            }
+            state.playTurn(turn);
+        }
+        GameRecord.Result result = resultOf(state);
+        if (result == record.getResult()
+                || (result == GameRecord.Result.UNFINISHED && record.getResult() == GameRecord.Result.DRAW
+                    && state.legalTurns(replay.turns) == 0)) {
+            return VALID;
+        }
+        return WRONG_RESULT;
+    }
+
+    private CompactState startState(int rows, int cols) {
+        CompactState start = startStates.computeIfAbsent((long) rows << 32 | cols, size -> {
+            try {
+                return CompactState.of(new Game(rows, cols, null));
+            } catch (RuntimeException e) {
+                return new CompactState(0, 0);
+            }
+        });
+        return start.getCellCount() == 0 ? null : start;
+    }
+
+    private static GameRecord.Result resultOf(CompactState state) {
+        if (state.getWinner() != null) {
+            return state.getWinner() == Color.PINK ? GameRecord.Result.PINK_WON : GameRecord.Result.BLACK_WON;
+        }
+        return state.isDraw() ? GameRecord.Result.DRAW : GameRecord.Result.UNFINISHED;
+    }
+
+    private String describe(GameRecord record, int verdict) {
+        int ply = verdict >>> 8;
+        return switch (verdict & 0xFF) {
+            case NOT_PINK_FIRST -> "starts with " + record.getFirstPlayer() + " instead of PINK";
+            case UNSUPPORTED_SIZE -> "unsupported board size " + record.getRows() + "x" + record.getCols();
+            case ILLEGAL_TURN -> "illegal turn " + (ply + 1) + ": " + Turn.toString(record.getTurn(ply));
+            case WRONG_RESULT -> "declares " + record.getResult() + " but ends " + replayResult(record);
+            default -> throw new IllegalStateException("Unknown verdict " + verdict);
+        };
+    }
+
+    private GameRecord.Result replayResult(GameRecord record) {
+        CompactState state = startState(record.getRows(), record.getCols()).copy();
+        for (int turn : record.getTurns()) {
+            state.playTurn(turn);
+        }
+        return resultOf(state);
+    }
+
+    /**
+     * The buffers of the replays of one thread.
+     */
+    private static final class Replay {
+        final CompactState state;
+        final int[] turns;
+
+        Replay(int rows, int cols) {
+            this.state = new CompactState(rows, cols);
+            this.turns = new int[state.maxTurns()];
+        }
+    }
+
+    private static void join(ForkJoinTask<?> task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Verification interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Verification failed.", e.getCause());
+        }
+    }
+}
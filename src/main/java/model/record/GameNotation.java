@@ -0,0 +1,119 @@
+package model.record;
+
+import model.Color;
+import model.OxonoException;
+import model.Turn;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Human-readable notation of game records, using the console commands for the turns:
+ * <pre>
+ * [Size "6x6"]
+ * [Seed "42"]
+ * [First "PINK"]
+ * [Result "PINK_WON"]
+ * 1. move x 14; insert 15
+ * 2. move o 21; insert 27
+ * </pre>
+ * Tile numbers are 1-based, as in the console.
+ */
+public final class GameNotation {
+    private static final Pattern TAG_PATTERN = Pattern.compile("^\\[(\\w+)\\s+\"([^\"]*)\"]$");
+    private static final Pattern TURN_LINE_PATTERN = Pattern.compile("^(\\d{1,9})\\.\\s+(.+)$");
+    private static final Pattern SIZE_PATTERN = Pattern.compile("^(\\d{1,5})x(\\d{1,5})$");
+
+    private GameNotation() {
+    }
+
+    /**
+     * Formats a record.
+     *
+     * @param record The record.
+     * @return The record in the text notation, one line per tag and per turn.
+     */
+    public static String format(GameRecord record) {
+        StringBuilder text = new StringBuilder();
+        text.append("[Size \"").append(record.getRows()).append('x').append(record.getCols()).append("\"]\n");
+        text.append("[Seed \"").append(record.getSeed()).append("\"]\n");
+        text.append("[First \"").append(record.getFirstPlayer()).append("\"]\n");
+        text.append("[Result \"").append(record.getResult()).append("\"]\n");
+        for (int ply = 0; ply < record.getTurnCount(); ply++) {
+            text.append(ply + 1).append(". ").append(Turn.toString(record.getTurn(ply))).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parses a record written by {@link #format(GameRecord)}. Blank lines are ignored and the
+     * tags other than {@code Size} are optional.
+     *
+     * @param text The record in the text notation.
+     * @return The record.
+     * @throws OxonoException if the text is not a valid record
+     */
+    public static GameRecord parse(String text) {
+        GameRecord record = null;
+        long seed = 0;
+        Color first = Color.PINK;
+        GameRecord.Result result = GameRecord.Result.UNFINISHED;
+
+        for (String rawLine : text.split("\\R")) {
+            String line = rawLine.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            Matcher tag = TAG_PATTERN.matcher(line);
+            if (tag.matches()) {
+                if (record != null && record.getTurnCount() > 0) {
+                    throw new OxonoException("Tags must come before the turns: " + line);
+                }
+                String value = tag.group(2);
+                try {
+                    switch (tag.group(1)) {
+                        case "Size" -> record = parseSize(value);
+                        case "Seed" -> seed = Long.parseLong(value);
+                        case "First" -> first = Color.valueOf(value);
+                        case "Result" -> result = GameRecord.Result.valueOf(value);
+                        default -> throw new OxonoException("Unknown tag: " + line);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new OxonoException("Invalid tag: " + line);
+                }
+                if (record != null) {
+                    record.setHeader(record.getRows(), record.getCols(), seed, first);
+                }
+                continue;
+            }
+            Matcher turnLine = TURN_LINE_PATTERN.matcher(line);
+            if (!turnLine.matches()) {
+                throw new OxonoException("Invalid line: " + line);
+            }
+            if (record == null) {
+                throw new OxonoException("Missing Size tag before the turns.");
+            }
+            if (Integer.parseInt(turnLine.group(1)) != record.getTurnCount() + 1) {
+                throw new OxonoException("Turns are not numbered in order: " + line);
+            }
+            try {
+                record.addTurn(Turn.parse(turnLine.group(2)));
+            } catch (IllegalArgumentException e) {
+                throw new OxonoException("Invalid turn: " + line);
+            }
+        }
+        if (record == null) {
+            throw new OxonoException("Missing Size tag.");
+        }
+        record.setResult(result);
+        return record;
+    }
+
+    private static GameRecord parseSize(String value) {
+        Matcher size = SIZE_PATTERN.matcher(value);
+        if (!size.matches()) {
+            throw new OxonoException("Invalid board size: " + value);
+        }
+        return new GameRecord(Integer.parseInt(size.group(1)), Integer.parseInt(size.group(2)), 0);
+    }
+}
@@ -0,0 +1,184 @@
+package model.record;
+
+import model.Color;
+import model.Game;
+import model.Turn;
+
+import java.util.Arrays;
+
+/**
+ * The record of one game: the board size, the seed and the starting player, the turns packed
+ * with {@link Turn} and the result.
+ * <p>
+ * A record is mutable so that readers can fill the same instance for every game of an archive.
+ */
+public class GameRecord {
+
+    /**
+     * Outcome of a recorded game.
+     */
+    public enum Result {
+        UNFINISHED, PINK_WON, BLACK_WON, DRAW
+    }
+
+    private int rows;
+    private int cols;
+    private long seed;
+    private Color firstPlayer;
+    private Result result;
+    private int[] turns;
+    private int turnCount;
+
+    /**
+     * Creates an empty record for a 6x6 board.
+     */
+    public GameRecord() {
+        this(6, 6, 0);
+    }
+
+    /**
+     * Creates an empty record started by the pink player.
+     *
+     * @param rows Number of rows of the board.
+     * @param cols Number of columns of the board.
+     * @param seed Seed of the random choices that produced the game, or 0.
+     */
+    public GameRecord(int rows, int cols, long seed) {
+        this.turns = new int[32];
+        setHeader(rows, cols, seed, Color.PINK);
+    }
+
+    /**
+     * Creates the record of the turns played in a game so far.
+     *
+     * @param game The game, its history must still hold the first turn.
+     * @param seed Seed of the random choices that produced the game, or 0.
+     * @return The record.
+     */
+    public static GameRecord of(Game game, long seed) {
+        GameRecord record = new GameRecord(game.getRows(), game.getCols(), seed);
+        for (int turn : game.getTurns()) {
+            record.addTurn(turn);
+        }
+        if (game.getWinnerColor() != null) {
+            record.setResult(game.getWinnerColor() == Color.PINK ? Result.PINK_WON : Result.BLACK_WON);
+        } else if (game.isGameOver()) {
+            record.setResult(Result.DRAW);
+        }
+        return record;
+    }
+
+    /**
+     * Starts a new game in this record, clearing its turns and result.
+     *
+     * @param rows        Number of rows of the board.
+     * @param cols        Number of columns of the board.
+     * @param seed        Seed of the random choices that produced the game, or 0.
+     * @param firstPlayer The player who played the first turn.
+     */
+    public void setHeader(int rows, int cols, long seed, Color firstPlayer) {
+        if (rows < 4 || cols < 4) {
+            throw new IllegalArgumentException("Board size must be at least 4x4.");
+        }
+        if ((long) rows * cols > Turn.MAX_CELLS) {
+            throw new IllegalArgumentException("Board size must be at most " + Turn.MAX_CELLS + " tiles.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+        this.firstPlayer = firstPlayer;
+        this.result = Result.UNFINISHED;
+        this.turnCount = 0;
+    }
+
+    /**
+     * Appends a turn to the record.
+     *
+     * @param turn The turn packed with {@link Turn}.
+     */
+    public void addTurn(int turn) {
+        int cells = rows * cols;
+        if (turn < 0 || Turn.totemCell(turn) >= cells || Turn.pawnCell(turn) >= cells) {
+            throw new IllegalArgumentException("Turn does not fit a " + rows + "x" + cols + " board.");
+        }
+        if (turnCount == turns.length) {
+            turns = Arrays.copyOf(turns, turns.length * 2);
+        }
+        turns[turnCount++] = turn;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Color getFirstPlayer() {
+        return firstPlayer;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    public void setResult(Result result) {
+        this.result = result;
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * @param ply The index of the turn, from 0.
+     * @return The turn packed with {@link Turn}.
+     */
+    public int getTurn(int ply) {
+        if (ply < 0 || ply >= turnCount) {
+            throw new IndexOutOfBoundsException("No turn " + ply + " in a record of " + turnCount + " turns.");
+        }
+        return turns[ply];
+    }
+
+    /**
+     * @return A copy of the turns of the record.
+     */
+    public int[] getTurns() {
+        return Arrays.copyOf(turns, turnCount);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GameRecord other)) {
+            return false;
+        }
+        return rows == other.rows && cols == other.cols && seed == other.seed
+                && firstPlayer == other.firstPlayer && result == other.result
+                && Arrays.equals(turns, 0, turnCount, other.turns, 0, other.turnCount);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * (31 * rows + cols) + Long.hashCode(seed);
+        hash = 31 * hash + firstPlayer.hashCode();
+        hash = 31 * hash + result.hashCode();
+        for (int i = 0; i < turnCount; i++) {
+            hash = 31 * hash + turns[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return GameNotation.format(this);
+    }
+}
@@ -0,0 +1,139 @@
+package model.record;
+
+import model.Color;
+import model.Symbol;
+import model.Turn;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads the records of an archive written by {@link GameRecordWriter}, one at a time.
+ * <p>
+ * The records are decoded into a {@link GameRecord} given by the caller, which can be the same
+ * for the whole archive: reading allocates nothing once the record has grown to the longest game.
+ */
+public class GameRecordReader implements Closeable {
+    private static final Color[] COLORS = Color.values();
+    private static final GameRecord.Result[] RESULTS = GameRecord.Result.values();
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private boolean endOfChannel;
+    private long recordCount;
+
+    /**
+     * Opens an archive on a channel.
+     *
+     * @param channel The source, closed with the reader.
+     * @throws IOException if the channel fails or does not start with an archive header
+     */
+    public GameRecordReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(GameRecordWriter.BUFFER_SIZE);
+        buffer.limit(0);
+        if (!fill(4) || buffer.getInt() != GameRecordWriter.MAGIC) {
+            throw new IOException("Not a game record archive.");
+        }
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @param record The record to fill.
+     * @return {@code false} at the end of the archive, the record is then left unchanged.
+     * @throws IOException if the channel fails or the record is truncated or corrupt
+     */
+    public boolean next(GameRecord record) throws IOException {
+        if (!fill(1)) {
+            return false;
+        }
+        int rows = readVarint();
+        int cols = readVarint();
+        if (!fill(9)) {
+            throw new EOFException("Truncated game record " + recordCount + ".");
+        }
+        long seed = buffer.getLong();
+        int flags = buffer.get();
+        if ((flags & ~0x7) != 0) {
+            throw corrupt("invalid flags");
+        }
+        try {
+            record.setHeader(rows, cols, seed, COLORS[flags & 1]);
+        } catch (IllegalArgumentException e) {
+            throw corrupt(e.getMessage());
+        }
+        record.setResult(RESULTS[flags >>> 1]);
+
+        int turnCount = readVarint();
+        int cells = rows * cols;
+        if (turnCount < 0 || turnCount > 4L * cells) {
+            throw corrupt("invalid number of turns");
+        }
+        long maxValue = 2L * cells * cells;
+        for (int ply = 0; ply < turnCount; ply++) {
+            int value = readVarint();
+            if (Integer.toUnsignedLong(value) >= maxValue) {
+                throw corrupt("turn " + ply + " is off the board");
+            }
+            int position = value >>> 1;
+            Symbol symbol = (value & 1) == 0 ? Symbol.X : Symbol.O;
+            record.addTurn(Turn.of(symbol, position / cells, position % cells));
+        }
+        recordCount++;
+        return true;
+    }
+
+    /**
+     * @return The number of records read so far.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining() && !fill(1)) {
+                throw new EOFException("Truncated game record " + recordCount + ".");
+            }
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+
+    /**
+     * Makes sure that at least {@code bytes} bytes can be read from the buffer.
+     *
+     * @return {@code false} if the channel ends before.
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return true;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes && !endOfChannel) {
+            if (channel.read(buffer) < 0) {
+                endOfChannel = true;
+            }
+        }
+        buffer.flip();
+        return buffer.remaining() >= bytes;
+    }
+
+    private IOException corrupt(String reason) {
+        return new IOException("Corrupt game record " + recordCount + ": " + reason + ".");
+    }
+}
@@ -0,0 +1,117 @@
+package model.record;
+
+import model.Turn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes game records to a channel in the binary archive format.
+ * <p>
+ * An archive starts with the 4 bytes {@code "OXR"} and the format version, followed by the
+ * records one after the other. A record is:
+ * <ul>
+ *   <li>the number of rows and the number of columns, as varints;</li>
+ *   <li>the seed, as 8 big-endian bytes;</li>
+ *   <li>a flags byte: the ordinal of the starting {@link model.Color} in bit 0 and the ordinal
+ *   of the {@link GameRecord.Result} in bits 1 and 2;</li>
+ *   <li>the number of turns, as a varint;</li>
+ *   <li>each turn as the varint {@code (totemCell * cells + pawnCell) * 2 + symbol}, which takes
+ *   2 bytes on boards of up to 90 tiles.</li>
+ * </ul>
+ * Varints store 7 bits per byte, lowest bits first, the high bit of a byte telling that
+ * another byte follows.
+ */
+public class GameRecordWriter implements Closeable {
+    static final int MAGIC = 0x4F585201;
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int MAX_HEADER_SIZE = 5 + 5 + 8 + 1 + 5;
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private long recordCount;
+
+    /**
+     * Starts an archive on a channel.
+     *
+     * @param channel The destination, closed with the writer.
+     * @throws IOException if the archive header cannot be written
+     */
+    public GameRecordWriter(WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC);
+    }
+
+    /**
+     * Appends a record to the archive. The bytes may stay buffered until {@link #flush()}.
+     *
+     * @param record The record to write.
+     * @throws IOException if the channel fails
+     */
+    public void write(GameRecord record) throws IOException {
+        ensureSpace(MAX_HEADER_SIZE);
+        putVarint(record.getRows());
+        putVarint(record.getCols());
+        buffer.putLong(record.getSeed());
+        buffer.put((byte) (record.getFirstPlayer().ordinal() | record.getResult().ordinal() << 1));
+        putVarint(record.getTurnCount());
+        int cells = record.getRows() * record.getCols();
+        for (int ply = 0; ply < record.getTurnCount(); ply++) {
+            ensureSpace(MAX_VARINT_SIZE);
+            putVarint(encodeTurn(record.getTurn(ply), cells));
+        }
+        recordCount++;
+    }
+
+    /**
+     * @return The number of records written so far.
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     *
+     * @throws IOException if the channel fails
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    static int encodeTurn(int turn, int cells) {
+        return (int) (((long) Turn.totemCell(turn) * cells + Turn.pawnCell(turn)) * 2 + (turn & 1));
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,266 @@
+package model.record;
+
+import model.BoardSymmetry;
+import model.Color;
+import model.CompactState;
+import model.Symbol;
+import model.Turn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * Memory-mapped index of the positions reached in an archive of games, built by
+ * {@link PositionIndexBuilder}.
+ * <p>
+ * Positions are identified by their canonical key (see
+ * {@link BoardSymmetry#canonicalKey(CompactState)}), so symmetric positions share their games.
+ * The file has a 48-byte header (magic, rows, cols, entry count, position count, game count)
+ * followed by two tables sorted by unsigned key:
+ * <ul>
+ *   <li>the entries, 16 bytes each, one per position of each game: the key, then a long packing
+ *   the game id (bits 0 to 31), the ply (bits 32 to 38), the result of the game (bits 39
+ *   and 40) and the next turn in the canonical orientation (bits 41 to 63, 0 for none);</li>
+ *   <li>the positions, 32 bytes each, one per distinct key: the key, the number of games,
+ *   of pink wins, of black wins and of draws, the most common next turn and its count.</li>
+ * </ul>
+ * A lookup is a binary search in the mapped position table.
+ */
+public class PositionIndex {
+    static final int MAGIC = 0x4F584931;
+    static final int HEADER_SIZE = 48;
+    static final int ENTRY_SIZE = 16;
+    static final int POSITION_SIZE = 32;
+    static final int MAX_CELLS = 2047;
+
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final GameRecord.Result[] RESULTS = GameRecord.Result.values();
+
+    private final int rows;
+    private final int cols;
+    private final long gameCount;
+    private final Table entries;
+    private final Table positions;
+    private final BoardSymmetry symmetry;
+
+    private PositionIndex(int rows, int cols, long gameCount, Table entries, Table positions) {
+        this.rows = rows;
+        this.cols = cols;
+        this.gameCount = gameCount;
+        this.entries = entries;
+        this.positions = positions;
+        this.symmetry = BoardSymmetry.of(rows, cols);
+    }
+
+    /**
+     * Maps an index file in memory.
+     *
+     * @param file The index file.
+     * @return The index, ready for lookups.
+     * @throws IOException if the file cannot be read or is not an index
+     */
+    public static PositionIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.read(header, 0) < HEADER_SIZE || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a position index: " + file);
+            }
+            header.position(4);
+            int rows = header.getInt();
+            int cols = header.getInt();
+            header.getInt();
+            long entryCount = header.getLong();
+            long positionCount = header.getLong();
+            long gameCount = header.getLong();
+            long entriesSize = entryCount * ENTRY_SIZE;
+            if (channel.size() != HEADER_SIZE + entriesSize + positionCount * POSITION_SIZE) {
+                throw new IOException("Truncated position index: " + file);
+            }
+            Table entries = new Table(channel, HEADER_SIZE, entryCount, ENTRY_SIZE);
+            Table positions = new Table(channel, HEADER_SIZE + entriesSize, positionCount, POSITION_SIZE);
+            return new PositionIndex(rows, cols, gameCount, entries, positions);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public long getEntryCount() {
+        return entries.count;
+    }
+
+    public long getPositionCount() {
+        return positions.count;
+    }
+
+    /**
+     * Gets the statistics of the games that went through a position or one of its symmetric
+     * images. Positions in the middle of a turn are never indexed.
+     *
+     * @param state The position, of the size of the index.
+     * @return The statistics, {@link PositionStats#NONE} if no game went through the position.
+     */
+    public PositionStats lookup(CompactState state) {
+        checkSize(state);
+        int t = symmetry.canonicalTransform(state);
+        long key = symmetry.key(state, t);
+        long index = positions.lowerBound(key);
+        if (index == positions.count || positions.keyAt(index) != key) {
+            return PositionStats.NONE;
+        }
+
+        long games = Integer.toUnsignedLong(positions.intAt(index, 8));
+        long pinkWins = Integer.toUnsignedLong(positions.intAt(index, 12));
+        long blackWins = Integer.toUnsignedLong(positions.intAt(index, 16));
+        long draws = Integer.toUnsignedLong(positions.intAt(index, 20));
+        int bestCode = positions.intAt(index, 24);
+        long bestCount = Integer.toUnsignedLong(positions.intAt(index, 28));
+
+        int bestTurn = Turn.NONE;
+        if (bestCode != 0) {
+            int canonicalTurn = decodeTurn(bestCode, rows * cols);
+            bestTurn = Turn.of(Turn.symbol(canonicalTurn),
+                    symmetry.unmapCell(t, Turn.totemCell(canonicalTurn)),
+                    symmetry.unmapCell(t, Turn.pawnCell(canonicalTurn)));
+        }
+        boolean pinkToMove = state.getToMove() == Color.PINK;
+        return new PositionStats(games, pinkToMove ? pinkWins : blackWins, draws,
+                pinkToMove ? blackWins : pinkWins, bestTurn, bestCount);
+    }
+
+    /**
+     * Finds the games that went through a position or one of its symmetric images.
+     *
+     * @param state   The position, of the size of the index.
+     * @param gameIds Receives the game ids, which are the indexes of the records in the archive.
+     * @param plies   Receives the ply at which each game reached the position.
+     * @return The number of games written, at most the length of the arrays.
+     */
+    public int findGames(CompactState state, int[] gameIds, int[] plies) {
+        checkSize(state);
+        long key = symmetry.canonicalKey(state);
+        int found = 0;
+        for (long index = entries.lowerBound(key);
+             index < entries.count && entries.keyAt(index) == key && found < gameIds.length;
+             index++, found++) {
+            long payload = entries.longAt(index, 8);
+            gameIds[found] = gameId(payload);
+            plies[found] = ply(payload);
+        }
+        return found;
+    }
+
+    private void checkSize(CompactState state) {
+        if (state.getRows() != rows || state.getCols() != cols) {
+            throw new IllegalArgumentException("Position size does not match the index.");
+        }
+    }
+
+    /**
+     * Fixed-size records sorted by the unsigned long key at their start, mapped in segments of
+     * at most 1 GiB.
+     */
+    private static final class Table {
+        final long count;
+        final int recordShift;
+        final int segmentShift;
+        final MappedByteBuffer[] segments;
+
+        Table(FileChannel channel, long offset, long count, int recordSize) throws IOException {
+            this.count = count;
+            this.recordShift = Integer.numberOfTrailingZeros(recordSize);
+            this.segmentShift = Integer.numberOfTrailingZeros(SEGMENT_SIZE) - recordShift;
+            long perSegment = 1L << segmentShift;
+            this.segments = new MappedByteBuffer[(int) ((count + perSegment - 1) >>> segmentShift)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i << segmentShift;
+                long records = Math.min(count - first, perSegment);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        offset + (first << recordShift), records << recordShift);
+            }
+        }
+
+        long lowerBound(long key) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        long keyAt(long index) {
+            return longAt(index, 0);
+        }
+
+        long longAt(long index, int field) {
+            return segment(index).getLong(offset(index) + field);
+        }
+
+        int intAt(long index, int field) {
+            return segment(index).getInt(offset(index) + field);
+        }
+
+        private MappedByteBuffer segment(long index) {
+            return segments[(int) (index >>> segmentShift)];
+        }
+
+        private int offset(long index) {
+            return (int) (index & ((1L << segmentShift) - 1)) << recordShift;
+        }
+    }
+
+    // -------------------------------
+    // Entry layout
+    // -------------------------------
+
+    static long payload(int gameId, int ply, GameRecord.Result result, int nextTurnCode) {
+        return Integer.toUnsignedLong(gameId) | (long) ply << 32 | (long) result.ordinal() << 39 | (long) nextTurnCode << 41;
+    }
+
+    static GameRecord.Result result(long payload) {
+        return RESULTS[(int) (payload >>> 39) & 3];
+    }
+
+    static int gameId(long payload) {
+        return (int) payload;
+    }
+
+    static int ply(long payload) {
+        return (int) (payload >>> 32) & 0x7F;
+    }
+
+    static int nextTurnCode(long payload) {
+        return (int) (payload >>> 41);
+    }
+
+    /**
+     * Encodes a turn in the 23 bits of an entry, 0 being reserved for "no next turn".
+     */
+    static int encodeTurn(int turn, int cells) {
+        return (Turn.totemCell(turn) * cells + Turn.pawnCell(turn)) * 2 + (turn & 1) + 1;
+    }
+
+    static int decodeTurn(int code, int cells) {
+        int value = code - 1;
+        int position = value >>> 1;
+        return Turn.of((value & 1) == 0 ? Symbol.X : Symbol.O, position / cells, position % cells);
+    }
+}
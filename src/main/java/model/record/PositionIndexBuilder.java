@@ -0,0 +1,500 @@
+package model.record;
+
+import model.BoardSymmetry;
+import model.Color;
+import model.CompactState;
+import model.Game;
+import model.Turn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Builds a {@link PositionIndex} from an archive of game records.
+ * <p>
+ * The archive is streamed in batches of games. The games of a batch are replayed in parallel
+ * on {@link CompactState} copies, each position giving one entry. When the entries no longer
+ * fit in memory they are sorted with a parallel radix sort and written to a temporary run
+ * file; the runs are finally merged into the index. Records of another board size, or started
+ * by the black player, are skipped. The turns are assumed to be legal.
+ */
+public class PositionIndexBuilder {
+    public static final int DEFAULT_RUN_ENTRIES = 1 << 22;
+
+    private static final int BATCH_SIZE = 4096;
+    private static final int MAX_PLIES = 126;
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final int rows;
+    private final int cols;
+    private final int runEntries;
+    private final BoardSymmetry symmetry;
+    private final CompactState start;
+    private final ThreadLocal<CompactState> replayStates;
+
+    private long gameCount;
+    private long skippedCount;
+    private long entryCount;
+    private long positionCount;
+
+    /**
+     * Creates a builder for the games of one board size.
+     *
+     * @param rows Number of rows of the indexed games.
+     * @param cols Number of columns of the indexed games.
+     */
+    public PositionIndexBuilder(int rows, int cols) {
+        this(rows, cols, DEFAULT_RUN_ENTRIES);
+    }
+
+    /**
+     * Creates a builder for the games of one board size.
+     *
+     * @param rows       Number of rows of the indexed games.
+     * @param cols       Number of columns of the indexed games.
+     * @param runEntries Number of entries sorted in memory before they are written to a run.
+     */
+    public PositionIndexBuilder(int rows, int cols, int runEntries) {
+        if (rows * cols > PositionIndex.MAX_CELLS) {
+            throw new IllegalArgumentException("Position index supports boards of at most " + PositionIndex.MAX_CELLS + " tiles.");
+        }
+        if (runEntries < BATCH_SIZE * (MAX_PLIES + 1)) {
+            throw new IllegalArgumentException("Runs must hold at least " + BATCH_SIZE * (MAX_PLIES + 1) + " entries.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.runEntries = runEntries;
+        this.symmetry = BoardSymmetry.of(rows, cols);
+        this.start = CompactState.of(new Game(rows, cols, null));
+        this.replayStates = ThreadLocal.withInitial(() -> new CompactState(rows, cols));
+    }
+
+    /**
+     * Indexes every position of an archive.
+     *
+     * @param archive   The archive, read to the end and closed.
+     * @param indexFile The index file to write, replaced if it exists.
+     * @throws IOException if the archive cannot be read or the index cannot be written
+     */
+    public void build(ReadableByteChannel archive, Path indexFile) throws IOException {
+        gameCount = 0;
+        skippedCount = 0;
+        entryCount = 0;
+        positionCount = 0;
+        long[] keys = new long[runEntries];
+        long[] payloads = new long[runEntries];
+        long[] tmpKeys = new long[runEntries];
+        long[] tmpPayloads = new long[runEntries];
+        GameRecord[] batch = new GameRecord[BATCH_SIZE];
+        Arrays.setAll(batch, i -> new GameRecord());
+        int[] offsets = new int[BATCH_SIZE + 1];
+        List<Path> runs = new ArrayList<>();
+        int size = 0;
+
+        try (GameRecordReader reader = new GameRecordReader(archive)) {
+            while (true) {
+                int count = 0;
+                while (count < BATCH_SIZE && reader.next(batch[count])) {
+                    count++;
+                }
+                if (count == 0) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) {
+                    offsets[i + 1] = offsets[i] + (isIndexed(batch[i]) ? batch[i].getTurnCount() + 1 : 0);
+                }
+                if (size + offsets[count] > runEntries) {
+                    sort(keys, payloads, size, tmpKeys, tmpPayloads);
+                    runs.add(writeRun(indexFile, keys, payloads, size));
+                    size = 0;
+                }
+                int base = size;
+                long firstId = gameCount + skippedCount;
+                IntStream.range(0, count).parallel().forEach(i -> {
+                    if (isIndexed(batch[i])) {
+                        index(batch[i], (int) (firstId + i), keys, payloads, base + offsets[i]);
+                    }
+                });
+                for (int i = 0; i < count; i++) {
+                    if (isIndexed(batch[i])) {
+                        gameCount++;
+                    } else {
+                        skippedCount++;
+                    }
+                }
+                size += offsets[count];
+            }
+        }
+
+        sort(keys, payloads, size, tmpKeys, tmpPayloads);
+        if (runs.isEmpty()) {
+            entryCount = size;
+            try (IndexWriter writer = new IndexWriter(indexFile)) {
+                for (int i = 0; i < size; i++) {
+                    writer.add(keys[i], payloads[i]);
+                }
+            }
+        } else {
+            runs.add(writeRun(indexFile, keys, payloads, size));
+            merge(runs, indexFile);
+        }
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getPositionCount() {
+        return positionCount;
+    }
+
+    private boolean isIndexed(GameRecord record) {
+        return record.getRows() == rows && record.getCols() == cols
+                && record.getFirstPlayer() == Color.PINK && record.getTurnCount() <= MAX_PLIES;
+    }
+
+    /**
+     * Replays a game and writes the entry of each of its positions from {@code offset}.
+     */
+    private void index(GameRecord record, int gameId, long[] keys, long[] payloads, int offset) {
+        CompactState state = replayStates.get();
+        state.copyFrom(start);
+        int cells = rows * cols;
+        for (int ply = 0; ply <= record.getTurnCount(); ply++) {
+            int t = symmetry.canonicalTransform(state);
+            int code = 0;
+            if (ply < record.getTurnCount()) {
+                int turn = record.getTurn(ply);
+                int canonicalTurn = Turn.of(Turn.symbol(turn),
+                        symmetry.mapCell(t, Turn.totemCell(turn)),
+                        symmetry.mapCell(t, Turn.pawnCell(turn)));
+                code = PositionIndex.encodeTurn(canonicalTurn, cells);
+            }
+            keys[offset] = symmetry.key(state, t);
+            payloads[offset] = PositionIndex.payload(gameId, ply, record.getResult(), code);
+            offset++;
+            if (ply < record.getTurnCount()) {
+                state.playTurn(record.getTurn(ply));
+            }
+        }
+    }
+
+    // -------------------------------
+    // Sorting
+    // -------------------------------
+
+    /**
+     * Sorts entries by unsigned key: a first pass splits them by the top byte of the key,
+     * then each of the 256 buckets is radix sorted on the 7 other bytes in parallel.
+     */
+    static void sort(long[] keys, long[] payloads, int size, long[] tmpKeys, long[] tmpPayloads) {
+        int[] starts = new int[257];
+        for (int i = 0; i < size; i++) {
+            starts[(int) (keys[i] >>> 56) + 1]++;
+        }
+        for (int b = 0; b < 256; b++) {
+            starts[b + 1] += starts[b];
+        }
+        int[] next = Arrays.copyOf(starts, 256);
+        for (int i = 0; i < size; i++) {
+            int p = next[(int) (keys[i] >>> 56)]++;
+            tmpKeys[p] = keys[i];
+            tmpPayloads[p] = payloads[i];
+        }
+        IntStream.range(0, 256).parallel().forEach(b ->
+                sortBucket(tmpKeys, tmpPayloads, keys, payloads, starts[b], starts[b + 1]));
+    }
+
+    /**
+     * Sorts {@code [from, to)} of the source arrays into the destination arrays, the source
+     * arrays being used as scratch space.
+     */
+    private static void sortBucket(long[] srcKeys, long[] srcPayloads, long[] dstKeys, long[] dstPayloads, int from, int to) {
+        if (to - from < 64) {
+            for (int i = from + 1; i < to; i++) {
+                long key = srcKeys[i];
+                long payload = srcPayloads[i];
+                int j = i - 1;
+                for (; j >= from && Long.compareUnsigned(srcKeys[j], key) > 0; j--) {
+                    srcKeys[j + 1] = srcKeys[j];
+                    srcPayloads[j + 1] = srcPayloads[j];
+                }
+                srcKeys[j + 1] = key;
+                srcPayloads[j + 1] = payload;
+            }
+            System.arraycopy(srcKeys, from, dstKeys, from, to - from);
+            System.arraycopy(srcPayloads, from, dstPayloads, from, to - from);
+            return;
+        }
+        int[] count = new int[256];
+        long[] inKeys = srcKeys;
+        long[] inPayloads = srcPayloads;
+        long[] outKeys = dstKeys;
+        long[] outPayloads = dstPayloads;
+        // 7 passes: the last one writes into the destination arrays
+        for (int shift = 0; shift < 56; shift += 8) {
+            Arrays.fill(count, 0);
+            for (int i = from; i < to; i++) {
+                count[(int) (inKeys[i] >>> shift) & 0xFF]++;
+            }
+            int sum = from;
+            for (int d = 0; d < 256; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = from; i < to; i++) {
+                int p = count[(int) (inKeys[i] >>> shift) & 0xFF]++;
+                outKeys[p] = inKeys[i];
+                outPayloads[p] = inPayloads[i];
+            }
+            long[] swapKeys = inKeys;
+            long[] swapPayloads = inPayloads;
+            inKeys = outKeys;
+            inPayloads = outPayloads;
+            outKeys = swapKeys;
+            outPayloads = swapPayloads;
+        }
+    }
+
+    // -------------------------------
+    // Runs and merge
+    // -------------------------------
+
+    private Path writeRun(Path indexFile, long[] keys, long[] payloads, int size) throws IOException {
+        Path dir = indexFile.toAbsolutePath().getParent();
+        Path run = Files.createTempFile(dir, "positions", ".run");
+        try (FileChannel out = FileChannel.open(run, WRITE, TRUNCATE_EXISTING)) {
+            writeEntries(out, ByteBuffer.allocateDirect(IO_BUFFER_SIZE), keys, payloads, size);
+        }
+        return run;
+    }
+
+    private static void writeEntries(FileChannel out, ByteBuffer buffer, long[] keys, long[] payloads, int size) throws IOException {
+        long offset = 0;
+        for (int i = 0; i < size; i++) {
+            if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                offset += drain(out, buffer, offset);
+            }
+            buffer.putLong(keys[i]);
+            buffer.putLong(payloads[i]);
+        }
+        drain(out, buffer, offset);
+    }
+
+    /**
+     * Writes the buffered bytes at a position of the file and clears the buffer.
+     *
+     * @return The number of bytes written.
+     */
+    private static int drain(FileChannel out, ByteBuffer buffer, long offset) throws IOException {
+        buffer.flip();
+        int size = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            offset += out.write(buffer, offset);
+        }
+        buffer.clear();
+        return size;
+    }
+
+    private void merge(List<Path> runs, Path indexFile) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>((a, b) -> {
+            int order = Long.compareUnsigned(a.key, b.key);
+            return order != 0 ? order : Integer.compare(a.number, b.number);
+        });
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            entryCount = 0;
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run, readers.size());
+                readers.add(reader);
+                entryCount += reader.size;
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            try (IndexWriter writer = new IndexWriter(indexFile)) {
+                while (!queue.isEmpty()) {
+                    RunReader reader = queue.poll();
+                    writer.add(reader.key, reader.payload);
+                    if (reader.advance()) {
+                        queue.add(reader);
+                    }
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.channel.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Writes the sorted entries of the index and, as each key ends, the statistics of its
+     * position. The entry table has a known size, so both tables are written in one pass.
+     */
+    private final class IndexWriter implements Closeable {
+        private final FileChannel out;
+        private final ByteBuffer entryBuffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        private final ByteBuffer positionBuffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        private long entryOffset = PositionIndex.HEADER_SIZE;
+        private long positionOffset = PositionIndex.HEADER_SIZE + entryCount * PositionIndex.ENTRY_SIZE;
+
+        private boolean hasKey;
+        private long key;
+        private int games;
+        private int pinkWins;
+        private int blackWins;
+        private int draws;
+        private int[] codes = new int[1024];
+        private int codeCount;
+
+        IndexWriter(Path file) throws IOException {
+            this.out = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING);
+        }
+
+        void add(long entryKey, long payload) throws IOException {
+            if (!hasKey || entryKey != key) {
+                endPosition();
+                hasKey = true;
+                key = entryKey;
+            }
+            if (entryBuffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                entryOffset += drain(out, entryBuffer, entryOffset);
+            }
+            entryBuffer.putLong(entryKey);
+            entryBuffer.putLong(payload);
+
+            games++;
+            switch (PositionIndex.result(payload)) {
+                case PINK_WON -> pinkWins++;
+                case BLACK_WON -> blackWins++;
+                case DRAW -> draws++;
+                case UNFINISHED -> { }
+            }
+            int code = PositionIndex.nextTurnCode(payload);
+            if (code != 0) {
+                if (codeCount == codes.length) {
+                    codes = Arrays.copyOf(codes, codes.length * 2);
+                }
+                codes[codeCount++] = code;
+            }
+        }
+
+        private void endPosition() throws IOException {
+            if (!hasKey) {
+                return;
+            }
+            Arrays.sort(codes, 0, codeCount);
+            int bestCode = 0;
+            int bestCount = 0;
+            for (int i = 0; i < codeCount; ) {
+                int j = i + 1;
+                while (j < codeCount && codes[j] == codes[i]) {
+                    j++;
+                }
+                if (j - i > bestCount) {
+                    bestCode = codes[i];
+                    bestCount = j - i;
+                }
+                i = j;
+            }
+            if (positionBuffer.remaining() < PositionIndex.POSITION_SIZE) {
+                positionOffset += drain(out, positionBuffer, positionOffset);
+            }
+            positionBuffer.putLong(key);
+            positionBuffer.putInt(games);
+            positionBuffer.putInt(pinkWins);
+            positionBuffer.putInt(blackWins);
+            positionBuffer.putInt(draws);
+            positionBuffer.putInt(bestCode);
+            positionBuffer.putInt(bestCount);
+            positionCount++;
+            games = 0;
+            pinkWins = 0;
+            blackWins = 0;
+            draws = 0;
+            codeCount = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                endPosition();
+                drain(out, entryBuffer, entryOffset);
+                drain(out, positionBuffer, positionOffset);
+                ByteBuffer header = ByteBuffer.allocate(PositionIndex.HEADER_SIZE);
+                header.putInt(PositionIndex.MAGIC);
+                header.putInt(rows);
+                header.putInt(cols);
+                header.putInt(0);
+                header.putLong(entryCount);
+                header.putLong(positionCount);
+                header.putLong(gameCount);
+                header.putLong(0);
+                drain(out, header, 0);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    /**
+     * Sequential reader of the entries of a run file.
+     */
+    private static final class RunReader {
+        final FileChannel channel;
+        final int number;
+        final long size;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        long key;
+        long payload;
+
+        RunReader(Path run, int number) throws IOException {
+            this.channel = FileChannel.open(run, READ);
+            this.number = number;
+            this.size = channel.size() / PositionIndex.ENTRY_SIZE;
+            buffer.limit(0);
+        }
+
+        boolean advance() throws IOException {
+            if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                buffer.compact();
+                int read = 0;
+                while (buffer.position() < PositionIndex.ENTRY_SIZE && read >= 0) {
+                    read = channel.read(buffer);
+                }
+                buffer.flip();
+                if (buffer.remaining() < PositionIndex.ENTRY_SIZE) {
+                    return false;
+                }
+            }
+            key = buffer.getLong();
+            payload = buffer.getLong();
+            return true;
+        }
+    }
+}
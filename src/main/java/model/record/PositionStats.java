@@ -0,0 +1,18 @@
+package model.record;
+
+import model.Turn;
+
+/**
+ * Statistics of the archived games that went through a position.
+ *
+ * @param games               The number of games, unfinished ones included.
+ * @param wins                The games won by the player to move in the position.
+ * @param draws               The games ending in a draw.
+ * @param losses              The games lost by the player to move in the position.
+ * @param mostCommonTurn      The turn most often played from the position, packed with
+ *                            {@link Turn}, or {@link Turn#NONE}.
+ * @param mostCommonTurnCount The number of games that played the most common turn.
+ */
+public record PositionStats(long games, long wins, long draws, long losses, int mostCommonTurn, long mostCommonTurnCount) {
+    public static final PositionStats NONE = new PositionStats(0, 0, 0, 0, Turn.NONE, 0);
+}
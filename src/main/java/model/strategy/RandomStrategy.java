@@ -41,17 +41,23 @@ public class RandomStrategy implements ComputerStrategy{
         if (!model.isHasMovedTotem()) {
             Symbol chosenSymbol = chooseRandomSymbol();
             System.out.println("AI chose the symbol: " + chosenSymbol);
-            try {
-                model.setChosenTotem(chosenSymbol);
-            }catch (OxonoException e){
+            if (!isPlayable(model, chosenSymbol)) {
                 chosenSymbol = switchToAlternativeTotem(chosenSymbol);
-                model.setChosenTotem(chosenSymbol);
             }
+            model.setChosenTotem(chosenSymbol);
             return chosenSymbol;
         }
         return model.getChosenTotemSymbol();
     }
 
+    /**
+     * Checks that the AI has pawns of a symbol left and that its totem can move.
+     */
+    private boolean isPlayable(Game model, Symbol symbol) {
+        int remaining = CompactState.of(model).getRemaining(model.getCurrPlayerColor(), symbol);
+        return remaining > 0 && !model.getValidMoves(model.getTotemPos(symbol)).isEmpty();
+    }
+
     /**
      * Moves a totem to a random valid position if needed
      * @param model The Model facade
@@ -65,7 +71,6 @@ public class RandomStrategy implements ComputerStrategy{
             if (!validMoves.isEmpty()){
                 Position totemDest = validMoves.get(random.nextInt(validMoves.size()));
                 model.moveTotem(totem, totemDest);
-                pause(1500);
             }
         }
     }
@@ -100,18 +105,4 @@ public class RandomStrategy implements ComputerStrategy{
         System.out.println("Ai switched to " + alternativeSymbol);
         return alternativeSymbol;
     }
-
-    /**
-     * Pauses execution for a specified duration.
-     *
-     * @param milliseconds The pause duration in milliseconds.
-     */
-    private void pause(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("AI turn was interrupted", e);
-        }
-    }
 }
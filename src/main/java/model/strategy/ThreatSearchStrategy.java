@@ -0,0 +1,35 @@
+package model.strategy;
+
+import model.*;
+import model.analysis.ThreatSpaceSearch;
+
+/**
+ * ThreatSearchStrategy represents an AI that looks for forced wins before playing.
+ * The AI:
+ * - Plays a forced win when the threat-space search finds one.
+ * - Otherwise answers the opponent's threats with a turn that leaves no immediate win.
+ * - Otherwise plays like {@link RandomStrategy}.
+ */
+public class ThreatSearchStrategy implements ComputerStrategy {
+    private final ThreatSpaceSearch search = new ThreatSpaceSearch();
+    private final ComputerStrategy fallback = new RandomStrategy();
+
+    /**
+     * Executes the AI's turn.
+     *
+     * @param model The model facade for interacting with the game state.
+     */
+    @Override
+    public void playTurn(Game model) {
+        CompactState state = CompactState.of(model);
+        int turn = search.findForcedWin(state);
+        if (turn == Turn.NONE && state.findWinningTurn(CompactState.opponent(state.getToMove())) != Turn.NONE) {
+            turn = search.findSafeTurn(state);
+        }
+        if (turn == Turn.NONE) {
+            fallback.playTurn(model);
+            return;
+        }
+        model.playTurn(turn);
+    }
+}
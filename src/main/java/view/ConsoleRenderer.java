@@ -0,0 +1,366 @@
+package view;
+
+import model.Color;
+import model.Game;
+import model.TileState;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Draws the board and the player status on an ANSI terminal.
+ * <p>
+ * A frame is built into one reusable buffer and written with a single call. The cells are
+ * copied from strings cached per {@link TileState}, only the number of an empty tile is
+ * formatted. In incremental mode the first frame clears the screen, and the next ones move the
+ * cursor to repaint only the cells that changed since the previous frame, the frame around the
+ * board when the player changes, and the status lines. Otherwise, for example when the output
+ * is not a terminal, every frame is written in full after the previous one.
+ * <p>
+ * The cursor movements address the lines of the screen, so they are only used while the frame
+ * has not scrolled: the frame and the lines written below it, see {@link #linesWritten(int)},
+ * must fit the height of the terminal. Otherwise the next frame clears the screen and is drawn
+ * in full, as is every frame of a board taller than the terminal.
+ * <p>
+ * The frame around the board has the color of the player to move, the lines between the tiles
+ * are gray, so that a change of player repaints the frame only.
+ */
+public final class ConsoleRenderer {
+    private static final int CELL_WIDTH = 7;
+    private static final int STATUS_LINES = 3;
+    private static final int DEFAULT_TERMINAL_LINES = 24;
+    private static final TileState[] TILE_STATES = TileState.values();
+    private static final String RESET = "\033[0m";
+    private static final String GRID_COLOR = "\033[38;2;110;110;110m";
+    private static final String MESSAGE_COLOR = "\033[32m";
+    private static final String PINK_COLOR = "\033[38;2;240;128;160m";
+    private static final String BLACK_COLOR = "\033[38;2;192;192;192m";
+    private static final byte[] BORDER_SEGMENT = ascii("+-------");
+    private static final byte[] CLEAR_SCREEN = ascii("\033[H\033[2J");
+    private static final byte[] CLEAR_LINE = ascii("\033[2K");
+    private static final byte[] CLEAR_BELOW = ascii("\033[J");
+
+    private final PrintStream out;
+    private final boolean incremental;
+    private final int terminalLines;
+    // The inside of a tile for each state, colors included; an empty tile only has its color
+    private byte[][] cells;
+    private byte[] frame = new byte[4096];
+    private int length;
+    private byte[] shown = new byte[0];
+    private byte[] next = new byte[0];
+    private int rows;
+    private int cols;
+    private Color shownPlayer;
+    private boolean valid;
+    // The lines written below the last frame
+    private int linesBelow;
+
+    /**
+     * Creates a renderer for a terminal of the height given by the {@code LINES} environment
+     * variable, or else by {@code stty size} in incremental mode, or else of 24 lines.
+     *
+     * @param out         The terminal.
+     * @param incremental {@code true} to repaint the changes of each frame in place with cursor
+     *                    movements, {@code false} to write every frame in full.
+     */
+    public ConsoleRenderer(PrintStream out, boolean incremental) {
+        this(out, incremental, incremental ? queryTerminalLines() : DEFAULT_TERMINAL_LINES);
+    }
+
+    /**
+     * @param out           The terminal.
+     * @param incremental   {@code true} to repaint the changes of each frame in place with
+     *                      cursor movements, {@code false} to write every frame in full.
+     * @param terminalLines The height of the terminal.
+     */
+    public ConsoleRenderer(PrintStream out, boolean incremental, int terminalLines) {
+        this.out = out;
+        this.incremental = incremental;
+        this.terminalLines = terminalLines;
+    }
+
+    /**
+     * Makes the next frame clear the screen and draw everything, for example after other output
+     * scrolled the terminal.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Counts lines written below the frame by other output, including the lines typed by the
+     * user, so that the next frame is drawn in full once they have scrolled the terminal.
+     *
+     * @param count The number of lines.
+     */
+    public void linesWritten(int count) {
+        linesBelow += count;
+    }
+
+    /**
+     * Draws the board and the status of a game.
+     *
+     * @param game The game.
+     */
+    public void render(Game game) {
+        if (cells == null) {
+            cells = createCells(game);
+        }
+        int size = game.getRows() * game.getCols();
+        if (next.length != size) {
+            next = new byte[size];
+            shown = new byte[size];
+            valid = false;
+        }
+        rows = game.getRows();
+        cols = game.getCols();
+        if (2 * rows + 1 + STATUS_LINES + linesBelow >= terminalLines) {
+            // The frame has scrolled, or it will once the next line is written below it
+            valid = false;
+        }
+        game.copyTileStates(next);
+        Color player = game.getCurrPlayerColor();
+
+        length = 0;
+        if (incremental && valid) {
+            appendChanges(player);
+        } else {
+            if (incremental) {
+                append(CLEAR_SCREEN);
+            }
+            appendBoard(player);
+        }
+        appendStatus(game);
+
+        byte[] previous = shown;
+        shown = next;
+        next = previous;
+        shownPlayer = player;
+        valid = true;
+        linesBelow = 0;
+        out.write(frame, 0, length);
+        out.flush();
+    }
+
+    private void appendBoard(Color player) {
+        String playerColor = playerColorOf(player);
+        for (int row = 0; row < rows; row++) {
+            appendBorderLine(row, playerColor);
+            append(playerColor);
+            append('|');
+            for (int col = 0; col < cols; col++) {
+                appendCell(row * cols + col);
+                append(col == cols - 1 ? playerColor : GRID_COLOR);
+                append('|');
+            }
+            append(RESET);
+            append('\n');
+        }
+        appendBorderLine(rows, playerColor);
+    }
+
+    private void appendBorderLine(int line, String playerColor) {
+        append(playerColor);
+        if (line == 0 || line == rows) {
+            for (int col = 0; col < cols; col++) {
+                append(BORDER_SEGMENT);
+            }
+        } else {
+            append('+');
+            append(GRID_COLOR);
+            for (int col = 0; col < cols; col++) {
+                append(BORDER_SEGMENT, col == 0 ? 1 : 0);
+            }
+            append(playerColor);
+        }
+        append('+');
+        append(RESET);
+        append('\n');
+    }
+
+    private void appendChanges(Color player) {
+        for (int cell = 0; cell < next.length; cell++) {
+            if (next[cell] != shown[cell]) {
+                moveTo(2 * (cell / cols) + 2, (CELL_WIDTH + 1) * (cell % cols) + 2);
+                appendCell(cell);
+            }
+        }
+        if (player != shownPlayer) {
+            String playerColor = playerColorOf(player);
+            moveTo(1, 1);
+            appendBorderLine(0, playerColor);
+            int right = (CELL_WIDTH + 1) * cols + 1;
+            for (int line = 2; line <= 2 * rows; line++) {
+                char edge = line % 2 == 0 ? '|' : '+';
+                moveTo(line, 1);
+                append(playerColor);
+                append(edge);
+                moveTo(line, right);
+                append(edge);
+                append(RESET);
+            }
+            moveTo(2 * rows + 1, 1);
+            appendBorderLine(rows, playerColor);
+        }
+        moveTo(2 * rows + 2, 1);
+    }
+
+    private void appendStatus(Game game) {
+        appendStatusLine("Tiles left: " + game.getEmptyTileCount());
+        appendStatusLine(game.getCurrPlayerColor() + "'s turn.");
+        appendStatusLine("Pawns left ——> 'X': " + game.remainingX() + ", 'O': " + game.remainingO());
+        if (incremental) {
+            // Messages and the prompt follow the frame, the previous ones are erased
+            append(CLEAR_BELOW);
+        }
+    }
+
+    private void appendStatusLine(String text) {
+        if (incremental) {
+            append(CLEAR_LINE);
+        }
+        append(MESSAGE_COLOR);
+        append(text);
+        append(RESET);
+        append('\n');
+    }
+
+    private void appendCell(int cell) {
+        byte state = next[cell];
+        append(cells[state]);
+        if (state == TileState.EMPTY.ordinal()) {
+            int number = cell + 1;
+            int digits = digitsOf(number);
+            int padding = (CELL_WIDTH - digits) / 2;
+            appendSpaces(padding);
+            appendInt(number);
+            appendSpaces(CELL_WIDTH - padding - digits);
+            append(RESET);
+        }
+    }
+
+    private void moveTo(int line, int column) {
+        append('\033');
+        append('[');
+        appendInt(line);
+        append(';');
+        appendInt(column);
+        append('H');
+    }
+
+    private void appendSpaces(int count) {
+        ensureCapacity(count);
+        Arrays.fill(frame, length, length + count, (byte) ' ');
+        length += count;
+    }
+
+    private void appendInt(int value) {
+        int digits = digitsOf(value);
+        ensureCapacity(digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            frame[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    private void append(char c) {
+        ensureCapacity(1);
+        frame[length++] = (byte) c;
+    }
+
+    private void append(String text) {
+        append(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void append(byte[] bytes) {
+        append(bytes, 0);
+    }
+
+    private void append(byte[] bytes, int from) {
+        ensureCapacity(bytes.length - from);
+        System.arraycopy(bytes, from, frame, length, bytes.length - from);
+        length += bytes.length - from;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > frame.length) {
+            frame = Arrays.copyOf(frame, Math.max(2 * frame.length, length + extra));
+        }
+    }
+
+    private static byte[][] createCells(Game game) {
+        byte[][] cells = new byte[TILE_STATES.length][];
+        for (TileState state : TILE_STATES) {
+            String color = game.getTileColor(state);
+            cells[state.ordinal()] = state == TileState.EMPTY
+                    ? ascii(color)
+                    : ascii(color + "   " + symbolOf(state) + "   " + RESET);
+        }
+        return cells;
+    }
+
+    private static int queryTerminalLines() {
+        String lines = System.getenv("LINES");
+        if (lines != null) {
+            return terminalLinesOf(lines);
+        }
+        // Shells rarely export LINES, the size is asked to the terminal instead
+        try {
+            Process stty = new ProcessBuilder("stty", "size")
+                    .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/tty")))
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String size = new String(stty.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+            return stty.waitFor() == 0 ? terminalLinesOf(size) : DEFAULT_TERMINAL_LINES;
+        } catch (IOException e) {
+            return DEFAULT_TERMINAL_LINES;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return DEFAULT_TERMINAL_LINES;
+        }
+    }
+
+    /**
+     * @param size The number of lines of the terminal, followed by its number of columns as
+     *             written by {@code stty size}.
+     * @return The number of lines, 24 if the size cannot be read.
+     */
+    static int terminalLinesOf(String size) {
+        String[] fields = size.strip().split("\\s+");
+        try {
+            int lines = Integer.parseInt(fields[0]);
+            return lines > 0 ? lines : DEFAULT_TERMINAL_LINES;
+        } catch (NumberFormatException e) {
+            return DEFAULT_TERMINAL_LINES;
+        }
+    }
+
+    private static int digitsOf(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static String playerColorOf(Color color) {
+        return color == Color.PINK ? PINK_COLOR : BLACK_COLOR;
+    }
+
+    private static String symbolOf(TileState state) {
+        return switch (state) {
+            case TOTEM_X, PINK_X, BLACK_X -> "X";
+            default -> "O";
+        };
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,59 +1,26 @@
 package view;
 
-import model.*;
+import model.Game;
 
 import java.util.Scanner;
 
 public class ConsoleView {
 
     private final Scanner scanner = new Scanner(System.in);
-    private static final int CELL_WIDTH = 7; // Standard width for cells
+    // Repaints in place on a terminal, appends whole frames when the output is redirected
+    private final ConsoleRenderer renderer = new ConsoleRenderer(System.out, System.console() != null);
 
     // -------------------------------
     // Display Methods
     // -------------------------------
 
     /**
-     * Displays the game board
+     * Displays the game board, the current player's turn and the remaining pawns.
      *
      * @param game The current game instance.
      */
-    public void displayBoard(Game game) {
-        int rows = game.getRows();
-        int cols = game.getCols();
-        String playerColor = getPlayerColor(game.getCurrPlayerColor());
-
-        int tileCounter = 1;
-        for (int row = 0; row < rows; row++) {
-            printRowBorder(cols, playerColor);
-            for (int col = 0; col < cols; col++) {
-                Position position = new Position(row, col);
-
-                // Determine tile color
-                String tileColor = game.getTileColor(position);
-
-                // Determine tile content
-                String content = game.isTileEmpty(position)
-                        ? String.valueOf(tileCounter) // Tile number for empty tiles
-                        : game.getTileSymbol(position);
-
-                System.out.print(playerColor + "|" + tileColor + padContent(content) + "\033[0m");
-                tileCounter++;
-            }
-            System.out.println(playerColor + "|");
-        }
-        printRowBorder(cols, playerColor);
-        showMessage("Tiles left: "+game.getEmptyTileCount());
-    }
-
-    /**
-     * Displays the current player's turn and the remaining pawns.
-     *
-     * @param game The current game instance.
-     */
-    public void displayPlayerStatus(Game game) {
-        showMessage(game.getCurrPlayerColor() + "'s turn.");
-        showMessage("Pawns left ——> 'X': " + game.remainingX() + ", 'O': " + game.remainingO());
+    public void displayGame(Game game) {
+        renderer.render(game);
     }
 
     /**
@@ -73,6 +40,8 @@ public class ConsoleView {
      */
     public String getUserInput() {
         System.out.print("Enter your command: ");
+        // The line typed by the user
+        renderer.linesWritten(1);
         return scanner.nextLine().trim();
     }
 
@@ -86,6 +55,7 @@ public class ConsoleView {
      */
     public void showMessage(String message) {
         System.out.println("\033[32m" + message + "\033[0m");
+        renderer.linesWritten(linesOf(message));
     }
 
     /**
@@ -95,30 +65,10 @@ public class ConsoleView {
      */
     public void showError(String message) {
         System.out.println("\033[91mError: " + message + "\033[0m");
+        renderer.linesWritten(linesOf(message));
     }
 
-    // -------------------------------
-    // Helper Methods
-    // -------------------------------
-    /**
-     * Gets the ANSI color code for the current player's color.
-     */
-    private String getPlayerColor(Color color) {
-        return (color == Color.PINK) ? "\033[38;2;240;128;160m" : "\033[38;2;192;192;192m";
-    }
-
-    /**
-     * Pads the content of a tile to center-align it within the cell.
-     */
-    private String padContent(String content) {
-        int padding = (CELL_WIDTH - content.length()) / 2;
-        return " ".repeat(padding) + content + " ".repeat(CELL_WIDTH - padding - content.length());
-    }
-
-    /**
-     * Prints the border of a row.
-     */
-    private void printRowBorder(int cols, String playerColor) {
-        System.out.println(playerColor + "+-------".repeat(cols) + "+" + "\033[0m");
+    private static int linesOf(String message) {
+        return (int) message.chars().filter(c -> c == '\n').count() + 1;
     }
 }
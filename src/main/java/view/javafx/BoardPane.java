@@ -1,54 +1,55 @@
 package view.javafx;
 
 import javafx.geometry.Insets;
-import javafx.scene.image.Image;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
 import model.Game;
+import model.GameChange;
 import model.Position;
 import model.TileState;
 
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.function.BiConsumer;
 
-public class BoardPane extends GridPane {
+public class BoardPane extends GridPane implements BoardView {
+    private static final TileState[] TILE_STATES = TileState.values();
+
     private final int rows;
     private final int cols;
     private final Tile[][] grid;
-
-    private final Image totemXImage = loadImage("images/totem_X.png");
-    private final Image totemOImage = loadImage("images/totem_O.png");
-    private final Image pinkXPawnImage = loadImage("images/PINK_X.png");
-    private final Image pinkOPawnImage = loadImage("images/PINK_O.png");
-    private final Image blackXPawnImage = loadImage("images/BLACK_X.png");
-    private final Image blackOPawnImage = loadImage("images/BLACK_O.png");
+    private final byte[] tileStates;
+    private final byte[] nextStates;
+    private final List<Tile> highlighted;
+    private final MoveAnimator animator;
 
     public BoardPane(int rows, int cols){
         this.rows = rows;
         this.cols = cols;
         this.grid = new Tile[rows][cols];
+        this.tileStates = new byte[rows * cols];
+        this.nextStates = new byte[rows * cols];
+        this.highlighted = new ArrayList<>();
+        this.animator = new MoveAnimator();
 
         initializeGrid();
         configureBoardStyle();
     }
 
-    private Image loadImage(String path){
-        try {
-            return new Image(path);
-        } catch (IllegalArgumentException | NullPointerException e) {
-            System.out.println("Invalid image path: "+path);
-            return createPlaceHolderImage();
-        }
-    }
-
-    private Image createPlaceHolderImage() {
-        return new Image("images/placeHolder.png");
+    @Override
+    public Region getRegion() {
+        return this;
     }
 
     private void initializeGrid() {
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
                 Tile tile = new Tile();
-                tile.setStyle(generateTileStyle(row, col));
+                tile.setEdges(row == rows - 1, col == cols - 1);
 
                 tile.prefWidthProperty().bind(this.widthProperty().divide(cols));
                 tile.prefHeightProperty().bind(this.heightProperty().divide(rows));
@@ -60,10 +61,15 @@ public class BoardPane extends GridPane {
     }
 
     private void configureBoardStyle() {
+        URL cssUrl = getClass().getResource("/styles/board.css");
+        if (cssUrl != null){
+            getStylesheets().add(cssUrl.toExternalForm());
+        }
         setPadding(new Insets(25));
         setStyle("-fx-border-color: #4cd4ff; -fx-border-width: 20px; -fx-background-color: #643b7d");
     }
 
+    @Override
     public void setOnTileClick(BiConsumer<Integer, Integer> onTileClick){
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
@@ -74,65 +80,125 @@ public class BoardPane extends GridPane {
         }
     }
 
+    @Override
     public void updateBoard(Game game){
+        animator.finish();
+        game.copyTileStates(tileStates);
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
-                TileState state = game.getTileState(new Position(row, col));
+                TileState state = TILE_STATES[tileStates[row * cols + col]];
                 Tile tile = grid[row][col];
-                tile.setContent(getImageForState(state));
+                tile.setContent(state);
             }
         }
     }
 
-    private String generateTileStyle(int row, int col) {
-        StringBuilder style = new StringBuilder("-fx-background-color: #643b7d;");
-
-        if (row != rows - 1) {
-            style.append("-fx-border-width: 0 0 2px 0; -fx-border-color: #904593;");
+    /**
+     * Updates only the tiles that changed, so the cost does not depend on the board size.
+     * The moved totems slide from their previous tile and the inserted pawns drop in place,
+     * see {@link MoveAnimator}.
+     *
+     * @param game   The game.
+     * @param change The change notified by the game.
+     */
+    @Override
+    public void updateBoard(Game game, GameChange change){
+        animator.makeRoom();
+        int fromX = -1;
+        int fromO = -1;
+        for (int i = 0; i < change.getChangedCellCount(); i++) {
+            int cell = change.getChangedCell(i);
+            TileState before = TILE_STATES[tileStates[cell]];
+            TileState after = game.getTileState(cell);
+            nextStates[cell] = (byte) after.ordinal();
+            if (before != after && before == TileState.TOTEM_X) {
+                fromX = cell;
+            } else if (before != after && before == TileState.TOTEM_O) {
+                fromO = cell;
+            }
         }
-        if (col != cols - 1) {
-            if (row != rows - 1) {
-                style.append("-fx-border-width: 0 2px 2px 0; -fx-border-color: #904593;");
-            } else {
-                style.append("-fx-border-width: 0 2px 0 0; -fx-border-color: #904593 ;");
+        for (int i = 0; i < change.getChangedCellCount(); i++) {
+            int cell = change.getChangedCell(i);
+            int row = cell / cols;
+            int col = cell % cols;
+            TileState before = TILE_STATES[tileStates[cell]];
+            TileState after = TILE_STATES[nextStates[cell]];
+            tileStates[cell] = nextStates[cell];
+            Tile tile = grid[row][col];
+            tile.setContent(after);
+            if (before == after) {
+                continue;
+            }
+            int from = after == TileState.TOTEM_X ? fromX : after == TileState.TOTEM_O ? fromO : -1;
+            if (from >= 0) {
+                // Drawn over the tiles it crosses
+                tile.toFront();
+                animator.slide(tile.getSprite(), (from % cols - col) * tile.getWidth(), (from / cols - row) * tile.getHeight());
+            } else if (before == TileState.EMPTY && after != TileState.EMPTY) {
+                animator.drop(tile.getSprite());
             }
         }
+        animator.commit();
+    }
+
+    @Override
+    public void highLightInvalidTile(Position pos){
+        highlight(List.of(pos), Tile.Highlight.INVALID);
+    }
 
-        return style.toString();
+    @Override
+    public void highLightValidTiles(List<Position> positions){
+        highlight(positions, Tile.Highlight.VALID);
     }
 
-    private Image getImageForState(TileState state) {
-        return switch (state){
-            case EMPTY -> null;
-            case TOTEM_X -> totemXImage;
-            case TOTEM_O -> totemOImage;
-            case PINK_X -> pinkXPawnImage;
-            case PINK_O -> pinkOPawnImage;
-            case BLACK_X -> blackXPawnImage;
-            case BLACK_O -> blackOPawnImage;
-        };
+    @Override
+    public void clearHighlights() {
+        highlight(List.of(), Tile.Highlight.NONE);
     }
 
-    public void highLightInvalidTile(Position pos){
-        clearHighlights();
-        grid[pos.x()][pos.y()].setStyle("-fx-background-color: #953838;");
+    /**
+     * Highlights some tiles instead of the highlighted ones, changing only the tiles whose highlight differs.
+     */
+    private void highlight(List<Position> positions, Tile.Highlight highlight) {
+        Set<Tile> next = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Position pos : positions) {
+            Tile tile = grid[pos.x()][pos.y()];
+            tile.setHighlight(highlight);
+            next.add(tile);
+        }
+        for (Tile tile : highlighted) {
+            if (!next.contains(tile)) {
+                tile.setHighlight(Tile.Highlight.NONE);
+            }
+        }
+        highlighted.clear();
+        highlighted.addAll(next);
     }
 
-    public void highLightValidTiles(List<Position> positions){
-        clearHighlights();
-        for (Position pos : positions){
-            grid[pos.x()][pos.y()].setStyle("-fx-background-color: green; -fx-border-color: white");
+    /**
+     * Paints the analysis scores over the tiles.
+     *
+     * @param scores The normalized score of each tile, row by row, {@code NaN} for no score.
+     */
+    @Override
+    public void showHeatmap(double[] scores) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                grid[row][col].setHeat(scores[row * cols + col]);
+            }
         }
     }
 
-    public void clearHighlights() {
+    @Override
+    public void clearHeatmap() {
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
-                grid[row][col].setStyle(generateTileStyle(row, col));
+                grid[row][col].setHeat(Double.NaN);
             }
         }
     }
 
+    @Override
     public void disableBoardInteraction() {
         setDisable(true);
     }
@@ -0,0 +1,71 @@
+package view.javafx;
+
+import javafx.scene.layout.Region;
+import model.Game;
+import model.GameChange;
+import model.Position;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * The board as drawn by the JavaFX front end.
+ * <p>
+ * Small boards are drawn by {@link BoardPane}, one node per tile. From {@link #CANVAS_THRESHOLD}
+ * tiles, {@link CanvasBoardPane} draws the tiles on a single canvas instead, since the cost of
+ * laying out one node per tile grows with the board.
+ */
+public interface BoardView {
+    /**
+     * Number of tiles from which the board is drawn on a canvas.
+     */
+    int CANVAS_THRESHOLD = 400;
+
+    /**
+     * Creates the view suited to a board size.
+     *
+     * @param rows Number of rows of the board.
+     * @param cols Number of columns of the board.
+     * @return A {@link BoardPane} below {@link #CANVAS_THRESHOLD} tiles, a {@link CanvasBoardPane} from it.
+     */
+    static BoardView create(int rows, int cols) {
+        if (rows * cols >= CANVAS_THRESHOLD) {
+            return new CanvasBoardPane(rows, cols);
+        }
+        return new BoardPane(rows, cols);
+    }
+
+    /**
+     * @return The node to add to the scene.
+     */
+    Region getRegion();
+
+    void setOnTileClick(BiConsumer<Integer, Integer> onTileClick);
+
+    /**
+     * Redraws every tile.
+     */
+    void updateBoard(Game game);
+
+    /**
+     * Redraws the tiles that changed.
+     */
+    void updateBoard(Game game, GameChange change);
+
+    void highLightInvalidTile(Position pos);
+
+    void highLightValidTiles(List<Position> positions);
+
+    void clearHighlights();
+
+    /**
+     * Paints the analysis scores over the tiles.
+     *
+     * @param scores The normalized score of each tile, row by row, {@code NaN} for no score.
+     */
+    void showHeatmap(double[] scores);
+
+    void clearHeatmap();
+
+    void disableBoardInteraction();
+}
@@ -0,0 +1,358 @@
+package view.javafx;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import model.Game;
+import model.GameChange;
+import model.Position;
+import model.TileState;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Board drawn on a single {@link Canvas}, for boards too large for one node per tile.
+ * <p>
+ * The view keeps what each tile shows: its state, highlight and heat. A change marks the tiles
+ * that now look different as dirty, and only those are drawn again, with the sprites of the
+ * {@link SpriteCache} scaled to the tile size. Tiles outside the scene are skipped; everything visible is drawn again when the
+ * board is resized or moved. A click is mapped to its tile by dividing its coordinates by the
+ * tile size.
+ */
+public class CanvasBoardPane extends Region implements BoardView {
+    private static final TileState[] TILE_STATES = TileState.values();
+    private static final Color BACKGROUND = Color.web("#643b7d");
+    private static final Color GRID = Color.web("#904593");
+    private static final Color VALID = Color.GREEN;
+    private static final Color INVALID = Color.web("#953838");
+    private static final double GRID_WIDTH = 2;
+    private static final double CONTENT_RATIO = 0.8;
+    private static final double HEAT_OPACITY = 0.6;
+    private static final int HEAT_LEVELS = 32;
+    private static final Color[] HEAT_COLORS = createHeatColors();
+
+    private static final byte NO_HIGHLIGHT = 0;
+    private static final byte VALID_HIGHLIGHT = 1;
+    private static final byte INVALID_HIGHLIGHT = 2;
+    private static final byte NO_HEAT = -1;
+
+    private final int rows;
+    private final int cols;
+    private final Canvas canvas;
+
+    // What each tile shows, row by row
+    private final byte[] tileStates;
+    private final byte[] nextStates;
+    private final byte[] highlights;
+    private final byte[] heatLevels;
+
+    // Tiles to draw again, each listed once, unless the whole board is
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+    private boolean allDirty;
+
+    private SpriteCache.Atlas sprites;
+    private double tileWidth;
+    private double tileHeight;
+
+    public CanvasBoardPane(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.canvas = new Canvas();
+        this.tileStates = new byte[rows * cols];
+        this.nextStates = new byte[rows * cols];
+        this.highlights = new byte[rows * cols];
+        this.heatLevels = new byte[rows * cols];
+        this.dirty = new boolean[rows * cols];
+        this.dirtyCells = new int[rows * cols];
+        Arrays.fill(heatLevels, NO_HEAT);
+
+        getChildren().add(canvas);
+        configureBoardStyle();
+        localToSceneTransformProperty().addListener((observable, oldTransform, newTransform) -> redrawAll());
+    }
+
+    private void configureBoardStyle() {
+        setPadding(new Insets(25));
+        setStyle("-fx-border-color: #4cd4ff; -fx-border-width: 20px; -fx-background-color: #643b7d");
+    }
+
+    @Override
+    public Region getRegion() {
+        return this;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        Insets insets = getInsets();
+        double width = Math.max(0, getWidth() - insets.getLeft() - insets.getRight());
+        double height = Math.max(0, getHeight() - insets.getTop() - insets.getBottom());
+        canvas.relocate(insets.getLeft(), insets.getTop());
+        if (width != canvas.getWidth() || height != canvas.getHeight()) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            tileWidth = width / cols;
+            tileHeight = height / rows;
+            redrawAll();
+        }
+    }
+
+    @Override
+    public void setOnTileClick(BiConsumer<Integer, Integer> onTileClick) {
+        canvas.setOnMouseClicked(e -> {
+            int row = (int) (e.getY() / tileHeight);
+            int col = (int) (e.getX() / tileWidth);
+            if (row >= 0 && row < rows && col >= 0 && col < cols) {
+                onTileClick.accept(row, col);
+            }
+        });
+    }
+
+    @Override
+    public void updateBoard(Game game) {
+        game.copyTileStates(nextStates);
+        for (int cell = 0; cell < nextStates.length; cell++) {
+            if (tileStates[cell] != nextStates[cell]) {
+                tileStates[cell] = nextStates[cell];
+                markDirty(cell);
+            }
+        }
+        draw();
+    }
+
+    @Override
+    public void updateBoard(Game game, GameChange change) {
+        for (int i = 0; i < change.getChangedCellCount(); i++) {
+            int cell = change.getChangedCell(i);
+            byte state = (byte) game.getTileState(cell).ordinal();
+            if (tileStates[cell] != state) {
+                tileStates[cell] = state;
+                markDirty(cell);
+            }
+        }
+        draw();
+    }
+
+    @Override
+    public void highLightInvalidTile(Position pos) {
+        resetHighlights();
+        setHighlight(pos.x() * cols + pos.y(), INVALID_HIGHLIGHT);
+        draw();
+    }
+
+    @Override
+    public void highLightValidTiles(List<Position> positions) {
+        resetHighlights();
+        for (Position pos : positions) {
+            setHighlight(pos.x() * cols + pos.y(), VALID_HIGHLIGHT);
+        }
+        draw();
+    }
+
+    @Override
+    public void clearHighlights() {
+        resetHighlights();
+        draw();
+    }
+
+    private void resetHighlights() {
+        for (int cell = 0; cell < highlights.length; cell++) {
+            setHighlight(cell, NO_HIGHLIGHT);
+        }
+    }
+
+    private void setHighlight(int cell, byte highlight) {
+        if (highlights[cell] != highlight) {
+            highlights[cell] = highlight;
+            markDirty(cell);
+        }
+    }
+
+    @Override
+    public void showHeatmap(double[] scores) {
+        for (int cell = 0; cell < heatLevels.length; cell++) {
+            setHeatLevel(cell, heatLevelOf(scores[cell]));
+        }
+        draw();
+    }
+
+    @Override
+    public void clearHeatmap() {
+        for (int cell = 0; cell < heatLevels.length; cell++) {
+            setHeatLevel(cell, NO_HEAT);
+        }
+        draw();
+    }
+
+    private void setHeatLevel(int cell, byte level) {
+        if (heatLevels[cell] != level) {
+            heatLevels[cell] = level;
+            markDirty(cell);
+        }
+    }
+
+    private static byte heatLevelOf(double score) {
+        if (Double.isNaN(score)) {
+            return NO_HEAT;
+        }
+        return (byte) Math.round(Math.max(0, Math.min(1, score)) * (HEAT_LEVELS - 1));
+    }
+
+    @Override
+    public void disableBoardInteraction() {
+        setDisable(true);
+    }
+
+    // -------------------------------
+    // Drawing
+    // -------------------------------
+
+    private void markDirty(int cell) {
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+
+    private void redrawAll() {
+        allDirty = true;
+        draw();
+    }
+
+    /**
+     * Draws the dirty tiles that are in the scene, and forgets every dirty tile: the hidden ones
+     * are drawn when the board moves or is resized.
+     */
+    private void draw() {
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            return;
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        Bounds visible = visibleBounds();
+        int firstRow = Math.max(0, (int) (visible.getMinY() / tileHeight));
+        int lastRow = Math.min(rows - 1, (int) (visible.getMaxY() / tileHeight));
+        int firstCol = Math.max(0, (int) (visible.getMinX() / tileWidth));
+        int lastCol = Math.min(cols - 1, (int) (visible.getMaxX() / tileWidth));
+        loadSprites();
+
+        if (allDirty) {
+            gc.setFill(BACKGROUND);
+            gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            // Empty tiles are the background, the grid is drawn once over the whole board
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = firstCol; col <= lastCol; col++) {
+                    int cell = row * cols + col;
+                    if (tileStates[cell] != 0 || highlights[cell] != NO_HIGHLIGHT || heatLevels[cell] != NO_HEAT) {
+                        drawTile(gc, row, col);
+                    }
+                }
+            }
+            gc.setFill(GRID);
+            for (int row = 1; row < rows; row++) {
+                gc.fillRect(0, Math.floor(row * tileHeight) - GRID_WIDTH, canvas.getWidth(), GRID_WIDTH);
+            }
+            for (int col = 1; col < cols; col++) {
+                gc.fillRect(Math.floor(col * tileWidth) - GRID_WIDTH, 0, GRID_WIDTH, canvas.getHeight());
+            }
+            allDirty = false;
+        } else {
+            for (int i = 0; i < dirtyCount; i++) {
+                int row = dirtyCells[i] / cols;
+                int col = dirtyCells[i] % cols;
+                if (row >= firstRow && row <= lastRow && col >= firstCol && col <= lastCol) {
+                    drawTile(gc, row, col);
+                }
+            }
+        }
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyCells[i]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    private Bounds visibleBounds() {
+        Bounds board = canvas.getLayoutBounds();
+        Scene scene = getScene();
+        if (scene == null) {
+            return board;
+        }
+        Bounds view = canvas.sceneToLocal(new BoundingBox(0, 0, scene.getWidth(), scene.getHeight()));
+        return new BoundingBox(Math.max(board.getMinX(), view.getMinX()), Math.max(board.getMinY(), view.getMinY()),
+                Math.max(0, Math.min(board.getMaxX(), view.getMaxX()) - Math.max(board.getMinX(), view.getMinX())),
+                Math.max(0, Math.min(board.getMaxY(), view.getMaxY()) - Math.max(board.getMinY(), view.getMinY())));
+    }
+
+    private void drawTile(GraphicsContext gc, int row, int col) {
+        int cell = row * cols + col;
+        double x = Math.floor(col * tileWidth);
+        double y = Math.floor(row * tileHeight);
+        double width = Math.floor((col + 1) * tileWidth) - x;
+        double height = Math.floor((row + 1) * tileHeight) - y;
+
+        gc.setFill(switch (highlights[cell]) {
+            case VALID_HIGHLIGHT -> VALID;
+            case INVALID_HIGHLIGHT -> INVALID;
+            default -> BACKGROUND;
+        });
+        gc.fillRect(x, y, width, height);
+        if (highlights[cell] == VALID_HIGHLIGHT) {
+            gc.setStroke(Color.WHITE);
+            gc.setLineWidth(1);
+            gc.strokeRect(x + 0.5, y + 0.5, width - 1, height - 1);
+        }
+        if (heatLevels[cell] != NO_HEAT) {
+            gc.setGlobalAlpha(HEAT_OPACITY);
+            gc.setFill(HEAT_COLORS[heatLevels[cell]]);
+            gc.fillRect(x, y, width, height);
+            gc.setGlobalAlpha(1);
+        }
+        if (sprites != null) {
+            sprites.draw(gc, TILE_STATES[tileStates[cell]],
+                    x + Math.floor((width - sprites.getWidth()) / 2), y + Math.floor((height - sprites.getHeight()) / 2));
+        }
+        drawGridLines(gc, row, col);
+    }
+
+    private void drawGridLines(GraphicsContext gc, int row, int col) {
+        double x = Math.floor(col * tileWidth);
+        double y = Math.floor(row * tileHeight);
+        double width = Math.floor((col + 1) * tileWidth) - x;
+        double height = Math.floor((row + 1) * tileHeight) - y;
+        gc.setFill(GRID);
+        if (row != rows - 1) {
+            gc.fillRect(x, y + height - GRID_WIDTH, width, GRID_WIDTH);
+        }
+        if (col != cols - 1) {
+            gc.fillRect(x + width - GRID_WIDTH, y, GRID_WIDTH, height);
+        }
+    }
+
+    /**
+     * Gets the sprites of the current tile size, if it changed.
+     */
+    private void loadSprites() {
+        int width = (int) (tileWidth * CONTENT_RATIO);
+        int height = (int) (tileHeight * CONTENT_RATIO);
+        if (width < 1 || height < 1) {
+            sprites = null;
+        } else if (sprites == null || sprites.getWidth() != width || sprites.getHeight() != height) {
+            sprites = SpriteCache.shared().get(width, height);
+        }
+    }
+
+    private static Color[] createHeatColors() {
+        Color[] colors = new Color[HEAT_LEVELS];
+        for (int i = 0; i < HEAT_LEVELS; i++) {
+            colors[i] = Color.hsb(120.0 * i / (HEAT_LEVELS - 1), 0.85, 0.9);
+        }
+        return colors;
+    }
+}
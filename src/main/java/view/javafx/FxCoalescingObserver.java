@@ -0,0 +1,34 @@
+package view.javafx;
+
+import model.GameChange;
+import model.observer.Observer;
+
+/**
+ * Observer adapter collapsing bursts of game notifications into at most one refresh per pulse.
+ * <p>
+ * The changes notified between two pulses are merged with {@link GameChange#merge(GameChange)}
+ * by an {@link FxPulseCoalescer} and handed to the target on the JavaFX thread at the next pulse.
+ * A totem move and the pawn insertion that follows it are drawn once. Notifications can come
+ * from any thread.
+ */
+public class FxCoalescingObserver implements Observer {
+    private final FxPulseCoalescer<GameChange> changes;
+
+    /**
+     * @param target Receives the merged changes on the JavaFX thread.
+     */
+    public FxCoalescingObserver(Observer target) {
+        this.changes = new FxPulseCoalescer<>(target::update, GameChange::merge);
+        changes.start();
+    }
+
+    @Override
+    public void update() {
+        // Notifications always carry a change, see update(GameChange)
+    }
+
+    @Override
+    public void update(GameChange change) {
+        changes.submit(change);
+    }
+}
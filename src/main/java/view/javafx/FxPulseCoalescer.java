@@ -0,0 +1,105 @@
+package view.javafx;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Hands values produced on any thread to the JavaFX thread at most once per pulse.
+ * <p>
+ * The values submitted between two pulses are merged into one, by default by keeping the
+ * latest, so a producer can publish as often as it wants without flooding the event queue:
+ * the consumer runs on the next pulse, before the scene is laid out, with the merged value.
+ * Pulses are only requested while a value is waiting.
+ *
+ * @param <T> The type of the values.
+ */
+public class FxPulseCoalescer<T> {
+    private final AtomicReference<T> pending = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final BinaryOperator<T> merge;
+    private final AnimationTimer timer;
+    private volatile boolean started;
+
+    /**
+     * @param consumer Receives the latest value on the JavaFX thread.
+     */
+    public FxPulseCoalescer(Consumer<T> consumer) {
+        this(consumer, (older, newer) -> newer);
+    }
+
+    /**
+     * @param consumer Receives the merged values on the JavaFX thread.
+     * @param merge    Combines a value not delivered yet with the one submitted after it. It may
+     *                 be called several times for the same values when producers compete.
+     */
+    public FxPulseCoalescer(Consumer<T> consumer, BinaryOperator<T> merge) {
+        this.merge = merge;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                // The timer is stopped first, a value submitted from now on schedules the next pulse
+                stop();
+                scheduled.set(false);
+                T value = pending.getAndSet(null);
+                if (value != null) {
+                    consumer.accept(value);
+                }
+            }
+        };
+    }
+
+    /**
+     * Publishes a value, merged with any value not delivered yet. Can be called from any thread.
+     *
+     * @param value The value.
+     */
+    public void submit(T value) {
+        pending.accumulateAndGet(value, (older, newer) -> older == null ? newer : merge.apply(older, newer));
+        schedule();
+    }
+
+    /**
+     * Drops the value not delivered yet, if any.
+     */
+    public void clear() {
+        pending.set(null);
+    }
+
+    /**
+     * Starts delivering values, including one submitted before.
+     */
+    public void start() {
+        started = true;
+        schedule();
+    }
+
+    /**
+     * Stops delivering values and drops the pending one, to be called on the JavaFX thread.
+     */
+    public void stop() {
+        started = false;
+        timer.stop();
+        scheduled.set(false);
+        clear();
+    }
+
+    private void schedule() {
+        if (!started || pending.get() == null || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (Platform.isFxApplicationThread()) {
+            timer.start();
+        } else {
+            Platform.runLater(() -> {
+                if (started) {
+                    timer.start();
+                }
+            });
+        }
+    }
+}
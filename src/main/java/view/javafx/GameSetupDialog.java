@@ -121,7 +121,7 @@ public class GameSetupDialog {
         aiLevelLabel.getStyleClass().add("font-style");
 
         aiLevelCombo = new ComboBox<>();
-        aiLevelCombo.getItems().addAll("Easy");
+        aiLevelCombo.getItems().addAll("Easy", "Medium");
         aiLevelCombo.setValue("Easy");
         return new HBox(100, aiLevelLabel, aiLevelCombo);
     }
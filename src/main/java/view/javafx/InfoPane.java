@@ -3,13 +3,15 @@ package view.javafx;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import model.Color;
+import model.TileState;
 
 public class InfoPane extends VBox {
+    private static final int PAWN_IMAGE_SIZE = 100;
+
     private final Label emptyTilesLeftLabel;
     private final Label playerNameLabel;
     private final Label remainingXLabel;
@@ -32,8 +34,8 @@ public class InfoPane extends VBox {
         Region centerSpacer = new Region();
         centerSpacer.setPrefHeight(200);
 
-        remainingXLabel = createPawnLabel("images/"+playerColor+"_X.png");
-        remainingOLabel = createPawnLabel("images/"+playerColor+"_O.png");
+        remainingXLabel = createPawnLabel(playerColor == Color.PINK ? TileState.PINK_X : TileState.BLACK_X);
+        remainingOLabel = createPawnLabel(playerColor == Color.PINK ? TileState.PINK_O : TileState.BLACK_O);
 
         VBox centerSec = new VBox(50, remainingXLabel, remainingOLabel);
         centerSec.setPrefWidth(150);
@@ -42,26 +44,33 @@ public class InfoPane extends VBox {
         getChildren().addAll(topSec, centerSpacer, centerSec);
     }
 
-    private Label createPawnLabel(String imagePath) {
+    private Label createPawnLabel(TileState pawn) {
         Label label = new Label("0");
         label.setStyle("-fx-text-fill: white; -fx-font-size: 21px;");
 
-        ImageView imageView = new ImageView(new Image(imagePath));
-        imageView.setFitWidth(100);
-        imageView.setFitHeight(100);
+        SpriteCache.Atlas sprites = SpriteCache.shared().get(PAWN_IMAGE_SIZE, PAWN_IMAGE_SIZE);
+        ImageView imageView = new ImageView(sprites.getImage());
+        imageView.setViewport(sprites.getViewport(pawn));
         label.setGraphic(imageView);
         return label;
     }
 
     public void setRemainingX(String remainingX) {
-        remainingXLabel.setText(remainingX);
+        setTextIfChanged(remainingXLabel, remainingX);
     }
 
     public void setRemainingO(String remainingO) {
-        remainingOLabel.setText(remainingO);
+        setTextIfChanged(remainingOLabel, remainingO);
     }
 
     public void setEmptyTilesLeft(int emptyTiles) {
-        emptyTilesLeftLabel.setText("Empty tiles: " + emptyTiles);
+        setTextIfChanged(emptyTilesLeftLabel, "Empty tiles: " + emptyTiles);
+    }
+
+    // An unchanged label is not touched, so it is not laid out again
+    private static void setTextIfChanged(Label label, String text) {
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
     }
 }
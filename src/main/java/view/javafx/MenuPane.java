@@ -1,31 +1,40 @@
 package view.javafx;
 
 import javafx.scene.control.Button;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 
+import java.util.function.Consumer;
+
 public class MenuPane extends BorderPane {
 
     private final Button undoBtn;
     private final Button redoBtn;
     private final Button surrenderBtn;
+    private final Button hintBtn;
+    private final ToggleButton analysisBtn;
 
     public MenuPane(Runnable onRestart){
         Button restartBtn = new Button("Restart");
         undoBtn = new Button("Undo");
         redoBtn = new Button("Redo");
         surrenderBtn = new Button("Surrender");
+        hintBtn = new Button("Hint");
+        analysisBtn = new ToggleButton("Analysis");
 
         restartBtn.setStyle("-fx-background-color: #34ae34; -fx-text-fill: white; -fx-font-size: 25");
         undoBtn.setStyle("-fx-background-color: lightblue; -fx-font-size: 15");
         redoBtn.setStyle("-fx-background-color: lightblue; -fx-font-size: 15");
+        hintBtn.setStyle("-fx-background-color: lightblue; -fx-font-size: 15");
+        analysisBtn.setStyle("-fx-font-size: 15");
         surrenderBtn.setStyle("-fx-background-color: #c51616; -fx-text-fill: white; -fx-font-size: 25");
 
         HBox leftBox = new HBox(restartBtn);
         leftBox.setSpacing(10);
         leftBox.setStyle("-fx-alignment: center-left;");
 
-        HBox centerBox = new HBox(10, undoBtn, redoBtn);
+        HBox centerBox = new HBox(10, undoBtn, redoBtn, hintBtn, analysisBtn);
         centerBox.setStyle("-fx-alignment: center;");
 
         HBox rightBox = new HBox(surrenderBtn);
@@ -66,9 +75,24 @@ public class MenuPane extends BorderPane {
         }
     }
 
+    public void setHintAction(Runnable onHint){
+        if (onHint != null) {
+            hintBtn.setOnAction(e -> onHint.run());
+        }
+    }
+
+    public void setAnalysisAction(Consumer<Boolean> onAnalysisToggle){
+        if (onAnalysisToggle != null) {
+            analysisBtn.selectedProperty().addListener((obs, wasSelected, selected) -> onAnalysisToggle.accept(selected));
+        }
+    }
+
     public void disableUndoRedoSurrender() {
         undoBtn.setDisable(true);
         redoBtn.setDisable(true);
         surrenderBtn.setDisable(true);
+        hintBtn.setDisable(true);
+        analysisBtn.setSelected(false);
+        analysisBtn.setDisable(true);
     }
 }
@@ -0,0 +1,139 @@
+package view.javafx;
+
+import javafx.animation.Animation;
+import javafx.animation.FadeTransition;
+import javafx.animation.ParallelTransition;
+import javafx.animation.ScaleTransition;
+import javafx.animation.SequentialTransition;
+import javafx.animation.TranslateTransition;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays the totem slides and pawn drops of the {@link BoardPane} on the JavaFX timeline.
+ * <p>
+ * The tiles already show the new position when a change is animated: the sprites are only
+ * moved back to where they come from, and eased into place. Nothing waits for an animation,
+ * neither the model, nor the computer, nor the player's clicks. The animations of one change
+ * form a step, played after the steps queued before it; the board catches up by dropping the
+ * queued steps when more than {@link #MAX_QUEUED_STEPS} are waiting, see {@link #makeRoom()}.
+ */
+class MoveAnimator {
+    static final Duration SLIDE_DURATION = Duration.millis(250);
+    static final Duration DROP_DURATION = Duration.millis(200);
+    private static final int MAX_QUEUED_STEPS = 2;
+
+    private final ArrayDeque<Animation> steps = new ArrayDeque<>();
+    private final List<Node> animated = new ArrayList<>();
+    private final ParallelTransition slides = new ParallelTransition();
+    private final ParallelTransition drops = new ParallelTransition();
+    private Animation playing;
+
+    /**
+     * Stops every animation and puts the sprites in place when too many steps are waiting. It is
+     * called before the slides and drops of a new step are added, which it would put in place too.
+     */
+    void makeRoom() {
+        if (steps.size() >= MAX_QUEUED_STEPS) {
+            finish();
+        }
+    }
+
+    /**
+     * Slides a sprite from another tile to its own, in the next step.
+     *
+     * @param sprite The sprite, at its destination.
+     * @param dx     The horizontal offset of the tile it comes from.
+     * @param dy     The vertical offset of the tile it comes from.
+     */
+    void slide(Node sprite, double dx, double dy) {
+        sprite.setTranslateX(dx);
+        sprite.setTranslateY(dy);
+        TranslateTransition slide = new TranslateTransition(SLIDE_DURATION, sprite);
+        slide.setFromX(dx);
+        slide.setFromY(dy);
+        slide.setToX(0);
+        slide.setToY(0);
+        slides.getChildren().add(slide);
+        animated.add(sprite);
+    }
+
+    /**
+     * Drops a sprite onto its tile, after the slides of the next step.
+     *
+     * @param sprite The sprite.
+     */
+    void drop(Node sprite) {
+        sprite.setScaleX(0);
+        sprite.setScaleY(0);
+        sprite.setOpacity(0);
+        ScaleTransition scale = new ScaleTransition(DROP_DURATION, sprite);
+        scale.setFromX(1.6);
+        scale.setFromY(1.6);
+        scale.setToX(1);
+        scale.setToY(1);
+        FadeTransition fade = new FadeTransition(DROP_DURATION, sprite);
+        fade.setFromValue(0);
+        fade.setToValue(1);
+        drops.getChildren().addAll(scale, fade);
+        animated.add(sprite);
+    }
+
+    /**
+     * Queues the slides and drops added since the last step as a new step.
+     */
+    void commit() {
+        if (slides.getChildren().isEmpty() && drops.getChildren().isEmpty()) {
+            return;
+        }
+        SequentialTransition step = new SequentialTransition();
+        if (!slides.getChildren().isEmpty()) {
+            step.getChildren().add(new ParallelTransition(slides.getChildren().toArray(Animation[]::new)));
+            slides.getChildren().clear();
+        }
+        if (!drops.getChildren().isEmpty()) {
+            step.getChildren().add(new ParallelTransition(drops.getChildren().toArray(Animation[]::new)));
+            drops.getChildren().clear();
+        }
+        step.setOnFinished(e -> playNext());
+        steps.add(step);
+        if (playing == null) {
+            playNext();
+        }
+    }
+
+    /**
+     * Stops every animation and puts the sprites in place.
+     */
+    void finish() {
+        if (playing != null) {
+            playing.setOnFinished(null);
+            playing.stop();
+            playing = null;
+        }
+        steps.clear();
+        slides.getChildren().clear();
+        drops.getChildren().clear();
+        for (Node sprite : animated) {
+            sprite.setTranslateX(0);
+            sprite.setTranslateY(0);
+            sprite.setScaleX(1);
+            sprite.setScaleY(1);
+            sprite.setOpacity(1);
+        }
+        animated.clear();
+    }
+
+    private void playNext() {
+        playing = steps.poll();
+        if (playing != null) {
+            playing.play();
+        } else {
+            animated.clear();
+        }
+    }
+}
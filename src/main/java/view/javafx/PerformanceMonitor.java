@@ -0,0 +1,195 @@
+package view.javafx;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Measures where the JavaFX front end spends its time, and shows it in an overlay.
+ * <p>
+ * The durations are recorded in {@link TimeHistogram}s:
+ * <ul>
+ *     <li>frame: the time between two pulses, while the overlay is shown, the overlay's frame
+ *     rate being that of the last refresh period;</li>
+ *     <li>layout: the CSS and layout pass of each pulse of the scene;</li>
+ *     <li>click: from a click on the board to the end of the board update it caused;</li>
+ *     <li>update: the time the controller spends querying the game and updating the views;</li>
+ *     <li>ai: the time the computer takes to play a turn.</li>
+ * </ul>
+ * Everything is recorded on the JavaFX thread. The histograms can be exported to a text file
+ * with {@link #export(Path)} to compare runs.
+ */
+public class PerformanceMonitor {
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
+
+    private final TimeHistogram frames = new TimeHistogram("frame");
+    private final TimeHistogram layouts = new TimeHistogram("layout");
+    private final TimeHistogram clicks = new TimeHistogram("click");
+    private final TimeHistogram updates = new TimeHistogram("update");
+    private final TimeHistogram aiTurns = new TimeHistogram("ai");
+    private final Label overlay;
+    private final AnimationTimer frameTimer;
+    private long layoutStart;
+    private long clickStart = -1;
+    private long lastPulse = -1;
+    private long lastRefresh;
+    // The frames since the overlay was last refreshed, for its frame rate, the histogram keeps them all
+    private long windowFrames;
+    private long windowNanos;
+
+    public PerformanceMonitor() {
+        overlay = new Label();
+        overlay.setStyle("-fx-background-color: rgba(0, 0, 0, 0.7); -fx-text-fill: #7CFC00; "
+                + "-fx-font-family: monospace; -fx-font-size: 14px;");
+        overlay.setPadding(new Insets(8));
+        overlay.setMouseTransparent(true);
+        overlay.setVisible(false);
+        StackPane.setAlignment(overlay, Pos.TOP_LEFT);
+        StackPane.setMargin(overlay, new Insets(60, 0, 0, 10));
+
+        frameTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frameRendered(now);
+            }
+
+            @Override
+            public void stop() {
+                super.stop();
+                lastPulse = -1;
+            }
+        };
+    }
+
+    /**
+     * Measures the layout pass of every pulse of a scene.
+     *
+     * @param scene The scene of the game.
+     */
+    public void attach(Scene scene) {
+        scene.addPreLayoutPulseListener(() -> layoutStart = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> layouts.record(System.nanoTime() - layoutStart));
+    }
+
+    /**
+     * @return The overlay, to be stacked over the scene's content.
+     */
+    public Label getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * Shows or hides the overlay. The frame time is only measured while it is shown, as
+     * measuring it requests a pulse for every frame.
+     */
+    public void toggleOverlay() {
+        boolean visible = !overlay.isVisible();
+        overlay.setVisible(visible);
+        if (visible) {
+            frameTimer.start();
+            refreshOverlay();
+        } else {
+            frameTimer.stop();
+        }
+    }
+
+    /**
+     * Stops measuring the frame time, before the scene is replaced.
+     */
+    public void dispose() {
+        frameTimer.stop();
+    }
+
+    /**
+     * Records the time of a click on the board, the next {@link #updateFinished(long)} ends its latency.
+     */
+    public void clickStarted() {
+        clickStart = System.nanoTime();
+    }
+
+    /**
+     * Forgets the pending click, when it did not change the game.
+     */
+    public void cancelClick() {
+        clickStart = -1;
+    }
+
+    /**
+     * Records the end of an update of the views.
+     *
+     * @param start The {@link System#nanoTime()} at the start of the update.
+     */
+    public void updateFinished(long start) {
+        long now = System.nanoTime();
+        updates.record(now - start);
+        if (clickStart >= 0) {
+            clicks.record(now - clickStart);
+            clickStart = -1;
+        }
+    }
+
+    /**
+     * @param nanos The time the computer took to play a turn.
+     */
+    public void recordAiTurn(long nanos) {
+        aiTurns.record(nanos);
+    }
+
+    /**
+     * Writes every histogram to a file, see {@link TimeHistogram#write(PrintWriter)}.
+     *
+     * @param file The file, replaced if it exists.
+     * @throws IOException if the file cannot be written
+     */
+    public void export(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            for (TimeHistogram histogram : histograms()) {
+                histogram.write(out);
+            }
+        }
+    }
+
+    /**
+     * Records the time since the previous pulse, and refreshes the overlay periodically.
+     *
+     * @param now The time of the pulse, in nanoseconds.
+     */
+    void frameRendered(long now) {
+        if (lastPulse >= 0) {
+            frames.record(now - lastPulse);
+            windowFrames++;
+            windowNanos += now - lastPulse;
+        }
+        lastPulse = now;
+        if (now - lastRefresh >= OVERLAY_REFRESH_NANOS) {
+            lastRefresh = now;
+            refreshOverlay();
+        }
+    }
+
+    private List<TimeHistogram> histograms() {
+        return List.of(frames, layouts, clicks, updates, aiTurns);
+    }
+
+    private void refreshOverlay() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("FPS %.1f%n", windowNanos == 0 ? 0 : 1e9 * windowFrames / windowNanos));
+        for (TimeHistogram histogram : histograms()) {
+            text.append(String.format("%-6s p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  (%d)%n", histogram.getName(),
+                    histogram.getPercentile(50) / 1e6, histogram.getPercentile(99) / 1e6,
+                    histogram.getMax() / 1e6, histogram.getCount()));
+        }
+        overlay.setText(text.toString().stripTrailing());
+        windowFrames = 0;
+        windowNanos = 0;
+    }
+}
@@ -0,0 +1,227 @@
+package view.javafx;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import model.TileState;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide cache of the tile artwork, scaled to the sizes the boards are drawn at.
+ * <p>
+ * The images are decoded once. For each sprite size, the six token images are scaled into a
+ * single {@link Atlas} image, one sprite after the other, so that nodes and canvases draw them
+ * without resampling. The atlases of the least recently used sizes are dropped once more than
+ * {@link #DEFAULT_CAPACITY} sizes are cached, for example while a window is being resized.
+ */
+public final class SpriteCache {
+    /**
+     * Number of sprite sizes kept.
+     */
+    public static final int DEFAULT_CAPACITY = 8;
+
+    private static final TileState[] TILE_STATES = TileState.values();
+    private static final String[] IMAGE_PATHS = {null, "images/totem_X.png", "images/totem_O.png",
+            "images/PINK_X.png", "images/PINK_O.png", "images/BLACK_X.png", "images/BLACK_O.png"};
+    private static final String PLACEHOLDER_PATH = "images/placeHolder.png";
+    private static final SpriteCache SHARED = new SpriteCache(DEFAULT_CAPACITY);
+
+    private final Map<Long, Atlas> atlases;
+    private final AtlasFactory factory;
+    // Premultiplied ARGB pixels of the decoded images, by TileState ordinal
+    private int[][] originals;
+    private int[] originalWidths;
+    private int[] originalHeights;
+
+    /**
+     * Creates the atlases of the sizes that are not cached.
+     */
+    interface AtlasFactory {
+        Atlas create(int width, int height);
+    }
+
+    /**
+     * @param capacity Number of sprite sizes kept.
+     */
+    SpriteCache(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * @param capacity Number of sprite sizes kept.
+     * @param factory  Creates the atlas of a size, {@code null} to scale the tile artwork.
+     */
+    SpriteCache(int capacity, AtlasFactory factory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The cache must keep at least one size.");
+        }
+        this.atlases = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Atlas> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.factory = factory != null ? factory : this::createAtlas;
+    }
+
+    /**
+     * @return The cache shared by every view.
+     */
+    public static SpriteCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the sprites of a size, scaling them if the size is not cached.
+     *
+     * @param width  The width of a sprite in pixels, at least 1.
+     * @param height The height of a sprite in pixels, at least 1.
+     * @return The atlas of the sprites of that size.
+     */
+    public synchronized Atlas get(int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Sprite size must be at least 1x1.");
+        }
+        long key = (long) width << 32 | height;
+        Atlas atlas = atlases.get(key);
+        if (atlas == null) {
+            atlas = factory.create(width, height);
+            atlases.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    private Atlas createAtlas(int width, int height) {
+        if (originals == null) {
+            loadOriginals();
+        }
+        int sprites = IMAGE_PATHS.length - 1;
+        int[] pixels = new int[sprites * width * height];
+        for (int i = 1; i < IMAGE_PATHS.length; i++) {
+            scale(originals[i], originalWidths[i], originalHeights[i], pixels, (i - 1) * width, sprites * width, width, height);
+        }
+        WritableImage image = new WritableImage(sprites * width, height);
+        image.getPixelWriter().setPixels(0, 0, sprites * width, height,
+                PixelFormat.getIntArgbPreInstance(), pixels, 0, sprites * width);
+        return new Atlas(image, width, height);
+    }
+
+    private void loadOriginals() {
+        originals = new int[IMAGE_PATHS.length][];
+        originalWidths = new int[IMAGE_PATHS.length];
+        originalHeights = new int[IMAGE_PATHS.length];
+        for (int i = 1; i < IMAGE_PATHS.length; i++) {
+            Image image = loadImage(IMAGE_PATHS[i]);
+            int width = (int) image.getWidth();
+            int height = (int) image.getHeight();
+            originals[i] = new int[width * height];
+            originalWidths[i] = width;
+            originalHeights[i] = height;
+            image.getPixelReader().getPixels(0, 0, width, height,
+                    PixelFormat.getIntArgbPreInstance(), originals[i], 0, width);
+        }
+    }
+
+    private static Image loadImage(String path) {
+        try {
+            Image image = new Image(path);
+            if (!image.isError()) {
+                return image;
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // Replaced by the placeholder below
+        }
+        System.out.println("Invalid image path: " + path);
+        return new Image(PLACEHOLDER_PATH);
+    }
+
+    /**
+     * Scales premultiplied pixels by averaging the source pixels covered by each destination pixel.
+     */
+    static void scale(int[] src, int srcWidth, int srcHeight,
+                      int[] dst, int dstOffset, int dstStride, int width, int height) {
+        for (int y = 0; y < height; y++) {
+            int y0 = (int) ((long) y * srcHeight / height);
+            int y1 = Math.max(y0 + 1, (int) (((long) y + 1) * srcHeight / height));
+            for (int x = 0; x < width; x++) {
+                int x0 = (int) ((long) x * srcWidth / width);
+                int x1 = Math.max(x0 + 1, (int) (((long) x + 1) * srcWidth / width));
+                long a = 0;
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                for (int sy = y0; sy < y1; sy++) {
+                    for (int sx = x0; sx < x1; sx++) {
+                        int pixel = src[sy * srcWidth + sx];
+                        a += pixel >>> 24;
+                        r += pixel >> 16 & 0xFF;
+                        g += pixel >> 8 & 0xFF;
+                        b += pixel & 0xFF;
+                    }
+                }
+                int count = (y1 - y0) * (x1 - x0);
+                dst[dstOffset + y * dstStride + x] = (int) (a / count) << 24 | (int) (r / count) << 16
+                        | (int) (g / count) << 8 | (int) (b / count);
+            }
+        }
+    }
+
+    /**
+     * The sprites of one size, side by side in a single image in the order of {@link TileState}.
+     */
+    public static final class Atlas {
+        private final Image image;
+        private final int width;
+        private final int height;
+        private final Rectangle2D[] viewports;
+
+        Atlas(Image image, int width, int height) {
+            this.image = image;
+            this.width = width;
+            this.height = height;
+            this.viewports = new Rectangle2D[TILE_STATES.length];
+            for (int i = 1; i < viewports.length; i++) {
+                viewports[i] = new Rectangle2D((i - 1) * width, 0, width, height);
+            }
+        }
+
+        public Image getImage() {
+            return image;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * @param state The state of a tile.
+         * @return The area of the atlas holding the sprite of the state, {@code null} for an empty tile.
+         */
+        public Rectangle2D getViewport(TileState state) {
+            return viewports[state.ordinal()];
+        }
+
+        /**
+         * Draws the sprite of a tile state unscaled, nothing for an empty tile.
+         *
+         * @param gc    The canvas to draw on.
+         * @param state The state of the tile.
+         * @param x     The left of the sprite on the canvas.
+         * @param y     The top of the sprite on the canvas.
+         */
+        public void draw(GraphicsContext gc, TileState state, double x, double y) {
+            Rectangle2D viewport = viewports[state.ordinal()];
+            if (viewport != null) {
+                gc.drawImage(image, viewport.getMinX(), 0, width, height, x, y, width, height);
+            }
+        }
+    }
+}
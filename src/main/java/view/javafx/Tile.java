@@ -1,23 +1,136 @@
 package view.javafx;
 
-import javafx.scene.image.Image;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import model.TileState;
 
+/**
+ * A tile of the {@link BoardPane}, styled by the {@code .tile} rules of {@code board.css}.
+ * Its highlight and its position on the edges of the board are CSS pseudo-classes, so
+ * changing them does not parse any style.
+ */
 public class Tile extends StackPane {
+    private static final PseudoClass VALID = PseudoClass.getPseudoClass("valid");
+    private static final PseudoClass INVALID = PseudoClass.getPseudoClass("invalid");
+    private static final PseudoClass LAST_ROW = PseudoClass.getPseudoClass("last-row");
+    private static final PseudoClass LAST_COL = PseudoClass.getPseudoClass("last-col");
+    private static final int HEAT_LEVELS = 32;
+    private static final Background[] HEAT_BACKGROUNDS = createHeatBackgrounds();
+
+    private static final double CONTENT_RATIO = 0.8;
+
     private final ImageView content;
+    private final Region heat;
+    private TileState state = TileState.EMPTY;
+    private SpriteCache.Atlas sprites;
+    private Highlight highlight = Highlight.NONE;
+
+    /**
+     * The highlights of a tile.
+     */
+    public enum Highlight {
+        NONE, VALID, INVALID
+    }
 
     public Tile() {
-        setStyle("-fx-background-color: #643b7d;");
+        getStyleClass().add("tile");
         content = new ImageView();
+        heat = new Region();
+        heat.setMouseTransparent(true);
+        heat.setOpacity(0.6);
+        heat.setVisible(false);
+        // The sprite follows the tile size, it must not keep the tile from shrinking
+        setMinSize(0, 0);
 
-        content.fitWidthProperty().bind(widthProperty().multiply(0.8));
-        content.fitHeightProperty().bind(heightProperty().multiply(0.8));
+        getChildren().addAll(heat, content);
+    }
+
+    /**
+     * Draws no border on the sides that are edges of the board.
+     *
+     * @param lastRow {@code true} for a tile of the last row.
+     * @param lastCol {@code true} for a tile of the last column.
+     */
+    public void setEdges(boolean lastRow, boolean lastCol) {
+        pseudoClassStateChanged(LAST_ROW, lastRow);
+        pseudoClassStateChanged(LAST_COL, lastCol);
+    }
+
+    public void setHighlight(Highlight highlight) {
+        if (this.highlight != highlight) {
+            this.highlight = highlight;
+            pseudoClassStateChanged(VALID, highlight == Highlight.VALID);
+            pseudoClassStateChanged(INVALID, highlight == Highlight.INVALID);
+        }
+    }
+
+    /**
+     * Shows the token of a tile state, drawn unscaled from the {@link SpriteCache} sprites of the tile size.
+     *
+     * @param state The state of the tile.
+     */
+    public void setContent(TileState state) {
+        if (this.state != state) {
+            this.state = state;
+            showSprite();
+        }
+    }
+
+    /**
+     * @return The node showing the token, moved by the {@link MoveAnimator}.
+     */
+    Node getSprite() {
+        return content;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        int width = (int) (getWidth() * CONTENT_RATIO);
+        int height = (int) (getHeight() * CONTENT_RATIO);
+        if (width >= 1 && height >= 1
+                && (sprites == null || sprites.getWidth() != width || sprites.getHeight() != height)) {
+            sprites = SpriteCache.shared().get(width, height);
+            showSprite();
+        }
+        super.layoutChildren();
+    }
+
+    private void showSprite() {
+        if (state == TileState.EMPTY || sprites == null) {
+            content.setImage(null);
+        } else {
+            content.setImage(sprites.getImage());
+            content.setViewport(sprites.getViewport(state));
+        }
+    }
 
-        getChildren().add(content);
+    /**
+     * Paints the tile from red (0) to green (1), {@code NaN} hides the heat.
+     *
+     * @param score The normalized score of the tile.
+     */
+    public void setHeat(double score) {
+        if (Double.isNaN(score)) {
+            heat.setVisible(false);
+            return;
+        }
+        int level = (int) Math.round(Math.max(0, Math.min(1, score)) * (HEAT_LEVELS - 1));
+        heat.setBackground(HEAT_BACKGROUNDS[level]);
+        heat.setVisible(true);
     }
 
-    public void setContent(Image image) {
-        content.setImage(image);
+    private static Background[] createHeatBackgrounds() {
+        Background[] backgrounds = new Background[HEAT_LEVELS];
+        for (int i = 0; i < HEAT_LEVELS; i++) {
+            double hue = 120.0 * i / (HEAT_LEVELS - 1);
+            backgrounds[i] = new Background(new BackgroundFill(Color.hsb(hue, 0.85, 0.9), null, null));
+        }
+        return backgrounds;
     }
 }
@@ -0,0 +1,137 @@
+package view.javafx;
+
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Histogram of durations in nanoseconds, with buckets growing exponentially.
+ * <p>
+ * Each power of two is split into {@value #SUB_BUCKETS} buckets, so a percentile is known within
+ * 12.5% whatever the scale, from nanoseconds to minutes, in a fixed array of counters. Recording
+ * allocates nothing. A histogram is not thread-safe, the JavaFX views record on the FX thread.
+ */
+public class TimeHistogram {
+    static final int SUB_BUCKETS = 8;
+    private static final int SUB_BITS = 3;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final String name;
+    private final long[] counts;
+    private long count;
+    private long total;
+    private long min;
+    private long max;
+
+    /**
+     * @param name The name of the measured duration, used when exporting.
+     */
+    public TimeHistogram(String name) {
+        this.name = name;
+        this.counts = new long[BUCKETS];
+        reset();
+    }
+
+    /**
+     * Records a duration, a negative one counts as zero.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        counts[bucketOf(nanos)]++;
+        count++;
+        total += nanos;
+        min = Math.min(min, nanos);
+        max = Math.max(max, nanos);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The mean duration in nanoseconds, 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the duration below which a fraction of the recorded durations are.
+     *
+     * @param percentile The fraction, in percents from 0 to 100.
+     * @return The highest duration of the bucket holding that rank, at most {@link #getMax()}, 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(max, upperBoundOf(bucket));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Writes the summary and the non-empty buckets, one per line, in a format meant to be compared
+     * between runs: {@code name count mean min p50 p90 p99 max}, then {@code name upper-bound count}.
+     *
+     * @param out The destination.
+     */
+    public void write(PrintWriter out) {
+        out.printf("%s count=%d mean=%.0f min=%d p50=%d p90=%d p99=%d max=%d%n", name, count, getMean(),
+                getMin(), getPercentile(50), getPercentile(90), getPercentile(99), max);
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] > 0) {
+                out.printf("%s %d %d%n", name, upperBoundOf(bucket), counts[bucket]);
+            }
+        }
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,45 @@
+package controller;
+
+import model.CompactState;
+import model.Game;
+import model.OxonoException;
+import model.Turn;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleCommandsTest {
+
+    @Test
+    void commandsShouldPlayLikeTheTurnsTheySpell() {
+        Game game = new Game(6, 6, null);
+        Game expected = new Game(6, 6, null);
+        int[] turns = new int[CompactState.of(expected).maxTurns()];
+        for (int i = 0; i < 6; i++) {
+            CompactState state = CompactState.of(expected);
+            int turn = turns[state.legalTurns(turns) - 1];
+            expected.playTurn(turn);
+            String[] commands = Turn.toString(turn).split(";");
+            assertEquals(ConsoleCommands.Kind.MOVE, ConsoleCommands.execute(game, commands[0].toUpperCase()));
+            assertEquals(ConsoleCommands.Kind.INSERT, ConsoleCommands.execute(game, "  " + commands[1]));
+        }
+        assertEquals(CompactState.of(expected), CompactState.of(game));
+
+        assertEquals(ConsoleCommands.Kind.UNDO, ConsoleCommands.execute(game, "undo"));
+        assertEquals(5, game.getPly());
+        assertEquals(ConsoleCommands.Kind.REDO, ConsoleCommands.execute(game, "Redo"));
+        assertEquals(CompactState.of(expected), CompactState.of(game));
+        assertEquals(ConsoleCommands.Kind.SURRENDER, ConsoleCommands.execute(game, "surrender"));
+        assertTrue(game.isGameOver());
+    }
+
+    @Test
+    void invalidCommandsShouldBeRejected() {
+        Game game = new Game(6, 6, null);
+        CompactState start = CompactState.of(game);
+        for (String command : new String[]{"", "move", "move z 3", "move x 0", "move x 37", "move x 99999999999", "insert"}) {
+            assertThrows(OxonoException.class, () -> ConsoleCommands.execute(game, command), command);
+        }
+        assertEquals(start, CompactState.of(game));
+    }
+}
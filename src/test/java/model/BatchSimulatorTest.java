@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSimulatorTest {
+
+    @Test
+    void turnsShouldFollowTheCompactStateRules() {
+        BatchSimulator batch = new BatchSimulator(6, 6, 64, 7);
+        CompactState[] states = new CompactState[batch.getSize()];
+        for (int g = 0; g < states.length; g++) {
+            states[g] = new CompactState(6, 6);
+            batch.copyStateTo(g, states[g]);
+        }
+        int[] turns = new int[states[0].maxTurns()];
+
+        while (batch.getRunningCount() > 0) {
+            boolean[] wasRunning = new boolean[states.length];
+            for (int g = 0; g < states.length; g++) {
+                wasRunning[g] = batch.getStatus(g) == BatchSimulator.RUNNING;
+            }
+            batch.step();
+            for (int g = 0; g < states.length; g++) {
+                if (!wasRunning[g]) {
+                    continue;
+                }
+                CompactState state = states[g];
+                int count = state.legalTurns(turns);
+                if (count == 0) {
+                    assertEquals(BatchSimulator.DRAW, batch.getStatus(g));
+                    continue;
+                }
+                int turn = batch.getLastTurn(g);
+                assertTrue(contains(turns, count, turn), "illegal turn " + Turn.toString(turn));
+                state.playTurn(turn);
+
+                CompactState actual = new CompactState(6, 6);
+                batch.copyStateTo(g, actual);
+                assertEquals(state, actual);
+                assertEquals(state.isGameOver(), batch.getStatus(g) != BatchSimulator.RUNNING);
+                assertEquals(state.isDraw() && state.getWinner() == null,
+                        batch.getStatus(g) == BatchSimulator.DRAW);
+            }
+        }
+    }
+
+    @Test
+    void sameSeedShouldReplayTheSameGames() {
+        BatchSimulator first = new BatchSimulator(6, 6, 32, 123);
+        BatchSimulator second = new BatchSimulator(6, 6, 32, 123);
+        first.runToCompletion();
+        second.runToCompletion();
+
+        for (int g = 0; g < first.getSize(); g++) {
+            assertEquals(first.getStatus(g), second.getStatus(g));
+            assertEquals(first.getTurnCount(g), second.getTurnCount(g));
+            assertEquals(first.getLastTurn(g), second.getLastTurn(g));
+        }
+    }
+
+    @Test
+    void shouldRejectBoardsLargerThanABitmask() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchSimulator(8, 9, 1, 0));
+    }
+
+    private static boolean contains(int[] turns, int count, int turn) {
+        for (int i = 0; i < count; i++) {
+            if (turns[i] == turn) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package model;
+
+import model.strategy.RandomStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSymmetryTest {
+
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        game = new Game(6, 6, new RandomStrategy());
+        game.setChosenTotem(Symbol.X);
+        Totem totemX = game.getTotemOfSymbol(Symbol.X);
+        Position totemXPos = game.getTotemPos(totemX);
+        Position totemNewPos = new Position(totemXPos.x(), totemXPos.y() - 1);
+        game.moveTotem(totemX, totemNewPos);
+        game.insertPawn(game.getPawnOfSymbol(Symbol.X), new Position(totemNewPos.x() - 1, totemNewPos.y()));
+    }
+
+    @Test
+    void squareBoardShouldHaveEightSymmetries() {
+        assertEquals(8, BoardSymmetry.of(6, 6).getTransformCount());
+        assertEquals(4, BoardSymmetry.of(4, 6).getTransformCount());
+    }
+
+    @Test
+    void allImagesOfAPositionShouldShareTheCanonicalKey() {
+        BoardSymmetry symmetry = BoardSymmetry.of(6, 6);
+        CompactState state = CompactState.of(game);
+        CompactState image = new CompactState(6, 6);
+        long canonicalKey = symmetry.canonicalKey(state);
+
+        for (int t = 0; t < symmetry.getTransformCount(); t++) {
+            symmetry.transform(t, state, image);
+            assertEquals(canonicalKey, symmetry.canonicalKey(image), "transform " + t);
+        }
+    }
+
+    @Test
+    void allImagesOfAPositionShouldHaveTheSameCanonicalRepresentative() {
+        BoardSymmetry symmetry = BoardSymmetry.of(6, 6);
+        CompactState state = CompactState.of(game);
+        CompactState canonical = new CompactState(6, 6);
+        symmetry.canonicalize(state, canonical);
+
+        CompactState image = new CompactState(6, 6);
+        CompactState imageCanonical = new CompactState(6, 6);
+        for (int t = 0; t < symmetry.getTransformCount(); t++) {
+            symmetry.transform(t, state, image);
+            symmetry.canonicalize(image, imageCanonical);
+            assertEquals(canonical, imageCanonical, "transform " + t);
+        }
+    }
+
+    @Test
+    void canonicalTransformShouldMapTotemsBackToTheGame() {
+        BoardSymmetry symmetry = BoardSymmetry.of(6, 6);
+        CompactState state = CompactState.of(game);
+        CompactState canonical = new CompactState(6, 6);
+        int t = symmetry.canonicalize(state, canonical);
+
+        int totemX = symmetry.unmapCell(t, canonical.getTotemCell(Symbol.X));
+        assertEquals(game.getTotemPos(Symbol.X), state.toPosition(totemX));
+        assertEquals(TileState.TOTEM_X, canonical.getTileState(canonical.getTotemCell(Symbol.X)));
+    }
+
+    @Test
+    void playerStateShouldBePartOfTheKey() {
+        BoardSymmetry symmetry = BoardSymmetry.of(6, 6);
+        CompactState state = CompactState.of(game);
+        CompactState other = state.copy();
+        other.remaining[CompactState.pawnIndex(Color.BLACK, Symbol.O)]--;
+
+        assertNotEquals(symmetry.canonicalKey(state), symmetry.canonicalKey(other));
+        assertNotEquals(state, other);
+    }
+}
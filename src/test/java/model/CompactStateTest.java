@@ -0,0 +1,109 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactStateTest {
+
+    @Test
+    void shouldCopyTheGamePosition() {
+        Game game = new Game(6, 6, null);
+        CompactState state = CompactState.of(game);
+
+        assertEquals(TileState.TOTEM_X, state.getTileState(state.getTotemCell(Symbol.X)));
+        assertEquals(TileState.TOTEM_O, state.getTileState(state.getTotemCell(Symbol.O)));
+        assertEquals(Color.PINK, state.getToMove());
+        assertEquals(8, state.getRemaining(Color.BLACK, Symbol.O));
+        assertEquals(34, state.countEmpty());
+    }
+
+    @Test
+    void rulesShouldMatchTheGameDuringRandomGames() {
+        Random random = new Random(42);
+        for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+            Game game = new Game(6, 6, null);
+            CompactState state = CompactState.of(game);
+            int[] turns = new int[state.maxTurns()];
+            int[] moves = new int[2 * (6 + 6)];
+
+            while (!game.isGameOver()) {
+                assertFalse(state.isGameOver());
+                assertSameTotemMoves(game, state, moves);
+
+                int count = state.legalTurns(turns);
+                assertTrue(count > 0, "a running game should have a legal turn");
+                int turn = turns[random.nextInt(count)];
+                Symbol symbol = Turn.symbol(turn);
+
+                game.setChosenTotem(symbol);
+                game.moveTotem(game.getTotemOfSymbol(symbol), state.toPosition(Turn.totemCell(turn)));
+                assertTrue(game.getValidPawnInsertions().contains(state.toPosition(Turn.pawnCell(turn))));
+                game.insertPawn(game.getPawnOfSymbol(symbol), state.toPosition(Turn.pawnCell(turn)));
+                state.playTurn(turn);
+
+                assertEquals(CompactState.of(game), state);
+            }
+            assertTrue(state.isGameOver());
+        }
+    }
+
+    @Test
+    void isLegalTurnShouldAgreeWithTheListedTurns() {
+        Random random = new Random(7);
+        for (int gameNumber = 0; gameNumber < 10; gameNumber++) {
+            CompactState state = CompactState.of(new Game(6, 6, null));
+            int[] turns = new int[state.maxTurns()];
+            int count;
+            do {
+                count = state.legalTurns(turns);
+                Set<Integer> legal = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    legal.add(turns[i]);
+                }
+                for (Symbol symbol : Symbol.values()) {
+                    for (int totem = 0; totem < 36; totem++) {
+                        for (int pawn = 0; pawn < 36; pawn++) {
+                            int turn = Turn.of(symbol, totem, pawn);
+                            assertEquals(legal.contains(turn), state.isLegalTurn(turn));
+                        }
+                    }
+                }
+            } while (count > 0 && !state.playTurn(turns[random.nextInt(count)]));
+        }
+    }
+
+    private void assertSameTotemMoves(Game game, CompactState state, int[] moves) {
+        for (Symbol symbol : Symbol.values()) {
+            Set<Position> expected = new HashSet<>(game.getValidMoves(game.getTotemPos(symbol)));
+            Set<Position> actual = new HashSet<>();
+            int count = state.totemMoves(symbol, moves);
+            for (int i = 0; i < count; i++) {
+                actual.add(state.toPosition(moves[i]));
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void shouldFindAnImmediateWin() {
+        Game game = new Game(6, 6, null);
+        for (Position pos : List.of(new Position(1, 1), new Position(1, 2), new Position(1, 3))) {
+            Totem totemX = game.getTotemOfSymbol(Symbol.X);
+            game.setChosenTotem(Symbol.X);
+            game.moveTotem(totemX, new Position(pos.x() + 1, pos.y()));
+            game.insertPawn(game.getPawnOfSymbol(Symbol.X), pos);
+        }
+        CompactState state = CompactState.of(game);
+
+        int turn = state.findWinningTurn();
+        assertNotEquals(Turn.NONE, turn);
+        assertTrue(state.playTurn(turn));
+        assertEquals(Color.BLACK, state.getWinner());
+    }
+}
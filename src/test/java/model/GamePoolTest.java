@@ -0,0 +1,52 @@
+package model;
+
+import model.command.CommandManager;
+import model.strategy.RandomStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GamePoolTest {
+
+    @Test
+    void releasedGamesShouldBeReusedPerSize() {
+        GamePool pool = new GamePool();
+        Game game = pool.acquire(6, 6);
+        CompactState start = CompactState.of(game);
+        int[] turns = new int[start.maxTurns()];
+        start.legalTurns(turns);
+        game.playTurn(turns[0]);
+        int[] notifications = new int[1];
+        game.addObserver(() -> notifications[0]++);
+        pool.release(game);
+        assertEquals(1, pool.getIdleCount(6, 6));
+
+        Game eight = pool.acquire(8, 8);
+        assertNotSame(game, eight);
+        Game again = pool.acquire(6, 6);
+        assertSame(game, again);
+        assertEquals(0, notifications[0]);
+        assertEquals(start, CompactState.of(again));
+        assertEquals(0, pool.getIdleCount(6, 6));
+    }
+
+    @Test
+    void releaseShouldRejectForeignAndJournaledGames() throws Exception {
+        GamePool pool = new GamePool();
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new Game(6, 6, null, 10)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new GamePool(null, CommandManager.UNLIMITED).release(new Game(6, 6, new RandomStrategy())));
+
+        Game game = pool.acquire(6, 6);
+        Path file = Files.createTempFile("pool", ".journal");
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            journal.attach(game);
+            assertThrows(IllegalArgumentException.class, () -> pool.release(game));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
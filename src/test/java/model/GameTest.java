@@ -1,9 +1,13 @@
 package model;
 
+import model.observer.Observer;
 import model.strategy.RandomStrategy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -325,4 +329,272 @@ class GameTest {
 
         assertDoesNotThrow(() -> game.insertPawn(pawn, insertPos));
     }
-}
\ No newline at end of file
+
+    @Test
+    void undoAndRedoShouldRestoreThePositions() {
+        Game game = new Game(6, 6, null);
+        CompactState start = CompactState.of(game);
+        TestGames.playRandomly(game, new Random(3), 6);
+        CompactState end = CompactState.of(game);
+
+        for (int i = 0; i < 12; i++) {
+            game.undo();
+        }
+        assertEquals(start, CompactState.of(game));
+        for (int i = 0; i < 12; i++) {
+            game.redo();
+        }
+        assertEquals(end, CompactState.of(game));
+    }
+
+    @Test
+    void seekToPlyShouldRestoreEachPositionWithOneNotification() {
+        Game game = new Game(8, 8, null);
+        Random random = new Random(11);
+        List<CompactState> positions = new ArrayList<>();
+        positions.add(CompactState.of(game));
+        while (!game.isGameOver()) {
+            TestGames.playRandomly(game, random, 1);
+            positions.add(CompactState.of(game));
+        }
+        int[] notifications = new int[1];
+        game.addObserver(() -> notifications[0]++);
+
+        for (int i = 0; i < 100; i++) {
+            int ply = random.nextInt(positions.size());
+            notifications[0] = 0;
+            game.seekToPly(ply);
+            assertEquals(positions.get(ply), CompactState.of(game), "ply " + ply);
+            assertEquals(ply, game.getPly());
+            assertEquals(1, notifications[0]);
+        }
+        assertThrows(OxonoException.class, () -> game.seekToPly(positions.size()));
+    }
+
+    @Test
+    void undoTurnShouldUndoTheHumanAndComputerTurnsAsOneAction() {
+        Game game = new Game(6, 6, model -> { });
+        CompactState start = CompactState.of(game);
+        TestGames.playRandomly(game, new Random(17), 2);
+        CompactState end = CompactState.of(game);
+        int[] notifications = new int[1];
+        game.addObserver(() -> notifications[0]++);
+
+        game.undoTurn();
+        assertEquals(start, CompactState.of(game));
+        assertEquals(1, notifications[0]);
+
+        game.redoTurn();
+        assertEquals(end, CompactState.of(game));
+        assertEquals(2, notifications[0]);
+    }
+
+    @Test
+    void batchShouldNotifyOnceForNestedChanges() {
+        Game game = new Game(6, 6, null);
+        int[] notifications = new int[1];
+        game.addObserver(() -> notifications[0]++);
+
+        game.batch(() -> {
+            game.batch(game::surrender);
+            game.surrender();
+        });
+        assertEquals(1, notifications[0]);
+
+        game.batch(() -> { });
+        assertEquals(1, notifications[0]);
+    }
+
+    @Test
+    void forkShouldBeIndependentOfTheGame() {
+        Game game = new Game(6, 6, null);
+        Random random = new Random(23);
+        TestGames.playRandomly(game, random, 6);
+        CompactState before = CompactState.of(game);
+        int[] notifications = new int[1];
+        game.addObserver(() -> notifications[0]++);
+
+        Game fork = game.fork();
+        assertEquals(before, CompactState.of(fork));
+        TestGames.playRandomly(fork, random, 6);
+        assertEquals(before, CompactState.of(game));
+        assertEquals(0, notifications[0]);
+
+        fork.seekToPly(0);
+        assertEquals(before, CompactState.of(fork));
+        assertEquals(0, fork.getFirstPly());
+        fork.undo();
+        assertEquals(before, CompactState.of(fork));
+    }
+
+    @Test
+    void forkInTheMiddleOfATurnShouldFinishIt() {
+        Game game = new Game(6, 6, null);
+        game.setChosenTotem(Symbol.X);
+        Position totemPos = game.getTotemPos(Symbol.X);
+        game.moveTotem(game.getTotemOfSymbol(Symbol.X), game.getValidMoves(totemPos).getFirst());
+        CompactState midTurn = CompactState.of(game);
+
+        Game fork = game.fork();
+        assertTrue(fork.isHasMovedTotem());
+        fork.insertPawn(fork.getPawnOfSymbol(Symbol.X), fork.getValidPawnInsertions().getFirst());
+        assertEquals(Color.BLACK, fork.getCurrPlayerColor());
+        assertEquals(Color.PINK, game.getCurrPlayerColor());
+
+        assertEquals(1, fork.getPly());
+        CompactState firstTurn = CompactState.of(fork);
+        fork.playTurn(TestGames.firstLegalTurn(fork));
+        CompactState secondTurn = CompactState.of(fork);
+        assertEquals(2, fork.getPly());
+        assertEquals(1, fork.getFirstPly());
+        assertEquals(2, fork.getLastPly());
+
+        fork.undoTurn();
+        assertEquals(firstTurn, CompactState.of(fork));
+        assertFalse(fork.isHasMovedTotem());
+        assertEquals(1, fork.getPly());
+        fork.redoTurn();
+        assertEquals(secondTurn, CompactState.of(fork));
+
+        fork.seekToPly(1);
+        assertEquals(firstTurn, CompactState.of(fork));
+        fork.seekToPly(2);
+        assertEquals(secondTurn, CompactState.of(fork));
+        assertThrows(OxonoException.class, () -> fork.seekToPly(0));
+        assertThrows(OxonoException.class, fork::getTurns);
+
+        fork.undoTurn();
+        fork.undoTurn();
+        assertEquals(midTurn, CompactState.of(fork));
+        assertTrue(fork.isHasMovedTotem());
+        assertEquals(0, fork.getPly());
+    }
+
+    @Test
+    void computerTurnPlayedOnAForkShouldBeLegalOnTheGame() {
+        game.playTurn(TestGames.firstLegalTurn(game));
+        assertTrue(game.isAiTurn());
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            for (int i = 0; i < 20 && !game.isGameOver(); i++) {
+                Game fork = game.fork();
+                fork.executeAITurn();
+                assertEquals(1, fork.getPly());
+                game.playTurn(fork.getTurns()[0]);
+                assertEquals(CompactState.of(fork), CompactState.of(game));
+                int turn = TestGames.firstLegalTurn(game);
+                if (game.isGameOver() || turn == Turn.NONE) {
+                    break;
+                }
+                game.playTurn(turn);
+            }
+        }, "the computer must not pause while playing");
+    }
+
+    @Test
+    void resetShouldRestoreTheInitialPosition() {
+        Game game = new Game(6, 6, null, 10);
+        CompactState start = CompactState.of(game);
+        TestGames.playRandomly(game, new Random(29), 20);
+        int[] notifications = new int[1];
+        game.addObserver(() -> notifications[0]++);
+
+        game.reset();
+        assertEquals(start, CompactState.of(game));
+        assertEquals(1, notifications[0]);
+        assertEquals(0, game.getPly());
+        assertEquals(0, game.getFirstPly());
+        assertEquals(0, game.getLastPly());
+        assertFalse(game.isGameOver());
+        assertEquals("8", game.remainingXForPlayer(Color.PINK));
+        assertEquals("8", game.remainingOForPlayer(Color.BLACK));
+        assertEquals(Color.PINK, game.getCurrPlayerColor());
+
+        game.playTurn(TestGames.firstLegalTurn(game));
+        game.seekToPly(0);
+        assertEquals(start, CompactState.of(game));
+    }
+
+    @Test
+    void observersShouldReceiveTheChangedTiles() {
+        Game game = new Game(6, 6, null);
+        List<GameChange> changes = new ArrayList<>();
+        game.addObserver(new Observer() {
+            @Override
+            public void update() {
+            }
+
+            @Override
+            public void update(GameChange change) {
+                changes.add(change);
+            }
+        });
+        game.notifyObservers();
+        assertEquals(36, changes.getLast().getChangedCellCount());
+
+        Position from = game.getTotemPos(Symbol.X);
+        game.setChosenTotem(Symbol.X);
+        Position to = game.getValidMoves(from).getFirst();
+        game.moveTotem(game.getTotemOfSymbol(Symbol.X), to);
+        GameChange move = changes.getLast();
+        assertEquals(List.of(cell(to), cell(from)), cells(move));
+        assertTrue(move.isPhaseChanged());
+        assertFalse(move.isPlayerChanged());
+        assertFalse(move.isPawnsChanged());
+
+        Position pawn = game.getValidPawnInsertions().getFirst();
+        game.insertPawn(game.getPawnOfSymbol(Symbol.X), pawn);
+        GameChange insert = changes.getLast();
+        assertEquals(List.of(cell(pawn)), cells(insert));
+        assertTrue(insert.isPhaseChanged());
+        assertTrue(insert.isPlayerChanged());
+        assertTrue(insert.isPawnsChanged());
+
+        int count = changes.size();
+        game.undoTurn();
+        assertEquals(count + 1, changes.size());
+        GameChange undo = changes.getLast();
+        assertEquals(3, undo.getChangedCellCount());
+        assertTrue(undo.isPlayerChanged());
+        assertFalse(undo.isPhaseChanged());
+    }
+
+    @Test
+    void copyTileStatesShouldMatchEachTile() {
+        Game game = new Game(7, 9, null);
+        TestGames.playRandomly(game, new Random(37), 12);
+        game.undo();
+
+        byte[] states = new byte[7 * 9];
+        game.copyTileStates(states);
+        for (int cell = 0; cell < states.length; cell++) {
+            assertEquals(game.getTileState(new Position(cell / 9, cell % 9)), TileState.values()[states[cell]]);
+            assertEquals(game.getTileState(new Position(cell / 9, cell % 9)), game.getTileState(cell));
+        }
+        assertThrows(IllegalArgumentException.class, () -> game.copyTileStates(new byte[7 * 9 - 1]));
+    }
+
+    @Test
+    void mergedChangesShouldListEachTileOnce() {
+        GameChange first = new GameChange(new int[]{4, 9}, false, true, false);
+        GameChange second = new GameChange(new int[]{9, 2}, true, false, false);
+        GameChange merged = first.merge(second);
+        assertEquals(List.of(4, 9, 2), cells(merged));
+        assertTrue(merged.isPlayerChanged());
+        assertTrue(merged.isPhaseChanged());
+        assertFalse(merged.isPawnsChanged());
+        assertTrue(new GameChange(new int[0], false, false, false)
+                .merge(new GameChange(new int[0], false, false, false)).isEmpty());
+    }
+
+    private static int cell(Position pos) {
+        return pos.x() * 6 + pos.y();
+    }
+
+    private static List<Integer> cells(GameChange change) {
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < change.getChangedCellCount(); i++) {
+            cells.add(change.getChangedCell(i));
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void gamesShouldBeRebuiltWithTheirHistory() throws IOException {
+        Path file = dir.resolve("games.journal");
+        Random random = new Random(3);
+        Game bounded = new Game(6, 6, null, 10);
+        Game unbounded = new Game(8, 8, null);
+        Game finished = new Game(6, 6, null);
+        Game surrendered = new Game(6, 6, null);
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            journal.attach(bounded);
+            journal.attach(unbounded);
+            journal.attach(finished);
+            journal.attach(surrendered);
+            TestGames.playRandomly(bounded, random, 40);
+            TestGames.playRandomly(unbounded, random, 60);
+            bounded.undoTurn();
+            bounded.undo();
+            unbounded.seekToPly(17);
+            unbounded.redoTurn();
+            TestGames.playRandomly(finished, random, 5);
+            journal.detach(finished);
+            TestGames.playRandomly(surrendered, random, 3);
+            surrendered.surrender();
+            journal.sync();
+        }
+
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            List<Game> games = journal.getRecoveredGames();
+            assertEquals(3, games.size());
+            assertSameGame(bounded, games.get(0));
+            assertSameGame(unbounded, games.get(1));
+            assertSameGame(surrendered, games.get(2));
+
+            unbounded = games.get(1);
+            unbounded.redo();
+            TestGames.playRandomly(unbounded, new Random(4), 5);
+        }
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            assertSameGame(unbounded, journal.getRecoveredGames().get(1));
+        }
+    }
+
+    @Test
+    void tornEntriesShouldBeDroppedAfterACrash() throws IOException {
+        Path file = dir.resolve("torn.journal");
+        Game game = new Game(6, 6, null);
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            journal.attach(game);
+            TestGames.playRandomly(game, new Random(9), 6);
+        }
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x02, 0, 0, 0, 1, 2, 3, 4, 5, 6}));
+            channel.write(ByteBuffer.allocate(4096));
+        }
+
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            assertSameGame(game, journal.getRecoveredGames().getFirst());
+            Game next = new Game(6, 6, null);
+            journal.attach(next);
+            next.playTurn(TestGames.firstLegalTurn(next));
+        }
+        assertEquals(size + 3 * MoveJournal.ENTRY_SIZE, Files.size(file));
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            assertEquals(2, journal.getRecoveredGames().size());
+        }
+    }
+
+    @Test
+    void resetShouldBeReplayed() throws IOException {
+        Path file = dir.resolve("reset.journal");
+        Game game = new Game(6, 6, null);
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            journal.attach(game);
+            TestGames.playRandomly(game, new Random(5), 8);
+            game.reset();
+            TestGames.playRandomly(game, new Random(6), 3);
+        }
+        try (MoveJournal journal = MoveJournal.open(file, null)) {
+            assertSameGame(game, journal.getRecoveredGames().getFirst());
+        }
+    }
+
+    @Test
+    void attachShouldRequireAFreshGame() throws IOException {
+        Game game = new Game(6, 6, null);
+        game.playTurn(TestGames.firstLegalTurn(game));
+        try (MoveJournal journal = MoveJournal.open(dir.resolve("fresh.journal"), null)) {
+            assertThrows(IllegalArgumentException.class, () -> journal.attach(game));
+        }
+    }
+
+    private static void assertSameGame(Game expected, Game actual) {
+        assertEquals(CompactState.of(expected), CompactState.of(actual));
+        assertEquals(expected.getPly(), actual.getPly());
+        assertEquals(expected.getFirstPly(), actual.getFirstPly());
+        assertEquals(expected.getLastPly(), actual.getLastPly());
+        assertEquals(expected.getWinnerColor(), actual.getWinnerColor());
+        assertEquals(expected.isHasMovedTotem(), actual.isHasMovedTotem());
+    }
+}
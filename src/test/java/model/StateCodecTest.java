@@ -0,0 +1,87 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateCodecTest {
+
+    @Test
+    void statesShouldSurviveARoundTrip() {
+        Random random = new Random(31);
+        for (int[] size : new int[][]{{6, 6}, {5, 7}, {8, 8}}) {
+            int length = StateCodec.encodedSize(size[0], size[1]);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(length * 200).order(ByteOrder.LITTLE_ENDIAN);
+            CompactState decoded = new CompactState(size[0], size[1]);
+            for (int game = 0; game < 5; game++) {
+                Game played = new Game(size[0], size[1], null);
+                int[] turns = new int[CompactState.of(played).maxTurns()];
+                buffer.clear();
+                CompactState[] states = new CompactState[40];
+                int count = 0;
+                while (count < states.length) {
+                    CompactState state = CompactState.of(played);
+                    states[count++] = state;
+                    StateCodec.encode(state, buffer);
+                    int legal = state.legalTurns(turns);
+                    if (played.isGameOver() || legal == 0) {
+                        break;
+                    }
+                    played.playTurn(turns[random.nextInt(legal)]);
+                }
+                assertEquals(count * length, buffer.position());
+
+                buffer.flip();
+                for (int i = 0; i < count; i++) {
+                    StateCodec.decode(buffer, decoded);
+                    assertEquals(states[i], decoded);
+                }
+                assertFalse(buffer.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    void midTurnStatesShouldKeepTheirFlags() {
+        Game game = new Game(6, 6, null);
+        game.setChosenTotem(Symbol.O);
+        Position totemPos = game.getTotemPos(Symbol.O);
+        game.moveTotem(game.getTotemOfSymbol(Symbol.O), game.getValidMoves(totemPos).getFirst());
+        CompactState state = CompactState.of(game);
+
+        byte[] bytes = new byte[StateCodec.encodedSize(6, 6) + 3];
+        StateCodec.encode(state, ByteBuffer.wrap(bytes), 3);
+        CompactState decoded = new CompactState(6, 6);
+        StateCodec.decode(ByteBuffer.wrap(bytes), 3, decoded);
+        assertEquals(state, decoded);
+        assertTrue(decoded.isTotemMoved());
+        assertEquals(Symbol.O, decoded.getLastMovedTotem());
+    }
+
+    @Test
+    void malformedStatesShouldBeRejected() {
+        CompactState state = CompactState.of(new Game(6, 6, null));
+        ByteBuffer buffer = ByteBuffer.allocate(StateCodec.encodedSize(6, 6));
+        StateCodec.encode(state, buffer, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode(buffer, 0, new CompactState(8, 8)));
+        assertThrows(IndexOutOfBoundsException.class, () -> StateCodec.decode(buffer.slice(0, buffer.capacity() - 1), 0, new CompactState(6, 6)));
+        Game played = new Game(6, 6, null);
+        TestGames.playRandomly(played, new Random(3), 5);
+        CompactState populated = CompactState.of(played);
+        CompactState before = CompactState.of(played);
+        buffer.put(StateCodec.HEADER_SIZE + 13, (byte) 0xFF);
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode(buffer, 0, populated));
+        assertEquals(before, populated, "a rejected input must leave the state unchanged");
+        StateCodec.encode(state, buffer, 0);
+        buffer.put(StateCodec.HEADER_SIZE, (byte) 7);
+        assertThrows(IllegalArgumentException.class, () -> StateCodec.decode(buffer, 0, new CompactState(6, 6)));
+        assertThrows(BufferOverflowException.class,
+                () -> StateCodec.encode(state, ByteBuffer.allocate(StateCodec.HEADER_SIZE)));
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Plays turns on games for the tests of every package.
+ */
+public final class TestGames {
+
+    private TestGames() {
+    }
+
+    /**
+     * Plays random legal turns until a number of turns, the end of the game or a position
+     * without legal turns.
+     *
+     * @param game   The game.
+     * @param random The source of the turns, the same seed plays the same turns.
+     * @param turns  The maximum number of turns to play.
+     */
+    public static void playRandomly(Game game, Random random, int turns) {
+        int[] legal = new int[CompactState.of(game).maxTurns()];
+        for (int i = 0; i < turns && !game.isGameOver(); i++) {
+            int count = CompactState.of(game).legalTurns(legal);
+            if (count == 0) {
+                return;
+            }
+            game.playTurn(legal[random.nextInt(count)]);
+        }
+    }
+
+    /**
+     * @param game The game.
+     * @return The first legal turn of the player to move, {@link Turn#NONE} if there is none.
+     */
+    public static int firstLegalTurn(Game game) {
+        CompactState state = CompactState.of(game);
+        int[] legal = new int[state.maxTurns()];
+        return state.legalTurns(legal) == 0 ? Turn.NONE : legal[0];
+    }
+}
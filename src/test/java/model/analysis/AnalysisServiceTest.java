@@ -0,0 +1,34 @@
+package model.analysis;
+
+import model.CompactState;
+import model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisServiceTest {
+
+    @Test
+    void framesShouldCarryTheGenerationOfTheirAnalysis() throws InterruptedException {
+        AnalysisService service = new AnalysisService(1);
+        LinkedBlockingQueue<AnalysisService.Result> results = new LinkedBlockingQueue<>();
+        try {
+            long first = service.start(CompactState.of(new Game(6, 6, null)), results::add);
+            AnalysisService.Result result = results.poll(10, TimeUnit.SECONDS);
+            assertNotNull(result);
+            assertEquals(first, result.generation());
+            assertTrue(service.isCurrent(first));
+
+            long second = service.start(CompactState.of(new Game(6, 6, null)), results::add);
+            assertNotEquals(first, second);
+            assertFalse(service.isCurrent(first));
+            service.cancel();
+            assertFalse(service.isCurrent(second), "a cancelled analysis is stale");
+        } finally {
+            service.shutdown();
+        }
+    }
+}
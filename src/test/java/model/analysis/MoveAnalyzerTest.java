@@ -0,0 +1,73 @@
+package model.analysis;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveAnalyzerTest {
+
+    private Game gameWithThreeAlignedX() {
+        Game game = new Game(6, 6, null);
+        for (Position pos : List.of(new Position(1, 1), new Position(1, 2), new Position(1, 3))) {
+            game.setChosenTotem(Symbol.X);
+            game.moveTotem(game.getTotemOfSymbol(Symbol.X), new Position(pos.x() + 1, pos.y()));
+            game.insertPawn(game.getPawnOfSymbol(Symbol.X), pos);
+        }
+        return game;
+    }
+
+    private static double max(double[] scores) {
+        return Arrays.stream(scores).filter(score -> !Double.isNaN(score)).max().orElseThrow();
+    }
+
+    @Test
+    void winningTilesShouldGetTheTopScore() {
+        CompactState state = CompactState.of(gameWithThreeAlignedX());
+        int win = state.findWinningTurn();
+        assertNotEquals(Turn.NONE, win);
+        List<MoveAnalyzer.Frame> frames = new ArrayList<>();
+
+        new MoveAnalyzer().analyze(state, 2, () -> false, frames::add);
+
+        MoveAnalyzer.Frame last = frames.getLast();
+        assertTrue(last.complete());
+        assertEquals(1, last.totemScores()[Turn.totemCell(win)]);
+        assertEquals(1, last.pawnScores()[Turn.pawnCell(win)]);
+        assertEquals(1, max(last.totemScores()));
+        assertEquals(1, max(last.pawnScores()));
+        assertTrue(Double.isNaN(last.pawnScores()[state.cellOf(1, 1)]), "a pawn's tile is not a candidate");
+        assertTrue(Double.isNaN(last.totemScores()[state.cellOf(1, 1)]), "a pawn's tile is not a candidate");
+    }
+
+    @Test
+    void framesShouldDeepenOneCompleteDepthAfterTheOther() {
+        CompactState state = CompactState.of(new Game(6, 6, null));
+        int count = state.legalTurns(new int[state.maxTurns()]);
+        List<MoveAnalyzer.Frame> frames = new ArrayList<>();
+
+        new MoveAnalyzer().analyze(state, 2, () -> false, frames::add);
+
+        assertEquals(2 * count, frames.size(), "a frame after each root turn");
+        for (int i = 0; i < frames.size(); i++) {
+            MoveAnalyzer.Frame frame = frames.get(i);
+            assertEquals(1 + i / count, frame.depth());
+            assertEquals(i % count == count - 1, frame.complete());
+        }
+    }
+
+    @Test
+    void cancelledAnalysisShouldStopPublishing() {
+        CompactState state = CompactState.of(new Game(6, 6, null));
+        List<MoveAnalyzer.Frame> frames = new ArrayList<>();
+
+        new MoveAnalyzer().analyze(state, 3, () -> frames.size() >= 5, frames::add);
+
+        assertEquals(5, frames.size());
+        assertEquals(1, frames.getLast().depth());
+    }
+}
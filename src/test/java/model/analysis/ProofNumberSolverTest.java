@@ -0,0 +1,106 @@
+package model.analysis;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProofNumberSolverTest {
+
+    private Game gameWithThreeAlignedX() {
+        Game game = new Game(6, 6, null);
+        for (Position pos : List.of(new Position(1, 1), new Position(1, 2), new Position(1, 3))) {
+            game.setChosenTotem(Symbol.X);
+            game.moveTotem(game.getTotemOfSymbol(Symbol.X), new Position(pos.x() + 1, pos.y()));
+            game.insertPawn(game.getPawnOfSymbol(Symbol.X), pos);
+        }
+        return game;
+    }
+
+    @Test
+    void shouldProveAnImmediateWin() {
+        CompactState state = CompactState.of(gameWithThreeAlignedX());
+        ProofNumberSolver.Result result = new ProofNumberSolver(12, 10_000).solve(state);
+
+        assertEquals(ProofNumberSolver.Value.WIN, result.value());
+        assertEquals(1, result.line().length);
+        assertTrue(state.copy().playTurn(result.line()[0]));
+    }
+
+    private CompactState randomPosition(int rows, int cols, long seed, int turns) {
+        Game game = new Game(rows, cols, null);
+        TestGames.playRandomly(game, new Random(seed), turns);
+        assertEquals(turns, game.getPly());
+        return CompactState.of(game);
+    }
+
+    private void assertLineWins(CompactState position, int[] line, Color winner) {
+        CompactState state = position.copy();
+        for (int i = 0; i < line.length; i++) {
+            assertTrue(state.isLegalTurn(line[i]), "turn " + i + " " + Turn.toString(line[i]));
+            assertEquals(i == line.length - 1, state.playTurn(line[i]), "turn " + i + " ends the game");
+        }
+        assertEquals(winner, state.getWinner());
+    }
+
+    @Test
+    void shouldProveAWinSeveralTurnsAhead() {
+        CompactState state = randomPosition(6, 6, 3, 8);
+        assertEquals(Turn.NONE, state.findWinningTurn());
+
+        ProofNumberSolver.Result result = new ProofNumberSolver(20, 100_000).solve(state);
+
+        assertEquals(ProofNumberSolver.Value.WIN, result.value());
+        assertTrue(result.line().length > 1);
+        assertLineWins(state, result.line(), state.getToMove());
+    }
+
+    @Test
+    void shouldProveALoss() {
+        CompactState state = randomPosition(6, 6, 19, 10);
+
+        ProofNumberSolver.Result result = new ProofNumberSolver(20, 100_000).solve(state);
+
+        assertEquals(ProofNumberSolver.Value.LOSS, result.value());
+        assertLineWins(state, result.line(), CompactState.opponent(state.getToMove()));
+    }
+
+    @Test
+    void shouldProveADraw() {
+        CompactState state = randomPosition(4, 4, 1, 6);
+
+        ProofNumberSolver.Result result = new ProofNumberSolver(20, 100_000).solve(state);
+
+        assertEquals(ProofNumberSolver.Value.DRAW, result.value());
+        assertEquals(0, result.line().length);
+    }
+
+    @Test
+    void transpositionsShouldSaveSearch() {
+        CompactState state = randomPosition(6, 6, 3, 8);
+        ProofNumberSolver solver = new ProofNumberSolver(20, 100_000);
+
+        ProofNumberSolver.Result first = solver.solve(state);
+        // The table is cleared between solves, another position leaves nothing behind
+        solver.solve(randomPosition(6, 6, 19, 10));
+        ProofNumberSolver.Result again = solver.solve(state);
+        ProofNumberSolver.Result tiny = new ProofNumberSolver(4, 100_000).solve(state);
+
+        assertEquals(first.value(), again.value());
+        assertArrayEquals(first.line(), again.line());
+        assertEquals(first.nodes(), again.nodes());
+        assertEquals(first.value(), tiny.value());
+        assertTrue(first.nodes() < tiny.nodes(), first.nodes() + " < " + tiny.nodes());
+    }
+
+    @Test
+    void shouldStopAtTheNodeLimit() {
+        CompactState state = CompactState.of(new Game(6, 6, null));
+        ProofNumberSolver.Result result = new ProofNumberSolver(12, 100).solve(state);
+
+        assertEquals(ProofNumberSolver.Value.UNKNOWN, result.value());
+    }
+}
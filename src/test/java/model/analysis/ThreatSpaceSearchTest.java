@@ -0,0 +1,79 @@
+package model.analysis;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreatSpaceSearchTest {
+
+    @Test
+    void shouldNotFindAForcedWinAtTheStart() {
+        Game game = new Game(6, 6, null);
+        ThreatSpaceSearch search = new ThreatSpaceSearch();
+
+        assertEquals(Turn.NONE, search.findForcedWin(CompactState.of(game)));
+    }
+
+    @Test
+    void shouldFindAWinningTurnForTheCurrentPlayer() {
+        Game game = new Game(6, 6, null);
+        for (Position pos : List.of(new Position(1, 1), new Position(1, 2), new Position(1, 3))) {
+            game.setChosenTotem(Symbol.X);
+            game.moveTotem(game.getTotemOfSymbol(Symbol.X), new Position(pos.x() + 1, pos.y()));
+            game.insertPawn(game.getPawnOfSymbol(Symbol.X), pos);
+        }
+        CompactState state = CompactState.of(game);
+        int turn = new ThreatSpaceSearch().findForcedWin(state);
+
+        assertNotEquals(Turn.NONE, turn);
+        CompactState next = state.copy();
+        assertTrue(next.playTurn(turn));
+    }
+
+    @Test
+    void shouldFindADoubleThreatWhenNoTurnWinsAtOnce() {
+        // After these turns the player to move has no winning turn, but one threatening two lines
+        Game game = new Game(6, 6, null);
+        TestGames.playRandomly(game, new Random(3), 6);
+        CompactState state = CompactState.of(game);
+        assertEquals(Turn.NONE, state.findWinningTurn());
+
+        int turn = new ThreatSpaceSearch().findForcedWin(state);
+
+        assertNotEquals(Turn.NONE, turn);
+        CompactState next = state.copy();
+        assertFalse(next.playTurn(turn), "the turn only threatens");
+        int[] replies = new int[next.maxTurns()];
+        int count = next.legalTurns(replies);
+        assertTrue(count > 0);
+        for (int i = 0; i < count; i++) {
+            CompactState afterReply = next.copy();
+            assertFalse(afterReply.playTurn(replies[i]), Turn.toString(replies[i]));
+            int win = afterReply.findWinningTurn();
+            assertNotEquals(Turn.NONE, win, "a threat is left after " + Turn.toString(replies[i]));
+            assertTrue(afterReply.playTurn(win));
+            assertEquals(state.getToMove(), afterReply.getWinner());
+        }
+    }
+
+    @Test
+    void safeTurnShouldLeaveNoImmediateWin() {
+        Game game = new Game(6, 6, null);
+        for (Position pos : List.of(new Position(1, 1), new Position(1, 2), new Position(1, 3))) {
+            game.setChosenTotem(Symbol.X);
+            game.moveTotem(game.getTotemOfSymbol(Symbol.X), new Position(pos.x() + 1, pos.y()));
+            game.insertPawn(game.getPawnOfSymbol(Symbol.X), pos);
+        }
+        CompactState state = CompactState.of(game);
+        int turn = new ThreatSpaceSearch().findSafeTurn(state);
+
+        assertNotEquals(Turn.NONE, turn);
+        CompactState next = state.copy();
+        next.playTurn(turn);
+        assertTrue(next.getWinner() != null || next.findWinningTurn() == Turn.NONE);
+    }
+}
@@ -0,0 +1,72 @@
+package model.command;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandManagerTest {
+
+    private final List<Integer> executed = new ArrayList<>();
+    private final List<Integer> unexecuted = new ArrayList<>();
+
+    private final CommandExecutor recorder = new CommandExecutor() {
+        @Override
+        public void execute(int command) {
+            executed.add(command);
+        }
+
+        @Override
+        public void unexecute(int command) {
+            unexecuted.add(command);
+        }
+    };
+
+    @Test
+    void shouldUndoAndRedoInReverseOrderAcrossGrowth() {
+        CommandManager manager = new CommandManager(recorder);
+        for (int i = 0; i < 200; i++) {
+            manager.addCommand(i);
+        }
+        for (int i = 0; i < 150; i++) {
+            manager.undo();
+        }
+        manager.redo();
+
+        assertEquals(199, unexecuted.get(0));
+        assertEquals(50, unexecuted.get(149));
+        assertEquals(List.of(50), executed);
+        assertEquals(51, manager.getUndoCount());
+        assertEquals(149, manager.getRedoCount());
+    }
+
+    @Test
+    void addingACommandShouldClearTheRedoHistory() {
+        CommandManager manager = new CommandManager(recorder);
+        manager.addCommand(1);
+        manager.addCommand(2);
+        manager.undo();
+        manager.addCommand(3);
+        manager.redo();
+
+        assertFalse(manager.canRedo());
+        assertTrue(executed.isEmpty());
+        manager.undo();
+        assertEquals(List.of(2, 3), unexecuted);
+    }
+
+    @Test
+    void boundedHistoryShouldForgetTheOldestCommands() {
+        CommandManager manager = new CommandManager(recorder, 5);
+        for (int i = 0; i < 12; i++) {
+            manager.addCommand(i);
+        }
+        while (manager.canUndo()) {
+            manager.undo();
+        }
+
+        assertEquals(List.of(11, 10, 9, 8, 7), unexecuted);
+    }
+}
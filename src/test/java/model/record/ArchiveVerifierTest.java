@@ -0,0 +1,96 @@
+package model.record;
+
+import model.CompactState;
+import model.Game;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchiveVerifierTest {
+
+    @Test
+    void shouldReportEveryInvalidGame() throws IOException {
+        Random random = new Random(11);
+        GameRecord[] games = new GameRecord[10_000];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = GameRecord.of(playRandomGame(random), i);
+        }
+        GameRecord wrongResult = games[17];
+        wrongResult.setResult(wrongResult.getResult() == GameRecord.Result.DRAW
+                ? GameRecord.Result.PINK_WON : GameRecord.Result.DRAW);
+        games[5000] = withTurns(games[5000], 3, games[5000].getTurn(2));
+        games[9999] = withTurns(games[9999], games[9999].getTurnCount(), games[9999].getTurn(0));
+
+        ArchiveVerifier verifier = new ArchiveVerifier();
+        assertFalse(verifier.verify(Channels.newChannel(new ByteArrayInputStream(archive(games)))));
+
+        assertEquals(games.length, verifier.getGameCount());
+        assertEquals(Arrays.stream(games).mapToLong(GameRecord::getTurnCount).sum(), verifier.getTurnCount());
+        List<ArchiveVerifier.InvalidGame> invalid = verifier.getInvalidGames();
+        assertEquals(List.of(17L, 5000L, 9999L), invalid.stream().map(ArchiveVerifier.InvalidGame::index).toList());
+        assertTrue(invalid.get(0).reason().startsWith("declares "));
+        assertTrue(invalid.get(1).reason().startsWith("illegal turn 4: "));
+        assertEquals(3, verifier.getInvalidCount());
+    }
+
+    @Test
+    void truncatedArchiveShouldStopAtTheBrokenRecord() throws IOException {
+        Random random = new Random(12);
+        GameRecord[] games = new GameRecord[5];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = GameRecord.of(playRandomGame(random), i);
+        }
+        byte[] bytes = archive(games);
+
+        ArchiveVerifier verifier = new ArchiveVerifier(0);
+        assertFalse(verifier.verify(Channels.newChannel(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)))));
+        assertEquals(4, verifier.getGameCount());
+        assertEquals(1, verifier.getInvalidCount());
+        assertTrue(verifier.getInvalidGames().isEmpty());
+    }
+
+    /**
+     * Copies the first turns of a record and appends another turn.
+     */
+    private static GameRecord withTurns(GameRecord record, int turns, int extraTurn) {
+        GameRecord copy = new GameRecord(record.getRows(), record.getCols(), record.getSeed());
+        for (int ply = 0; ply < turns; ply++) {
+            copy.addTurn(record.getTurn(ply));
+        }
+        copy.addTurn(extraTurn);
+        copy.setResult(record.getResult());
+        return copy;
+    }
+
+    private static byte[] archive(GameRecord[] games) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+            for (GameRecord game : games) {
+                writer.write(game);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Game playRandomGame(Random random) {
+        Game game = new Game(6, 6, null);
+        int[] turns = new int[CompactState.of(game).maxTurns()];
+        while (!game.isGameOver()) {
+            CompactState state = CompactState.of(game);
+            int count = state.legalTurns(turns);
+            if (count == 0) {
+                break;
+            }
+            game.playTurn(turns[random.nextInt(count)]);
+        }
+        return game;
+    }
+}
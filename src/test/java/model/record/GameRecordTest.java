@@ -0,0 +1,91 @@
+package model.record;
+
+import model.CompactState;
+import model.Game;
+import model.OxonoException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRecordTest {
+
+    @Test
+    void archiveShouldRoundTripWithAboutTwoBytesPerTurn() throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 20; i++) {
+            games.add(GameRecord.of(playRandomGame(random), i));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+            for (GameRecord game : games) {
+                writer.write(game);
+            }
+        }
+
+        List<GameRecord> read = new ArrayList<>();
+        try (GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+            GameRecord record = new GameRecord();
+            while (reader.next(record)) {
+                read.add(GameNotation.parse(GameNotation.format(record)));
+            }
+        }
+
+        assertEquals(games, read);
+        int turns = games.stream().mapToInt(GameRecord::getTurnCount).sum();
+        assertTrue(bytes.size() <= 4 + games.size() * 12 + 2 * turns);
+    }
+
+    @Test
+    void recordShouldReplayToTheFinalPosition() {
+        Game game = playRandomGame(new Random(8));
+        GameRecord record = GameRecord.of(game, 0);
+
+        Game replayed = new Game(record.getRows(), record.getCols(), null);
+        for (int turn : record.getTurns()) {
+            replayed.playTurn(turn);
+        }
+        assertEquals(CompactState.of(game), CompactState.of(replayed));
+        assertNotEquals(GameRecord.Result.UNFINISHED, record.getResult());
+    }
+
+    @Test
+    void truncatedArchiveShouldFail() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+            writer.write(GameRecord.of(playRandomGame(new Random(2)), 0));
+        }
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+
+        GameRecordReader reader = new GameRecordReader(Channels.newChannel(new ByteArrayInputStream(truncated)));
+        assertThrows(IOException.class, () -> reader.next(new GameRecord()));
+    }
+
+    @Test
+    void notationShouldRejectTurnsOffTheBoard() {
+        assertThrows(OxonoException.class, () -> GameNotation.parse("[Size \"4x4\"]\n1. move x 17; insert 2"));
+    }
+
+    private static Game playRandomGame(Random random) {
+        Game game = new Game(6, 6, null);
+        int[] turns = new int[CompactState.of(game).maxTurns()];
+        while (!game.isGameOver()) {
+            CompactState state = CompactState.of(game);
+            int count = state.legalTurns(turns);
+            if (count == 0) {
+                break;
+            }
+            game.playTurn(turns[random.nextInt(count)]);
+        }
+        return game;
+    }
+}
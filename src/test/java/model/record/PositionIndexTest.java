@@ -0,0 +1,135 @@
+package model.record;
+
+import model.BatchSimulator;
+import model.BoardSymmetry;
+import model.Color;
+import model.CompactState;
+import model.Game;
+import model.Turn;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void lookupShouldMatchTheGamesThroughEachPosition() throws IOException {
+        GameRecord[] games = simulate(30_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(Channels.newChannel(bytes))) {
+            for (GameRecord game : games) {
+                writer.write(game);
+            }
+        }
+
+        // The smallest run size forces several runs and a merge
+        PositionIndexBuilder builder = new PositionIndexBuilder(6, 6, 4096 * 127);
+        Path file = dir.resolve("positions.idx");
+        builder.build(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), file);
+        PositionIndex index = PositionIndex.open(file);
+        assertEquals(games.length, index.getGameCount());
+        assertEquals(expectedEntries(games), index.getEntryCount());
+
+        Map<Long, long[]> expected = bruteForceStats(games);
+        Random random = new Random(4);
+        for (int sample = 0; sample < 50; sample++) {
+            GameRecord game = games[random.nextInt(games.length)];
+            CompactState state = replay(game, random.nextInt(game.getTurnCount() + 1));
+            long[] counts = expected.get(BoardSymmetry.of(6, 6).canonicalKey(state));
+
+            PositionStats stats = index.lookup(state);
+            assertEquals(counts[0], stats.games());
+            long pinkWins = state.getToMove() == Color.PINK ? stats.wins() : stats.losses();
+            long blackWins = state.getToMove() == Color.PINK ? stats.losses() : stats.wins();
+            assertEquals(counts[1], pinkWins);
+            assertEquals(counts[2], blackWins);
+            assertEquals(counts[3], stats.draws());
+            int[] gameIds = new int[games.length];
+            int[] plies = new int[games.length];
+            assertEquals(counts[0], index.findGames(state, gameIds, plies));
+            if (stats.mostCommonTurn() != Turn.NONE) {
+                int[] turns = new int[state.maxTurns()];
+                int count = state.legalTurns(turns);
+                assertTrue(Arrays.stream(turns, 0, count).anyMatch(t -> t == stats.mostCommonTurn()));
+            }
+        }
+    }
+
+    @Test
+    void unknownPositionShouldHaveNoGames() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new GameRecordWriter(Channels.newChannel(bytes)).close();
+        Path file = dir.resolve("empty.idx");
+        new PositionIndexBuilder(6, 6).build(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), file);
+
+        assertEquals(PositionStats.NONE, PositionIndex.open(file).lookup(CompactState.of(new Game(6, 6, null))));
+    }
+
+    private static long expectedEntries(GameRecord[] games) {
+        return Arrays.stream(games).mapToLong(game -> game.getTurnCount() + 1).sum();
+    }
+
+    private static GameRecord[] simulate(int count) {
+        BatchSimulator simulator = new BatchSimulator(6, 6, count, 1);
+        GameRecord[] games = new GameRecord[count];
+        for (int g = 0; g < count; g++) {
+            games[g] = new GameRecord(6, 6, 1);
+        }
+        while (simulator.getRunningCount() > 0) {
+            simulator.step();
+            for (int g = 0; g < count; g++) {
+                if (simulator.getTurnCount(g) > games[g].getTurnCount()) {
+                    games[g].addTurn(simulator.getLastTurn(g));
+                }
+            }
+        }
+        for (int g = 0; g < count; g++) {
+            games[g].setResult(GameRecord.Result.values()[simulator.getStatus(g)]);
+        }
+        return games;
+    }
+
+    private static Map<Long, long[]> bruteForceStats(GameRecord[] games) {
+        BoardSymmetry symmetry = BoardSymmetry.of(6, 6);
+        Map<Long, long[]> stats = new HashMap<>();
+        for (GameRecord game : games) {
+            CompactState state = replay(game, 0);
+            for (int ply = 0; ply <= game.getTurnCount(); ply++) {
+                long[] counts = stats.computeIfAbsent(symmetry.canonicalKey(state), k -> new long[4]);
+                counts[0]++;
+                switch (game.getResult()) {
+                    case PINK_WON -> counts[1]++;
+                    case BLACK_WON -> counts[2]++;
+                    case DRAW -> counts[3]++;
+                    case UNFINISHED -> { }
+                }
+                if (ply < game.getTurnCount()) {
+                    state.playTurn(game.getTurn(ply));
+                }
+            }
+        }
+        return stats;
+    }
+
+    private static CompactState replay(GameRecord game, int plies) {
+        CompactState state = CompactState.of(new Game(6, 6, null));
+        for (int ply = 0; ply < plies; ply++) {
+            state.playTurn(game.getTurn(ply));
+        }
+        return state;
+    }
+}
@@ -0,0 +1,101 @@
+package view;
+
+import model.Game;
+import model.TestGames;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleRendererTest {
+
+    @Test
+    void framesAfterTheFirstShouldRepaintOnlyTheChanges() {
+        Game game = new Game(20, 20, null);
+        ByteArrayOutputStream terminal = new ByteArrayOutputStream();
+        ConsoleRenderer renderer = new ConsoleRenderer(new PrintStream(terminal), true, 60);
+
+        renderer.render(game);
+        String first = terminal.toString(StandardCharsets.UTF_8);
+        assertTrue(first.startsWith("\033[H\033[2J"));
+        assertTrue(first.contains("  400  "));
+
+        terminal.reset();
+        game.playTurn(TestGames.firstLegalTurn(game));
+        renderer.render(game);
+        String second = terminal.toString(StandardCharsets.UTF_8);
+        assertFalse(second.contains("\033[2J"));
+        assertFalse(second.contains("  400  "), "unchanged tiles must not be repainted");
+        assertTrue(second.length() < first.length() / 4, second.length() + " bytes for one turn");
+        assertTrue(second.contains("BLACK's turn."));
+
+        terminal.reset();
+        renderer.render(game);
+        String unchanged = terminal.toString(StandardCharsets.UTF_8);
+        assertTrue(unchanged.length() < second.length());
+    }
+
+    @Test
+    void framesShouldBeWrittenInFullOnceTheTerminalHasScrolled() {
+        Game game = new Game(6, 6, null);
+        ByteArrayOutputStream terminal = new ByteArrayOutputStream();
+        ConsoleRenderer renderer = new ConsoleRenderer(new PrintStream(terminal), true, 24);
+
+        renderer.render(game);
+        renderer.linesWritten(7);
+        terminal.reset();
+        game.playTurn(TestGames.firstLegalTurn(game));
+        renderer.render(game);
+        assertFalse(terminal.toString(StandardCharsets.UTF_8).contains("\033[2J"), "16 + 7 lines fit");
+
+        renderer.linesWritten(8);
+        terminal.reset();
+        renderer.render(game);
+        String text = terminal.toString(StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("\033[H\033[2J"), "16 + 8 lines scrolled");
+        assertTrue(text.contains("  36  "));
+    }
+
+    @Test
+    void boardsTallerThanTheTerminalShouldAlwaysBeWrittenInFull() {
+        Game game = new Game(20, 20, null);
+        ByteArrayOutputStream terminal = new ByteArrayOutputStream();
+        ConsoleRenderer renderer = new ConsoleRenderer(new PrintStream(terminal), true, 24);
+
+        renderer.render(game);
+        terminal.reset();
+        game.playTurn(TestGames.firstLegalTurn(game));
+        renderer.render(game);
+        String second = terminal.toString(StandardCharsets.UTF_8);
+        assertTrue(second.startsWith("\033[H\033[2J"));
+        assertTrue(second.contains("  400  "));
+    }
+
+    @Test
+    void terminalHeightShouldBeReadFromTheTerminalSize() {
+        assertEquals(50, ConsoleRenderer.terminalLinesOf("50 120\n"));
+        assertEquals(41, ConsoleRenderer.terminalLinesOf("41"));
+        assertEquals(24, ConsoleRenderer.terminalLinesOf(""));
+        assertEquals(24, ConsoleRenderer.terminalLinesOf("0 0"));
+        assertEquals(24, ConsoleRenderer.terminalLinesOf("stty: not a tty"));
+    }
+
+    @Test
+    void framesShouldBeWrittenInFullWhenNotIncremental() {
+        Game game = new Game(6, 6, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ConsoleRenderer renderer = new ConsoleRenderer(new PrintStream(output), false);
+
+        renderer.render(game);
+        int firstLength = output.size();
+        game.playTurn(TestGames.firstLegalTurn(game));
+        renderer.render(game);
+        String text = output.toString(StandardCharsets.UTF_8);
+        assertFalse(text.contains("H"), "no cursor movement");
+        assertEquals(2 * (2 * 6 + 1 + 3), text.split("\n").length);
+        assertTrue(output.size() - firstLength > firstLength / 2);
+    }
+}
@@ -0,0 +1,59 @@
+package view.javafx;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxPulseCoalescerTest {
+
+    @BeforeAll
+    static void startToolkit() {
+        HeadlessFx.start();
+    }
+
+    @Test
+    void valuesSubmittedBetweenTwoPulsesShouldBeMerged() {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        FxPulseCoalescer<String> coalescer = new FxPulseCoalescer<>(delivered::add, String::concat);
+        coalescer.start();
+
+        HeadlessFx.run(() -> {
+            coalescer.submit("a");
+            coalescer.submit("b");
+            coalescer.submit("c");
+        });
+        HeadlessFx.waitFor(200);
+        assertEquals(List.of("abc"), delivered);
+
+        // From another thread, after the previous delivery
+        coalescer.submit("d");
+        HeadlessFx.waitFor(200);
+        assertEquals(List.of("abc", "d"), delivered);
+    }
+
+    @Test
+    void latestValueShouldBeKeptByDefault() {
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        FxPulseCoalescer<String> coalescer = new FxPulseCoalescer<>(delivered::add);
+
+        coalescer.submit("a");
+        coalescer.submit("b");
+        HeadlessFx.waitFor(200);
+        assertEquals(List.of(), delivered, "not started yet");
+
+        HeadlessFx.run(coalescer::start);
+        HeadlessFx.waitFor(200);
+        assertEquals(List.of("b"), delivered);
+
+        HeadlessFx.run(() -> {
+            coalescer.submit("c");
+            coalescer.stop();
+        });
+        HeadlessFx.waitFor(200);
+        assertEquals(List.of("b"), delivered, "stopped before the pulse");
+    }
+}
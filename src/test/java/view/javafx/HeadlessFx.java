@@ -0,0 +1,108 @@
+package view.javafx;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the JavaFX toolkit without a display for the tests of every package, with the headless
+ * Monocle platform and software rendering.
+ */
+public final class HeadlessFx {
+    private static final List<Throwable> uncaught = new ArrayList<>();
+    private static boolean started;
+
+    private HeadlessFx() {
+    }
+
+    /**
+     * Starts the toolkit once for the whole test run.
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        System.setProperty("glass.platform", "Monocle");
+        System.setProperty("monocle.platform", "Headless");
+        System.setProperty("prism.order", "sw");
+        Platform.setImplicitExit(false);
+        CompletableFuture<Void> startup = new CompletableFuture<>();
+        Platform.startup(() -> {
+            Thread.currentThread().setUncaughtExceptionHandler((thread, e) -> {
+                synchronized (uncaught) {
+                    uncaught.add(e);
+                }
+            });
+            startup.complete(null);
+        });
+        startup.join();
+        started = true;
+    }
+
+    /**
+     * Runs code on the JavaFX thread and waits for its result.
+     *
+     * @param code The code.
+     * @return The result of the code.
+     */
+    public static <T> T call(Callable<T> code) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(code.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        try {
+            return result.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new AssertionError("Failed on the JavaFX thread", e.getCause());
+        } catch (InterruptedException | TimeoutException e) {
+            throw new AssertionError("The JavaFX thread did not answer", e);
+        }
+    }
+
+    /**
+     * Runs code on the JavaFX thread and waits for it.
+     *
+     * @param code The code.
+     */
+    public static void run(Runnable code) {
+        call(() -> {
+            code.run();
+            return null;
+        });
+    }
+
+    /**
+     * Lets the JavaFX thread run its pulses, animations and pending tasks for a while.
+     *
+     * @param millis The time to wait.
+     */
+    public static void waitFor(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        run(() -> { });
+    }
+
+    /**
+     * @return The exceptions thrown on the JavaFX thread and not caught since the last call.
+     */
+    public static List<Throwable> takeUncaught() {
+        synchronized (uncaught) {
+            List<Throwable> taken = new ArrayList<>(uncaught);
+            uncaught.clear();
+            return taken;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package view.javafx;
+
+import controller.JavaFXController;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelReader;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import model.Color;
+import model.CompactState;
+import model.Game;
+import model.Position;
+import model.TileState;
+import model.Turn;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays games against the computer through the JavaFX front end, by clicking on the boards.
+ * Only the board is in the scene and neither player ends the game: laying out text, as the
+ * other panes and the alerts do, needs the Pango library, which a headless machine may not have.
+ */
+class JavaFXBoardSmokeTest {
+    private static final javafx.scene.paint.Color BACKGROUND = javafx.scene.paint.Color.web("#643b7d");
+
+    private Game model;
+    private BoardView board;
+    private JavaFXController controller;
+    private Stage stage;
+
+    @BeforeAll
+    static void startToolkit() {
+        HeadlessFx.start();
+    }
+
+    @Test
+    void gameShouldBePlayedOnTheBoardOfTiles() {
+        play(6, 6);
+        HeadlessFx.run(() -> {
+            GridPane grid = (GridPane) board.getRegion();
+            for (Node node : grid.getChildren()) {
+                Tile tile = (Tile) node;
+                TileState state = model.getTileState(new Position(GridPane.getRowIndex(tile), GridPane.getColumnIndex(tile)));
+                ImageView sprite = (ImageView) tile.getSprite();
+                assertEquals(state != TileState.EMPTY, sprite.getImage() != null, state.toString());
+                assertEquals(0, sprite.getTranslateX(), "the slides are over");
+                assertEquals(0, sprite.getTranslateY(), "the slides are over");
+                assertEquals(1, sprite.getScaleX(), "the drops are over");
+                assertEquals(1, sprite.getOpacity(), "the drops are over");
+            }
+        });
+        close();
+    }
+
+    @Test
+    void gameShouldBePlayedOnTheCanvasBoard() {
+        play(20, 20);
+        HeadlessFx.run(() -> {
+            CanvasBoardPane canvasBoard = (CanvasBoardPane) board.getRegion();
+            Canvas canvas = (Canvas) canvasBoard.getChildrenUnmodifiable().getFirst();
+            PixelReader pixels = canvas.snapshot(null, null).getPixelReader();
+            double tileWidth = canvas.getWidth() / 20;
+            double tileHeight = canvas.getHeight() / 20;
+            for (int cell = 0; cell < 400; cell++) {
+                int row = cell / 20;
+                int col = cell % 20;
+                boolean background = pixels.getColor((int) ((col + 0.5) * tileWidth), (int) ((row + 0.5) * tileHeight))
+                        .equals(BACKGROUND);
+                assertEquals(model.getTileState(new Position(row, col)) == TileState.EMPTY, background, "tile " + cell);
+            }
+        });
+        close();
+    }
+
+    private void play(int rows, int cols) {
+        HeadlessFx.run(() -> {
+            model = new Game(rows, cols, game -> game.playTurn(quietTurn(game)));
+            MenuPane menu = new MenuPane(() -> { });
+            board = BoardView.create(rows, cols);
+            board.getRegion().setPrefSize(700, 700);
+            Pane boardContainer = new Pane(board.getRegion());
+            PerformanceMonitor monitor = new PerformanceMonitor();
+            controller = new JavaFXController(model, menu, board, new InfoPane("PINK Player", Color.PINK),
+                    new InfoPane("AI Player", Color.BLACK), boardContainer, monitor);
+            Scene scene = new Scene(boardContainer, 760, 760);
+            monitor.attach(scene);
+            stage = new Stage();
+            stage.setScene(scene);
+            stage.show();
+            model.notifyObservers();
+        });
+
+        for (int turns = 0; turns < 12; turns++) {
+            waitForTheComputer();
+            int turn = HeadlessFx.call(() -> model.isGameOver() ? Turn.NONE : quietTurn(model));
+            if (turn == Turn.NONE) {
+                break;
+            }
+            HeadlessFx.run(() -> {
+                click(model.getTotemPos(Turn.symbol(turn)));
+                click(positionOf(Turn.totemCell(turn)));
+                click(positionOf(Turn.pawnCell(turn)));
+            });
+            if (turns % 4 == 3) {
+                waitForTheComputer();
+                HeadlessFx.run(() -> {
+                    controller.undo();
+                    controller.redo();
+                });
+            }
+        }
+        waitForTheComputer();
+        // Longer than the slides and drops of the last turns
+        HeadlessFx.waitFor(3 * (long) (MoveAnimator.SLIDE_DURATION.toMillis() + MoveAnimator.DROP_DURATION.toMillis()));
+
+        assertEquals(List.of(), HeadlessFx.takeUncaught());
+        HeadlessFx.run(() -> {
+            for (Window window : Window.getWindows()) {
+                assertFalse(window instanceof Stage dialog && "Invalid Action".equals(dialog.getTitle()),
+                        "no error was reported");
+            }
+            assertTrue(model.getPly() > 2, "turns were played");
+        });
+    }
+
+    private void waitForTheComputer() {
+        for (int i = 0; i < 500 && HeadlessFx.call(() -> model.isAiTurn() && !model.isGameOver()); i++) {
+            HeadlessFx.waitFor(10);
+        }
+        assertFalse(HeadlessFx.call(() -> model.isAiTurn() && !model.isGameOver()), "the computer played");
+    }
+
+    /**
+     * @return The first legal turn that does not end the game, {@link Turn#NONE} if there is none.
+     */
+    private static int quietTurn(Game game) {
+        CompactState state = CompactState.of(game);
+        int[] legal = new int[state.maxTurns()];
+        int count = state.legalTurns(legal);
+        for (int i = 0; i < count; i++) {
+            Game next = game.fork();
+            next.playTurn(legal[i]);
+            if (!next.isGameOver()) {
+                return legal[i];
+            }
+        }
+        return Turn.NONE;
+    }
+
+    private Position positionOf(int cell) {
+        return new Position(cell / model.getCols(), cell % model.getCols());
+    }
+
+    private void click(Position pos) {
+        Node target;
+        double x;
+        double y;
+        if (board instanceof BoardPane grid) {
+            target = grid.getChildren().stream()
+                    .filter(node -> GridPane.getRowIndex(node) == pos.x() && GridPane.getColumnIndex(node) == pos.y())
+                    .findFirst().orElseThrow();
+            x = target.getLayoutBounds().getWidth() / 2;
+            y = target.getLayoutBounds().getHeight() / 2;
+        } else {
+            Canvas canvas = (Canvas) board.getRegion().getChildrenUnmodifiable().getFirst();
+            target = canvas;
+            x = (pos.y() + 0.5) * canvas.getWidth() / model.getCols();
+            y = (pos.x() + 0.5) * canvas.getHeight() / model.getRows();
+        }
+        // Created without a source, the event takes scene coordinates, the dispatch computes the local ones
+        Point2D scene = target.localToScene(x, y);
+        target.fireEvent(new MouseEvent(MouseEvent.MOUSE_CLICKED, scene.getX(), scene.getY(), scene.getX(), scene.getY(),
+                MouseButton.PRIMARY, 1,
+                false, false, false, false, true, false, false, true, false, true, null));
+    }
+
+    private void close() {
+        HeadlessFx.run(() -> {
+            controller.dispose();
+            for (Window window : List.copyOf(Window.getWindows())) {
+                window.hide();
+            }
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package view.javafx;
+
+import javafx.scene.shape.Rectangle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveAnimatorTest {
+
+    @BeforeAll
+    static void startToolkit() {
+        HeadlessFx.start();
+    }
+
+    @Test
+    void catchingUpShouldKeepTheAnimationsOfTheNewStep() {
+        MoveAnimator animator = new MoveAnimator();
+        List<Rectangle> sprites = new ArrayList<>();
+        HeadlessFx.run(() -> {
+            for (int step = 0; step < 4; step++) {
+                Rectangle sprite = new Rectangle(10, 10);
+                sprites.add(sprite);
+                animator.makeRoom();
+                animator.slide(sprite, 50, 0);
+                animator.drop(sprite);
+                animator.commit();
+            }
+        });
+
+        HeadlessFx.run(() -> {
+            for (Rectangle sprite : sprites.subList(0, 3)) {
+                assertEquals(0, sprite.getTranslateX(), "the queued steps were dropped");
+                assertEquals(1, sprite.getOpacity(), "the queued steps were dropped");
+            }
+            assertEquals(0, sprites.get(3).getOpacity(), "the last step is still to come");
+        });
+
+        HeadlessFx.waitFor(2 * (long) (MoveAnimator.SLIDE_DURATION.toMillis() + MoveAnimator.DROP_DURATION.toMillis()));
+        HeadlessFx.run(() -> {
+            Rectangle last = sprites.get(3);
+            assertEquals(0, last.getTranslateX(), "the last step was played");
+            assertEquals(1, last.getScaleX(), "the last step was played");
+            assertEquals(1, last.getOpacity(), "the last step was played");
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package view.javafx;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerformanceMonitorTest {
+
+    @BeforeAll
+    static void startToolkit() {
+        HeadlessFx.start();
+    }
+
+    @Test
+    void exportShouldKeepEveryFrameWhileTheOverlayShowsTheLastOnes(@TempDir Path dir) throws IOException {
+        PerformanceMonitor monitor = HeadlessFx.call(PerformanceMonitor::new);
+        HeadlessFx.run(() -> {
+            long now = 1_000_000_000L;
+            monitor.frameRendered(now);
+            // Two seconds at 50 frames per second, then more than a refresh period at 33
+            for (int i = 0; i < 100; i++) {
+                now += 20_000_000L;
+                monitor.frameRendered(now);
+            }
+            for (int i = 0; i < 20; i++) {
+                now += 30_000_000L;
+                monitor.frameRendered(now);
+            }
+        });
+
+        Path file = dir.resolve("times.txt");
+        monitor.export(file);
+        assertTrue(Files.readAllLines(file).getFirst().startsWith("frame count=120 "));
+        String overlay = HeadlessFx.call(() -> monitor.getOverlay().getText());
+        assertTrue(overlay.startsWith(String.format("FPS %.1f", 1e9 / 30_000_000L)), overlay);
+    }
+}
@@ -0,0 +1,66 @@
+package view.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteCacheTest {
+
+    @Test
+    void scaleShouldAverageThePixelsCoveredByEachPixel() {
+        int[] src = {
+                0xFF000000, 0xFF0000FF, 0x80402010, 0x00000000,
+                0xFFFF0000, 0xFF00FF00, 0x80402010, 0x40201008,
+        };
+        int[] dst = new int[2];
+        SpriteCache.scale(src, 4, 2, dst, 0, 2, 2, 1);
+        assertEquals(0xFF3F3F3F, dst[0]);
+        assertEquals(0x5028140A, dst[1]);
+    }
+
+    @Test
+    void scaleShouldRepeatThePixelsWhenEnlarging() {
+        int[] dst = new int[6];
+        SpriteCache.scale(new int[]{0x80402010}, 1, 1, dst, 0, 3, 3, 2);
+        for (int pixel : dst) {
+            assertEquals(0x80402010, pixel);
+        }
+    }
+
+    @Test
+    void scaleShouldOnlyWriteItsSpriteOfTheAtlas() {
+        int[] src = {0xFF102030, 0xFF102030, 0xFF102030, 0xFF102030};
+        int[] atlas = new int[3 * 2 * 2];
+        SpriteCache.scale(src, 2, 2, atlas, 2, 6, 2, 2);
+        int[] expected = {
+                0, 0, 0xFF102030, 0xFF102030, 0, 0,
+                0, 0, 0xFF102030, 0xFF102030, 0, 0,
+        };
+        assertArrayEquals(expected, atlas);
+    }
+
+    @Test
+    void leastRecentlyUsedSizeShouldBeDropped() {
+        List<String> created = new ArrayList<>();
+        SpriteCache cache = new SpriteCache(2, (width, height) -> {
+            created.add(width + "x" + height);
+            return new SpriteCache.Atlas(null, width, height);
+        });
+
+        SpriteCache.Atlas small = cache.get(10, 10);
+        cache.get(20, 20);
+        assertSame(small, cache.get(10, 10));
+        cache.get(30, 30);
+        assertSame(small, cache.get(10, 10), "10x10 was used after 20x20");
+        cache.get(20, 20);
+        cache.get(30, 30);
+        assertEquals(List.of("10x10", "20x20", "30x30", "20x20", "30x30"), created);
+        assertNotSame(small, cache.get(10, 10), "10x10 was the least recently used");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SpriteCache(0));
+    }
+}
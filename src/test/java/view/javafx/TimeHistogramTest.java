@@ -0,0 +1,57 @@
+package view.javafx;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeHistogramTest {
+
+    @Test
+    void bucketsShouldHoldTheirDurationsWithinAnEighth() {
+        for (long nanos = 0; nanos < 1_000_000; nanos = nanos * 3 / 2 + 1) {
+            long upper = TimeHistogram.upperBoundOf(TimeHistogram.bucketOf(nanos));
+            assertTrue(upper >= nanos, "bound of " + nanos);
+            assertTrue(upper - nanos <= nanos / TimeHistogram.SUB_BUCKETS, "bound of " + nanos);
+        }
+        assertEquals(Long.MAX_VALUE, TimeHistogram.upperBoundOf(TimeHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesShouldFollowTheRecordedDurations() {
+        TimeHistogram histogram = new TimeHistogram("test");
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 1e-6);
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 / TimeHistogram.SUB_BUCKETS);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 / TimeHistogram.SUB_BUCKETS);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void writeShouldListTheSummaryAndTheBuckets() {
+        TimeHistogram histogram = new TimeHistogram("click");
+        histogram.record(3);
+        histogram.record(3);
+        histogram.record(5);
+        StringWriter text = new StringWriter();
+        histogram.write(new PrintWriter(text, true));
+        String[] lines = text.toString().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("click count=3 "));
+        assertEquals("click 3 2", lines[1]);
+        assertEquals("click 5 1", lines[2]);
+    }
+}